@@ -0,0 +1,89 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import com.dxy.library.util.cipher.constant.Mode;
+import com.dxy.library.util.cipher.symmetry.AESUtils;
+import com.dxy.library.util.cipher.symmetry.SM4Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 认证加密性能测试：AESUtils、SM4Utils的GCM和CCM模式
+ * 参数：算法和密钥长度（位）、工作模式、数据长度（字节），线程数通过JMH的-t参数指定
+ * @author duanxinyuan
+ * 2026/10/18 17:10
+ */
+@BenchmarkMode({org.openjdk.jmh.annotations.Mode.Throughput, org.openjdk.jmh.annotations.Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AeadBenchmark {
+
+    //认证标签长度（位）
+    private static final int TAG_LENGTH = 128;
+
+    @Param({"AES-128", "AES-256", "SM4-128"})
+    private String algorithm;
+
+    @Param({"GCM", "CCM"})
+    private String mode;
+
+    @Param({"16", "1024", "65536", "1048576"})
+    private int size;
+
+    private boolean isAes;
+
+    private Mode aeadMode;
+
+    private byte[] key;
+
+    private byte[] nonce;
+
+    private byte[] aad;
+
+    private byte[] data;
+
+    private byte[] encrypted;
+
+    //加密时同一个密钥不能重复使用nonce，每次调用递增
+    private long counter;
+
+    @Setup
+    public void setup() {
+        String[] algorithmAndKeySize = algorithm.split("-");
+        isAes = "AES".equals(algorithmAndKeySize[0]);
+        aeadMode = Mode.valueOf(mode);
+        key = BenchmarkData.randomBytes(Integer.parseInt(algorithmAndKeySize[1]) / 8);
+        nonce = BenchmarkData.randomBytes(12);
+        aad = BenchmarkData.randomBytes(16);
+        data = BenchmarkData.randomBytes(size);
+        encrypted = isAes ? AESUtils.encrypt(data, key, nonce, aad, TAG_LENGTH, aeadMode) : SM4Utils.encrypt(data, key, nonce, aad, TAG_LENGTH, aeadMode);
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        byte[] iv = nonce.clone();
+        long value = ++counter;
+        for (int i = 0; i < 8; i++) {
+            iv[i] = (byte) (value >>> (i * 8));
+        }
+        return isAes ? AESUtils.encrypt(data, key, iv, aad, TAG_LENGTH, aeadMode) : SM4Utils.encrypt(data, key, iv, aad, TAG_LENGTH, aeadMode);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return isAes ? AESUtils.decrypt(encrypted, key, nonce, aad, TAG_LENGTH, aeadMode) : SM4Utils.decrypt(encrypted, key, nonce, aad, TAG_LENGTH, aeadMode);
+    }
+
+}
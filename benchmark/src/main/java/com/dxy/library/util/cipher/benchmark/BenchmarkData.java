@@ -0,0 +1,38 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import java.util.Random;
+
+/**
+ * 测试数据，固定随机种子，保证每次运行使用相同的数据
+ * @author duanxinyuan
+ * 2026/10/18 17:10
+ */
+class BenchmarkData {
+
+    private static final String CHARACTERS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private static final Random RANDOM = new Random(20261018L);
+
+    /**
+     * 随机字节
+     * @param length 长度
+     */
+    static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * 随机字符串（字母和数字，UTF-8编码后的字节数与字符数相同，可以直接作为密钥和偏移量）
+     * @param length 长度
+     */
+    static String randomString(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(CHARACTERS.charAt(RANDOM.nextInt(CHARACTERS.length())));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 按多个线程数依次运行性能测试，同时输出吞吐量、平均耗时和内存分配速率（GC Profiler），结果以JSON格式保存，便于对比改动前后的数据
+ * 用法：java -cp target/benchmarks.jar com.dxy.library.util.cipher.benchmark.BenchmarkRunner [测试类名称正则] [线程数列表]
+ * 如：java -cp target/benchmarks.jar com.dxy.library.util.cipher.benchmark.BenchmarkRunner "SymmetryBenchmark.encrypt$" 1,4
+ * 单个线程数的运行也可以直接使用JMH命令行：java -jar target/benchmarks.jar SymmetryBenchmark -t 4 -prof gc -p size=1024
+ * @author duanxinyuan
+ * 2026/10/18 17:10
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+        String threads = args.length > 1 ? args[1] : "1," + Runtime.getRuntime().availableProcessors();
+        for (String thread : threads.split(",")) {
+            int threadCount = Integer.parseInt(thread.trim());
+            ChainedOptionsBuilder builder = new OptionsBuilder()
+                    .include(include)
+                    .exclude(BenchmarkRunner.class.getSimpleName())
+                    .threads(threadCount)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("jmh-result-t" + threadCount + ".json");
+            new Runner(builder.build()).run();
+        }
+    }
+
+}
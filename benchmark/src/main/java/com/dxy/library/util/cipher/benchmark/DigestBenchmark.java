@@ -0,0 +1,79 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import com.dxy.library.util.cipher.constant.Algorithm;
+import com.dxy.library.util.cipher.hash.MD5Utils;
+import com.dxy.library.util.cipher.hash.SHAUtils;
+import com.dxy.library.util.cipher.hash.SM3Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 散列性能测试：MD5Utils、SHAUtils、SM3Utils
+ * 参数：算法、数据长度（字节），线程数通过JMH的-t参数指定
+ * @author duanxinyuan
+ * 2026/10/18 17:10
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DigestBenchmark {
+
+    @Param({"MD5", "SHA1", "SHA256", "SHA512", "SHA3_256", "SM3"})
+    private Algorithm algorithm;
+
+    @Param({"16", "1024", "65536", "1048576"})
+    private int size;
+
+    private byte[] data;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        text = BenchmarkData.randomString(size);
+        data = text.getBytes();
+    }
+
+    @Benchmark
+    public byte[] digest() {
+        switch (algorithm) {
+            case MD5:
+                return MD5Utils.md5(data);
+            case SM3:
+                //SM3Utils只有字符串接口
+                return SM3Utils.sm3(text).getBytes();
+            default:
+                return SHAUtils.sha(data, algorithm);
+        }
+    }
+
+    /**
+     * 字符串接口，包含字符集编码和16进制编码
+     */
+    @Benchmark
+    public String digestText() {
+        switch (algorithm) {
+            case MD5:
+                return MD5Utils.md5(text);
+            case SM3:
+                return SM3Utils.sm3(text);
+            default:
+                return SHAUtils.sha(text, algorithm);
+        }
+    }
+
+}
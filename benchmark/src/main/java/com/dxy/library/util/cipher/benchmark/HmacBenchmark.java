@@ -0,0 +1,57 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import com.dxy.library.util.cipher.constant.HmacType;
+import com.dxy.library.util.cipher.hash.HmacUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HmacUtils性能测试
+ * 参数：Hmac类型、密钥长度（位）、数据长度（字节），线程数通过JMH的-t参数指定
+ * @author duanxinyuan
+ * 2026/10/18 17:10
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HmacBenchmark {
+
+    @Param({"HmacMD5", "HmacSHA1", "HmacSHA256", "HmacSHA512"})
+    private HmacType hmacType;
+
+    @Param({"128", "256"})
+    private int keySize;
+
+    @Param({"16", "1024", "65536", "1048576"})
+    private int size;
+
+    private byte[] key;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        key = BenchmarkData.randomBytes(keySize / 8);
+        data = BenchmarkData.randomBytes(size);
+    }
+
+    @Benchmark
+    public byte[] hmac() {
+        return HmacUtils.hmac(data, key, hmacType);
+    }
+
+}
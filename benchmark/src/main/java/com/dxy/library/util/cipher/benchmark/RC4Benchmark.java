@@ -0,0 +1,73 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import com.dxy.library.util.cipher.symmetry.RC4Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RC4Utils性能测试（加密和解密是同一个操作）
+ * 参数：密钥长度（位）、数据长度（字符或者字节），线程数通过JMH的-t参数指定
+ * @author duanxinyuan
+ * 2026/10/18 17:10
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RC4Benchmark {
+
+    @Param({"40", "128", "256"})
+    private int keySize;
+
+    @Param({"16", "1024", "65536"})
+    private int size;
+
+    private String key;
+
+    private String text;
+
+    private byte[] keyBytes;
+
+    private byte[] data;
+
+    private byte[] output;
+
+    @Setup
+    public void setup() {
+        key = BenchmarkData.randomString(keySize / 8);
+        text = BenchmarkData.randomString(size);
+        keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        data = BenchmarkData.randomBytes(size);
+        output = new byte[size];
+    }
+
+    @Benchmark
+    public String encryptOrDecrypt() {
+        return RC4Utils.encryptOrDecrypt(text, key);
+    }
+
+    @Benchmark
+    public byte[] encryptOrDecryptBytes() {
+        return RC4Utils.encryptOrDecrypt(data, keyBytes);
+    }
+
+    @Benchmark
+    public int encryptOrDecryptToArray() {
+        return RC4Utils.encryptOrDecrypt(data, 0, data.length, output, 0, keyBytes);
+    }
+
+}
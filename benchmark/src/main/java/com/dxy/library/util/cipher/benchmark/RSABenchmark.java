@@ -0,0 +1,84 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import com.dxy.library.util.cipher.asymmetry.RSAUtils;
+import com.dxy.library.util.cipher.constant.RSASignType;
+import com.dxy.library.util.cipher.pojo.RSAKeyPair;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RSAUtils性能测试：公钥加密、私钥解密（超过单次加解密长度时分段处理）、签名、验签，密钥以Base64字符串传入，包含密钥解析的开销
+ * 参数：密钥长度（位）、数据长度（字节），线程数通过JMH的-t参数指定
+ * @author duanxinyuan
+ * 2026/10/18 17:10
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RSABenchmark {
+
+    @Param({"1024", "2048", "4096"})
+    private int keySize;
+
+    @Param({"64", "1024", "16384"})
+    private int size;
+
+    @Param({"SHA256withRSA"})
+    private RSASignType signType;
+
+    private String publicKey;
+
+    private String privateKey;
+
+    private byte[] data;
+
+    private byte[] encrypted;
+
+    private byte[] sign;
+
+    @Setup
+    public void setup() {
+        RSAKeyPair keyPair = RSAUtils.generateKey(keySize);
+        publicKey = keyPair.getPublicKey();
+        privateKey = keyPair.getPrivateKey();
+        data = BenchmarkData.randomBytes(size);
+        encrypted = RSAUtils.encryptByPublicKey(data, Base64.decodeBase64(publicKey));
+        sign = Base64.decodeBase64(RSAUtils.sign(signType, data, privateKey));
+    }
+
+    @Benchmark
+    public byte[] encryptByPublicKey() {
+        return RSAUtils.encryptByPublicKey(data, Base64.decodeBase64(publicKey));
+    }
+
+    @Benchmark
+    public byte[] decryptByPrivateKey() {
+        return RSAUtils.decryptByPrivateKey(encrypted, privateKey);
+    }
+
+    @Benchmark
+    public String sign() {
+        return RSAUtils.sign(signType, data, privateKey);
+    }
+
+    @Benchmark
+    public boolean verifySign() {
+        return RSAUtils.verifySign(signType, data, publicKey, sign);
+    }
+
+}
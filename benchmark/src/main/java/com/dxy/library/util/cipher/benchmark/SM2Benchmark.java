@@ -0,0 +1,90 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import com.dxy.library.util.cipher.asymmetry.SM2Utils;
+import com.dxy.library.util.cipher.constant.SM2SignType;
+import com.dxy.library.util.cipher.pojo.SM2KeyPair;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SM2Utils性能测试：加密、解密、签名、验签，密钥以字符串传入，包含密钥解析的开销
+ * 参数：数据长度（字节）、签名类型，线程数通过JMH的-t参数指定
+ * @author duanxinyuan
+ * 2026/10/18 17:10
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SM2Benchmark {
+
+    @Param({"64", "1024", "16384"})
+    private int size;
+
+    @Param({"sm3WithSM2", "SHA256withSM2"})
+    private SM2SignType signType;
+
+    private String publicKey;
+
+    private String privateKey;
+
+    private byte[] publicKeyBytes;
+
+    private byte[] privateKeyBytes;
+
+    private String text;
+
+    private byte[] data;
+
+    private byte[] encrypted;
+
+    private byte[] sign;
+
+    @Setup
+    public void setup() {
+        SM2KeyPair keyPair = SM2Utils.generateKey();
+        publicKeyBytes = keyPair.getEcPublicKey().getEncoded();
+        privateKeyBytes = keyPair.getEcPrivateKey().getEncoded();
+        publicKey = Base64.encodeBase64String(publicKeyBytes);
+        privateKey = Base64.encodeBase64String(privateKeyBytes);
+        text = BenchmarkData.randomString(size);
+        data = text.getBytes();
+        encrypted = SM2Utils.encrypt(data, publicKeyBytes);
+        sign = Base64.decodeBase64(SM2Utils.sign(signType, text, privateKey));
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return SM2Utils.encrypt(data, publicKeyBytes);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return SM2Utils.decrypt(encrypted, privateKeyBytes);
+    }
+
+    @Benchmark
+    public String sign() {
+        return SM2Utils.sign(signType, text, privateKey);
+    }
+
+    @Benchmark
+    public boolean verifySign() {
+        return SM2Utils.verifySign(signType, data, publicKey, sign);
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import com.dxy.library.util.cipher.constant.Mode;
+import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.engine.SM4Cipher;
+import com.dxy.library.util.cipher.pool.CipherPool;
+import com.dxy.library.util.cipher.symmetry.ParallelCipher;
+import com.dxy.library.util.cipher.symmetry.SM4Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SM4实现对比性能测试：查表实现（SM4Cipher）与BouncyCastle的SM4实现
+ * 参数：实现（table或者bc）、密码块工作模式和填充方式、数据长度（字节），线程数通过JMH的-t参数指定
+ * @author duanxinyuan
+ * 2026/10/18 18:40
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SM4EngineBenchmark {
+
+    @Param({"table", "bc"})
+    private String engine;
+
+    @Param({"ECB/PKCS5Padding", "CBC/PKCS5Padding", "CTR/NoPadding"})
+    private String transformation;
+
+    @Param({"64", "16384", "1048576"})
+    private int size;
+
+    private Mode mode;
+
+    private Padding padding;
+
+    private byte[] key;
+
+    private String iv;
+
+    private byte[] data;
+
+    private byte[] encrypted;
+
+    @Setup
+    public void setup() {
+        SM4Cipher.setEnabled("table".equals(engine));
+        CipherPool.clear();
+        //只比较单线程的实现，不分段并行
+        ParallelCipher.setEcbThreshold(Integer.MAX_VALUE);
+        ParallelCipher.setCtrThreshold(Integer.MAX_VALUE);
+        ParallelCipher.setCbcDecryptThreshold(Integer.MAX_VALUE);
+        String[] modeAndPadding = transformation.split("/");
+        mode = Mode.valueOf(modeAndPadding[0]);
+        padding = Padding.valueOf(modeAndPadding[1]);
+        key = BenchmarkData.randomString(16).getBytes(StandardCharsets.UTF_8);
+        iv = mode == Mode.ECB ? null : BenchmarkData.randomString(16);
+        data = BenchmarkData.randomBytes(size);
+        encrypted = SM4Utils.encrypt(data, key, iv, mode, padding);
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return SM4Utils.encrypt(data, key, iv, mode, padding);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return SM4Utils.decrypt(encrypted, key, iv, mode, padding);
+    }
+
+}
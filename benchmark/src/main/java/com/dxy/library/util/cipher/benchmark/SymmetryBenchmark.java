@@ -0,0 +1,170 @@
+package com.dxy.library.util.cipher.benchmark;
+
+import com.dxy.library.util.cipher.constant.Mode;
+import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.symmetry.AESUtils;
+import com.dxy.library.util.cipher.symmetry.BlowfishUtils;
+import com.dxy.library.util.cipher.symmetry.DESUtils;
+import com.dxy.library.util.cipher.symmetry.DESedeUtils;
+import com.dxy.library.util.cipher.symmetry.SM4Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分组对称加密性能测试：AESUtils、SM4Utils、DESUtils、DESedeUtils、BlowfishUtils
+ * 参数：算法和密钥长度（位）、密码块工作模式和填充方式、数据长度（字节），线程数通过JMH的-t参数指定
+ * @author duanxinyuan
+ * 2026/10/18 17:10
+ */
+@BenchmarkMode({org.openjdk.jmh.annotations.Mode.Throughput, org.openjdk.jmh.annotations.Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SymmetryBenchmark {
+
+    @Param({"AES-128", "AES-256", "SM4-128", "DES-64", "DESede-128", "DESede-192", "Blowfish-128"})
+    private String algorithm;
+
+    @Param({"ECB/PKCS5Padding", "CBC/PKCS5Padding", "CTR/NoPadding"})
+    private String transformation;
+
+    @Param({"16", "1024", "65536", "1048576"})
+    private int size;
+
+    private SymmetryCipher cipher;
+
+    private Mode mode;
+
+    private Padding padding;
+
+    private String key;
+
+    private byte[] keyBytes;
+
+    private String iv;
+
+    private byte[] data;
+
+    private String text;
+
+    private byte[] encrypted;
+
+    private String encryptedText;
+
+    @Setup
+    public void setup() {
+        String[] algorithmAndKeySize = algorithm.split("-");
+        String[] modeAndPadding = transformation.split("/");
+        mode = Mode.valueOf(modeAndPadding[0]);
+        padding = Padding.valueOf(modeAndPadding[1]);
+        key = BenchmarkData.randomString(Integer.parseInt(algorithmAndKeySize[1]) / 8);
+        keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        switch (algorithmAndKeySize[0]) {
+            case "AES":
+                cipher = new SymmetryCipher(AESUtils::encrypt, AESUtils::decrypt, AESUtils::encrypt, AESUtils::decrypt);
+                iv = BenchmarkData.randomString(16);
+                break;
+            case "SM4":
+                cipher = new SymmetryCipher(SM4Utils::encrypt, SM4Utils::decrypt, SM4Utils::encrypt, SM4Utils::decrypt);
+                iv = BenchmarkData.randomString(16);
+                break;
+            case "DES":
+                cipher = new SymmetryCipher(DESUtils::encrypt, DESUtils::decrypt, DESUtils::encrypt, DESUtils::decrypt);
+                iv = BenchmarkData.randomString(8);
+                break;
+            case "DESede":
+                cipher = new SymmetryCipher(DESedeUtils::encrypt, DESedeUtils::decrypt, DESedeUtils::encrypt, DESedeUtils::decrypt);
+                iv = BenchmarkData.randomString(8);
+                break;
+            case "Blowfish":
+                cipher = new SymmetryCipher(BlowfishUtils::encrypt, BlowfishUtils::decrypt, BlowfishUtils::encrypt, BlowfishUtils::decrypt);
+                iv = BenchmarkData.randomString(8);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown algorithm " + algorithm);
+        }
+        if (mode == Mode.ECB) {
+            iv = null;
+        }
+        data = BenchmarkData.randomBytes(size);
+        text = BenchmarkData.randomString(size);
+        encrypted = cipher.bytesEncryptor.handle(data, keyBytes, iv, mode, padding);
+        encryptedText = cipher.textEncryptor.handle(text, key, iv, mode, padding);
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return cipher.bytesEncryptor.handle(data, keyBytes, iv, mode, padding);
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return cipher.bytesDecryptor.handle(encrypted, keyBytes, iv, mode, padding);
+    }
+
+    /**
+     * 字符串接口，包含字符集编码和Base64编解码
+     */
+    @Benchmark
+    public String encryptText() {
+        return cipher.textEncryptor.handle(text, key, iv, mode, padding);
+    }
+
+    /**
+     * 字符串接口，包含字符集编码和Base64编解码
+     */
+    @Benchmark
+    public String decryptText() {
+        return cipher.textDecryptor.handle(encryptedText, key, iv, mode, padding);
+    }
+
+    @FunctionalInterface
+    interface BytesHandler {
+
+        byte[] handle(byte[] data, byte[] key, String iv, Mode mode, Padding padding);
+
+    }
+
+    @FunctionalInterface
+    interface TextHandler {
+
+        String handle(String data, String key, String iv, Mode mode, Padding padding);
+
+    }
+
+    /**
+     * 工具类的加解密方法
+     */
+    static class SymmetryCipher {
+
+        private final BytesHandler bytesEncryptor;
+
+        private final BytesHandler bytesDecryptor;
+
+        private final TextHandler textEncryptor;
+
+        private final TextHandler textDecryptor;
+
+        SymmetryCipher(BytesHandler bytesEncryptor, BytesHandler bytesDecryptor, TextHandler textEncryptor, TextHandler textDecryptor) {
+            this.bytesEncryptor = bytesEncryptor;
+            this.bytesDecryptor = bytesDecryptor;
+            this.textEncryptor = textEncryptor;
+            this.textDecryptor = textDecryptor;
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.dxy.library.util.cipher.asymmetry;
+
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
+import com.dxy.library.util.cipher.exception.CipherException;
+
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 批量验签
+ * 按线程池并行度把数据分组（每个线程约4组，便于负载均衡），每组在一个线程中依次验签，
+ * Signature由{@link com.dxy.library.util.cipher.pool.SignaturePool}按线程缓存，各线程互不影响
+ * 数据量较小或者线程池并行度为1时在调用线程中串行处理
+ * @author duanxinyuan
+ * 2026/10/18 21:35
+ */
+class BatchVerifier {
+
+    //单组的最小数据条数
+    private static final int MIN_GROUP_SIZE = 64;
+
+    /**
+     * 批量验签
+     * @param data 数据列表
+     * @param signs 签名列表，与数据列表一一对应
+     * @param executor 线程池
+     * @param verifier 单条验签，数据或者签名为null、签名格式错误（SignatureException）视为验签失败，其他异常直接抛出
+     * @return 验签结果，第i位为true表示第i条验签通过
+     */
+    static BitSet verifyAll(List<byte[]> data, List<byte[]> signs, ExecutorService executor, Verifier verifier) {
+        if (data.size() != signs.size()) {
+            throw new CipherException("signs size {} not equals data size {}", signs.size(), data.size());
+        }
+        int size = data.size();
+        int parallelism = CipherExecutors.getParallelism(executor);
+        int groupSize = Math.max(MIN_GROUP_SIZE, (size + parallelism * 4 - 1) / (parallelism * 4));
+        if (parallelism <= 1 || size <= groupSize) {
+            return verify(data, signs, 0, size, verifier);
+        }
+        List<Callable<BitSet>> tasks = new ArrayList<>();
+        for (int from = 0; from < size; from += groupSize) {
+            int start = from;
+            int end = Math.min(from + groupSize, size);
+            tasks.add(() -> verify(data, signs, start, end, verifier));
+        }
+        BitSet result = new BitSet(size);
+        try {
+            List<BitSet> bitSets = CipherExecutors.invokeAll(executor, tasks);
+            for (int group = 0; group < bitSets.size(); group++) {
+                //各组的结果从0开始，合并时偏移到组的起始位置
+                BitSet bitSet = bitSets.get(group);
+                int from = group * groupSize;
+                for (int i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+                    result.set(from + i);
+                }
+            }
+        } catch (CipherException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CipherException("batch verify sign error", e);
+        }
+        return result;
+    }
+
+    /**
+     * 依次验签[from, to)之间的数据
+     * @return 验签结果，第i位对应第from+i条
+     */
+    private static BitSet verify(List<byte[]> data, List<byte[]> signs, int from, int to, Verifier verifier) {
+        BitSet bitSet = new BitSet(to - from);
+        for (int i = from; i < to; i++) {
+            byte[] bytes = data.get(i);
+            byte[] sign = signs.get(i);
+            if (bytes == null || sign == null) {
+                continue;
+            }
+            try {
+                if (verifier.verify(bytes, sign)) {
+                    bitSet.set(i - from);
+                }
+            } catch (SignatureException e) {
+                //签名格式错误等视为验签失败
+            } catch (CipherException e) {
+                throw e;
+            } catch (Exception e) {
+                //签名类型、密钥或者Provider配置错误
+                throw new CipherException("batch verify sign error", e);
+            }
+        }
+        return bitSet;
+    }
+
+    /**
+     * 单条验签，签名格式错误时抛出SignatureException，其他异常表示配置错误
+     */
+    @FunctionalInterface
+    interface Verifier {
+
+        boolean verify(byte[] data, byte[] sign) throws Exception;
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.dxy.library.util.cipher.asymmetry;
+
+import com.dxy.library.util.cipher.exception.CipherException;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.Signature;
+import java.security.SignatureException;
+
+/**
+ * 增量验签，用于分段到达的数据，通过RSAUtils.newVerifier、SM2Utils.newVerifier创建
+ * 多次update之后调用{@link #verify(byte[])}校验签名，验签之后回到初始状态，可以继续校验下一份数据
+ * 持有独占的Signature，可以跨调用持有，但非线程安全
+ * @author duanxinyuan
+ * 2026/10/18 21:55
+ */
+public class IncrementalVerifier {
+
+    private final Signature signature;
+
+    IncrementalVerifier(Signature signature) {
+        this.signature = signature;
+    }
+
+    /**
+     * 追加数据
+     * @param data 数据
+     */
+    public IncrementalVerifier update(byte[] data) {
+        return update(data, 0, data.length);
+    }
+
+    /**
+     * 追加数据
+     * @param data 数据
+     * @param offset 起始位置
+     * @param length 长度
+     */
+    public IncrementalVerifier update(byte[] data, int offset, int length) {
+        try {
+            signature.update(data, offset, length);
+        } catch (SignatureException e) {
+            throw new CipherException(signature.getAlgorithm() + " verify sign error", e);
+        }
+        return this;
+    }
+
+    /**
+     * 追加数据（读取position到limit之间的数据）
+     * @param data 数据
+     */
+    public IncrementalVerifier update(ByteBuffer data) {
+        try {
+            signature.update(data);
+        } catch (SignatureException e) {
+            throw new CipherException(signature.getAlgorithm() + " verify sign error", e);
+        }
+        return this;
+    }
+
+    /**
+     * 追加输入流中的全部数据（读取到末尾，不关闭输入流）
+     * @param in 输入流
+     */
+    public IncrementalVerifier update(InputStream in) {
+        try {
+            SignatureStreams.update(signature, in);
+        } catch (Exception e) {
+            throw new CipherException(signature.getAlgorithm() + " verify sign error", e);
+        }
+        return this;
+    }
+
+    /**
+     * 校验签名，之后回到初始状态
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public boolean verify(byte[] sign) {
+        try {
+            return signature.verify(sign);
+        } catch (SignatureException e) {
+            throw new CipherException(signature.getAlgorithm() + " verify sign error", e);
+        }
+    }
+
+    public String getAlgorithm() {
+        return signature.getAlgorithm();
+    }
+
+}
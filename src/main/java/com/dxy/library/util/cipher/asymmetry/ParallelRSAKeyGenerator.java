@@ -0,0 +1,188 @@
+package com.dxy.library.util.cipher.asymmetry;
+
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
+import com.dxy.library.util.cipher.constant.Algorithm;
+import com.dxy.library.util.cipher.exception.CipherException;
+import org.bouncycastle.math.Primes;
+import org.bouncycastle.math.ec.WNafUtil;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.security.spec.RSAPrivateCrtKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * RSA密钥并行生成
+ * 密钥生成的耗时几乎全部在搜索素数p和q上，这里由线程池中的多个线程同时随机搜索候选数，最先找到的两个满足条件的素数作为p和q，耗时随线程数近似线性下降
+ * 素性检测与JDK一致：先排除小素数因子，再使用BigInteger.isProbablePrime（Miller-Rabin加Lucas测试，出错概率不超过2^-100）
+ * p、q和模数的约束与BouncyCastle一致：公钥指数65537，p-1和q-1与公钥指数互素，|p-q|足够大，模数的NAF权重足够大，私钥指数足够大
+ * @author duanxinyuan
+ * 2026/10/18 23:05
+ */
+class ParallelRSAKeyGenerator {
+
+    //公钥指数
+    private static final BigInteger E = RSAKeyGenParameterSpec.F4;
+
+    //素性检测的确定性，与BigInteger.probablePrime一致
+    private static final int CERTAINTY = 100;
+
+    /**
+     * 生成密钥对
+     * @param keysize 密钥长度
+     * @param executor 搜索素数使用的线程池
+     */
+    static KeyPair generate(int keysize, ExecutorService executor) {
+        if (keysize < 512) {
+            throw new CipherException("RSA keysize must be at least 512");
+        }
+        int parallelism = Math.max(1, CipherExecutors.getParallelism(executor));
+        while (true) {
+            Search search = new Search(keysize);
+            List<Callable<Void>> tasks = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                tasks.add(search);
+            }
+            try {
+                CipherExecutors.invokeAll(executor, tasks);
+            } catch (CipherException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CipherException("RSA key generate error", e);
+            }
+            KeyPair keyPair = newKeyPair(search.p, search.q, keysize);
+            if (keyPair != null) {
+                return keyPair;
+            }
+        }
+    }
+
+    /**
+     * 由p和q计算密钥对，私钥指数过小时返回null，需要重新生成
+     */
+    private static KeyPair newKeyPair(BigInteger p, BigInteger q, int keysize) {
+        if (p.compareTo(q) < 0) {
+            BigInteger tmp = p;
+            p = q;
+            q = tmp;
+        }
+        BigInteger n = p.multiply(q);
+        BigInteger pSub1 = p.subtract(BigInteger.ONE);
+        BigInteger qSub1 = q.subtract(BigInteger.ONE);
+        //d = e^-1 mod lcm(p-1, q-1)
+        BigInteger lcm = pSub1.divide(pSub1.gcd(qSub1)).multiply(qSub1);
+        BigInteger d = E.modInverse(lcm);
+        if (d.bitLength() <= keysize / 2) {
+            return null;
+        }
+        BigInteger dP = d.remainder(pSub1);
+        BigInteger dQ = d.remainder(qSub1);
+        BigInteger qInv = q.modInverse(p);
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(Algorithm.RSA.getAlgorithm());
+            return new KeyPair(keyFactory.generatePublic(new RSAPublicKeySpec(n, E)),
+                    keyFactory.generatePrivate(new RSAPrivateCrtKeySpec(n, E, d, p, q, dP, dQ, qInv)));
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("RSA key generate error", e);
+        }
+    }
+
+    /**
+     * 一次搜索，各线程共享，找到p和q之后全部线程退出
+     */
+    private static class Search implements Callable<Void> {
+
+        private final int keysize;
+
+        //p和q的位数，keysize为奇数时p比q多一位
+        private final int pBits;
+
+        private final int qBits;
+
+        //|p-q|的最小位数
+        private final int minDiffBits;
+
+        //模数NAF权重的最小值
+        private final int minWeight;
+
+        private BigInteger p;
+
+        private BigInteger q;
+
+        private volatile boolean done;
+
+        Search(int keysize) {
+            this.keysize = keysize;
+            this.pBits = (keysize + 1) / 2;
+            this.qBits = keysize - pBits;
+            this.minDiffBits = keysize / 2 - 100;
+            this.minWeight = keysize >> 2;
+        }
+
+        @Override
+        public Void call() {
+            SecureRandom random = new SecureRandom();
+            try {
+                while (!done) {
+                    int bits = nextBits();
+                    //最高两位置1，保证p*q的位数恰好为keysize
+                    BigInteger candidate = new BigInteger(bits, random).setBit(bits - 1).setBit(bits - 2).setBit(0);
+                    if (candidate.mod(E).equals(BigInteger.ONE)) {
+                        continue;
+                    }
+                    if (Primes.hasAnySmallFactors(candidate) || !candidate.isProbablePrime(CERTAINTY)) {
+                        continue;
+                    }
+                    offer(candidate, bits);
+                }
+            } finally {
+                //任一线程异常退出时其他线程也退出
+                done = true;
+            }
+            return null;
+        }
+
+        private synchronized int nextBits() {
+            return p == null ? pBits : qBits;
+        }
+
+        /**
+         * 提交找到的素数，先作为p，再作为q
+         */
+        private synchronized void offer(BigInteger prime, int bits) {
+            if (done) {
+                return;
+            }
+            if (p == null) {
+                if (bits == pBits) {
+                    p = prime;
+                }
+                return;
+            }
+            if (bits != qBits || prime.subtract(p).abs().bitLength() < minDiffBits) {
+                return;
+            }
+            BigInteger n = p.multiply(prime);
+            if (n.bitLength() != keysize) {
+                return;
+            }
+            if (WNafUtil.getNafWeight(n) < minWeight) {
+                //模数的NAF权重过小，重新搜索p
+                p = null;
+                return;
+            }
+            q = prime;
+            done = true;
+        }
+
+    }
+
+}
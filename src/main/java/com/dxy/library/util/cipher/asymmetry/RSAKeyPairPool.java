@@ -0,0 +1,304 @@
+package com.dxy.library.util.cipher.asymmetry;
+
+import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.pojo.CacheStats;
+import com.dxy.library.util.cipher.pojo.RSAKeyPair;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RSA密钥对预生成池
+ * RSA密钥生成需要搜索大素数，2048位需要数百毫秒，4096位需要数秒且耗时波动很大，这里由后台低优先级的守护线程提前生成，放入有界队列
+ * 队列中的数量降到低水位时开始补充，直到填满容量；{@link #take()}优先从队列中取出，队列为空时在调用线程中同步生成
+ * 补充时在池自己的后台线程中直接使用KeyPairGenerator生成，不使用{@link com.dxy.library.util.cipher.concurrent.CipherExecutors}等共享线程池，避免与并行加解密、验签等任务争抢CPU
+ * 每个密钥对只会被取出一次：队列出队是原子的，持久化文件在加载后立即删除
+ * 可选持久化：{@link #close()}时把剩余的密钥对写入文件，下次创建时加载，避免重启后重新生成。文件中包含私钥明文（Base64编码），需要妥善保护，支持时会把权限设置为仅所有者可读写
+ * 通过{@link RSAUtils#setKeyPairPool(RSAKeyPairPool)}设置之后，{@link RSAUtils#generateKey(int)}在密钥长度一致时从池中获取
+ * @author duanxinyuan
+ * 2026/10/18 22:30
+ */
+public class RSAKeyPairPool implements Closeable {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    //密钥长度
+    private final int keysize;
+
+    //容量，即补充时的高水位
+    private final int capacity;
+
+    //低水位，队列中的数量不超过该值时开始补充
+    private final int lowWatermark;
+
+    //持久化文件，为null时不持久化
+    private final Path spillFile;
+
+    private final ArrayBlockingQueue<RSAKeyPair> queue;
+
+    private final ExecutorService executor;
+
+    private final int threads;
+
+    //正在生成的数量
+    private final AtomicInteger generating = new AtomicInteger();
+
+    //正在运行的补充任务数量
+    private final AtomicInteger refilling = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * 创建预生成池，低水位为容量的一半，使用1个后台线程，不持久化
+     * @param keysize 密钥长度
+     * @param capacity 容量
+     */
+    public RSAKeyPairPool(int keysize, int capacity) {
+        this(keysize, capacity, capacity / 2, 1, null);
+    }
+
+    /**
+     * 创建预生成池，创建后立即开始后台生成
+     * @param keysize 密钥长度
+     * @param capacity 容量，即补充时的高水位
+     * @param lowWatermark 低水位，队列中的数量不超过该值时开始补充，取值[0, capacity)
+     * @param threads 后台生成线程数
+     * @param spillFile 持久化文件，为null时不持久化，存在时加载其中密钥长度一致的密钥对并删除该文件
+     */
+    public RSAKeyPairPool(int keysize, int capacity, int lowWatermark, int threads, Path spillFile) {
+        if (capacity <= 0) {
+            throw new CipherException("RSA key pair pool capacity must be positive");
+        }
+        if (lowWatermark < 0 || lowWatermark >= capacity) {
+            throw new CipherException("RSA key pair pool low watermark must be in [0, {})", capacity);
+        }
+        if (threads <= 0) {
+            throw new CipherException("RSA key pair pool threads must be positive");
+        }
+        this.keysize = keysize;
+        this.capacity = capacity;
+        this.lowWatermark = lowWatermark;
+        this.threads = threads;
+        this.spillFile = spillFile;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        String namePrefix = "rsa-key-pair-pool-" + POOL_NUMBER.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        load();
+        refill();
+    }
+
+    /**
+     * 取出一个密钥对，队列为空时在调用线程中同步生成
+     */
+    public RSAKeyPair take() {
+        if (closed) {
+            throw new CipherException("RSA key pair pool closed");
+        }
+        RSAKeyPair keyPair = queue.poll();
+        if (queue.size() <= lowWatermark) {
+            refill();
+        }
+        if (keyPair != null) {
+            hits.increment();
+            return keyPair;
+        }
+        misses.increment();
+        return generate();
+    }
+
+    /**
+     * 队列中已生成的数量
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    public int getKeysize() {
+        return keysize;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getLowWatermark() {
+        return lowWatermark;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 获取统计信息，命中为从队列中取出的次数，未命中为同步生成的次数
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), 0, 0, queue.size(), capacity);
+    }
+
+    /**
+     * 停止后台生成，配置了持久化文件时把剩余的密钥对写入文件，关闭后不能再取出
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdownNow();
+        List<RSAKeyPair> keyPairs = new ArrayList<>(capacity);
+        queue.drainTo(keyPairs);
+        if (spillFile != null && !keyPairs.isEmpty()) {
+            spill(keyPairs);
+        }
+    }
+
+    /**
+     * 启动补充任务，直到队列和正在生成的数量达到容量
+     */
+    private void refill() {
+        int running;
+        while ((running = refilling.get()) < threads) {
+            if (closed || queue.size() + generating.get() >= capacity) {
+                return;
+            }
+            if (refilling.compareAndSet(running, running + 1)) {
+                try {
+                    executor.execute(this::fill);
+                } catch (RuntimeException e) {
+                    //已关闭
+                    refilling.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void fill() {
+        boolean failed = false;
+        try {
+            while (!closed && reserve()) {
+                try {
+                    RSAKeyPair keyPair = generate();
+                    if (closed || !queue.offer(keyPair)) {
+                        return;
+                    }
+                } finally {
+                    generating.decrementAndGet();
+                }
+            }
+        } catch (CipherException e) {
+            //生成失败时停止补充，take()同步生成时会抛出异常
+            failed = true;
+        } finally {
+            refilling.decrementAndGet();
+        }
+        //退出期间被取出的部分，take()可能因为补充任务数已满而没有启动新的补充任务
+        if (!failed && queue.size() <= lowWatermark) {
+            refill();
+        }
+    }
+
+    /**
+     * 在当前线程（补充线程或者take()的调用线程）中生成密钥对
+     * 不能分发到共享线程池，否则后台线程的低优先级失去意义
+     */
+    private RSAKeyPair generate() {
+        return RSAUtils.newKeyPair(keysize);
+    }
+
+    /**
+     * 预占一个生成名额，队列和正在生成的数量达到容量时返回false
+     */
+    private boolean reserve() {
+        int current;
+        do {
+            current = generating.get();
+            if (queue.size() + current >= capacity) {
+                return false;
+            }
+        } while (!generating.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * 加载持久化文件中的密钥对，加载后立即删除文件，保证每个密钥对只会被取出一次
+     */
+    private void load() {
+        if (spillFile == null || !Files.exists(spillFile)) {
+            return;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(spillFile, StandardCharsets.US_ASCII);
+            Files.delete(spillFile);
+        } catch (IOException e) {
+            throw new CipherException("RSA key pair spill file load error", e);
+        }
+        for (String line : lines) {
+            int index = line.indexOf(' ');
+            if (index <= 0) {
+                continue;
+            }
+            try {
+                RSAKeyPair keyPair = new RSAKeyPair();
+                keyPair.setPublicKey(line.substring(0, index));
+                keyPair.setPrivateKey(line.substring(index + 1));
+                keyPair.setModules(RSAUtils.getPublicKey(keyPair.getPublicKey()).getModulus());
+                if (keyPair.getModules().bitLength() == keysize && !queue.offer(keyPair)) {
+                    break;
+                }
+            } catch (CipherException ignored) {
+                //跳过无效的密钥
+            }
+        }
+    }
+
+    /**
+     * 写入持久化文件，先写临时文件再替换，避免写入中断时留下不完整的文件
+     */
+    private void spill(List<RSAKeyPair> keyPairs) {
+        List<String> lines = new ArrayList<>(keyPairs.size());
+        for (RSAKeyPair keyPair : keyPairs) {
+            lines.add(keyPair.getPublicKey() + " " + keyPair.getPrivateKey());
+        }
+        Path tempFile = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+        try {
+            Files.deleteIfExists(tempFile);
+            try {
+                Files.createFile(tempFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } catch (UnsupportedOperationException e) {
+                Files.createFile(tempFile);
+            }
+            Files.write(tempFile, lines, StandardCharsets.US_ASCII);
+            Files.move(tempFile, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new CipherException("RSA key pair spill file write error", e);
+        }
+    }
+
+}
@@ -1,26 +1,48 @@
 package com.dxy.library.util.cipher.asymmetry;
 
+import com.dxy.library.util.cipher.cache.BoundedCache;
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
 import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.constant.Mode;
 import com.dxy.library.util.cipher.constant.Padding;
 import com.dxy.library.util.cipher.constant.RSASignType;
 import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.pojo.CacheStats;
 import com.dxy.library.util.cipher.pojo.RSAKeyPair;
-import org.apache.commons.codec.binary.Base64;
+import com.dxy.library.util.cipher.pool.CipherPool;
+import com.dxy.library.util.cipher.pool.SignaturePool;
+import com.dxy.library.util.cipher.provider.ProviderStrategy;
+import com.dxy.library.util.cipher.utils.Base64Utils;
 import org.apache.commons.lang3.StringUtils;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.nist.NISTObjectIdentifiers;
+import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.teletrust.TeleTrusTObjectIdentifiers;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.DigestInfo;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
-import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.*;
 import java.security.interfaces.RSAKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 /**
  * RSA工具类
@@ -39,6 +61,16 @@ public class RSAUtils {
         Security.addProvider(new BouncyCastleProvider());
     }
 
+    //分段加解密并行处理的分段数阈值
+    private static volatile int parallelThreshold = Integer.getInteger("cipher.parallel.rsa.threshold", 8);
+
+    //密钥对预生成池
+    private static volatile RSAKeyPairPool keyPairPool;
+
+    //解析后的公钥和私钥缓存，key为密钥的SHA-256摘要（缓存中不出现密钥原文），容量和过期时间（毫秒）可通过系统属性设置
+    private static final BoundedCache<String, Key> KEY_CACHE = new BoundedCache<>(Integer.getInteger("cipher.rsa.key.cache.capacity", 128),
+            Long.getLong("cipher.rsa.key.cache.ttl", 60 * 60 * 1000L));
+
     /**
      * 公钥加密（最常用的模式，使用RSA/ECB/PKCS1Padding方式）
      * @param data 加密内容
@@ -129,7 +161,7 @@ public class RSAUtils {
         if (StringUtils.isEmpty(data)) {
             return null;
         }
-        return Base64.encodeBase64String(encrypt(data.getBytes(), rsaKey, mode, padding));
+        return Base64Utils.encode(encrypt(data.getBytes(StandardCharsets.UTF_8), rsaKey, mode, padding));
     }
 
     /**
@@ -142,14 +174,12 @@ public class RSAUtils {
         check(mode, padding);
         try {
             String algorithm = Algorithm.getAlgorithm(Algorithm.RSA, mode, padding);
-            Cipher cipher = Cipher.getInstance(algorithm);
-            cipher.init(Cipher.ENCRYPT_MODE, (Key) rsaKey);
 
             // 加密时超过maxEncryptBlockSize字节就报错。为此采用分段加密的办法来加密
             int keyLength = rsaKey.getModulus().bitLength();
             //必须比 RSA密钥的模长(modulus) 短至少11个字节
             int blockSize = keyLength / 8 - 11;
-            return segmentHandling(cipher, data, blockSize);
+            return segmentHandling(Cipher.ENCRYPT_MODE, algorithm, (Key) rsaKey, data, blockSize);
         } catch (Exception e) {
             throw new CipherException("RSA encrypt error", e);
         }
@@ -253,8 +283,8 @@ public class RSAUtils {
         if (StringUtils.isEmpty(data)) {
             return null;
         }
-        byte[] decrypt = decrypt(Base64.decodeBase64(data.getBytes()), rsaKey, mode, padding);
-        return new String(decrypt);
+        byte[] decrypt = decrypt(Base64Utils.decode(data), rsaKey, mode, padding);
+        return new String(decrypt, StandardCharsets.UTF_8);
     }
 
     /**
@@ -267,13 +297,11 @@ public class RSAUtils {
         check(mode, padding);
         try {
             String algorithm = Algorithm.getAlgorithm(Algorithm.RSA, mode, padding);
-            Cipher cipher = Cipher.getInstance(algorithm);
-            cipher.init(Cipher.DECRYPT_MODE, (Key) rsaKey);
 
             // 解密时超过maxDecryptBlockSize字节就报错。为此采用分段解密的办法来解密
             int keyLength = rsaKey.getModulus().bitLength();
             int blockSize = keyLength / 8;
-            return segmentHandling(cipher, data, blockSize);
+            return segmentHandling(Cipher.DECRYPT_MODE, algorithm, (Key) rsaKey, data, blockSize);
         } catch (Exception e) {
             throw new CipherException("RSA decrypt error", e);
         }
@@ -287,7 +315,7 @@ public class RSAUtils {
      * @return 签名（base64编码）
      */
     public static String sign(RSASignType signType, String data, String privateKey) {
-        return sign(signType, data.getBytes(), privateKey);
+        return sign(signType, data.getBytes(StandardCharsets.UTF_8), privateKey);
     }
 
     /**
@@ -298,14 +326,53 @@ public class RSAUtils {
      * @return 签名
      */
     public static String sign(RSASignType signType, byte[] data, String privateKey) {
+        return sign(signType, privateKey, signature -> signature.update(data));
+    }
+
+    /**
+     * 用私钥对输入流中的数据生成数字签名（按块流式处理，内存占用与数据大小无关）
+     * @param signType 签名类型
+     * @param in 签名的数据，读取到末尾，不关闭
+     * @param privateKey 私钥
+     * @return 签名（base64编码）
+     */
+    public static String sign(RSASignType signType, InputStream in, String privateKey) {
+        return sign(signType, privateKey, signature -> SignatureStreams.update(signature, in));
+    }
+
+    /**
+     * 用私钥对通道中的数据生成数字签名（按块流式处理，内存占用与数据大小无关）
+     * @param signType 签名类型
+     * @param channel 签名的数据，读取到末尾，不关闭
+     * @param privateKey 私钥
+     * @return 签名（base64编码）
+     */
+    public static String sign(RSASignType signType, ReadableByteChannel channel, String privateKey) {
+        return sign(signType, privateKey, signature -> SignatureStreams.update(signature, channel));
+    }
+
+    /**
+     * 用私钥对文件生成数字签名（按块流式处理，内存占用与文件大小无关，大文件使用内存映射读取）
+     * @param signType 签名类型
+     * @param path 签名的文件
+     * @param privateKey 私钥
+     * @return 签名（base64编码）
+     */
+    public static String sign(RSASignType signType, Path path, String privateKey) {
+        return sign(signType, privateKey, signature -> SignatureStreams.update(signature, path));
+    }
+
+    /**
+     * 创建增量签名，用于分段到达的数据
+     * @param signType 签名类型
+     * @param privateKey 私钥
+     */
+    public static IncrementalSigner newSigner(RSASignType signType, String privateKey) {
         try {
-            RSAPrivateKey rsaPrivateKey = getPrivateKey(privateKey);
-            //用私钥对信息生成数字签名
-            Signature signature = Signature.getInstance(signType.getType());
-            signature.initSign(rsaPrivateKey);
-            signature.update(data);
-            return Base64.encodeBase64String(signature.sign());
-        } catch (Exception e) {
+            Signature signature = ProviderStrategy.getSignature(signType.getType());
+            signature.initSign(getPrivateKey(privateKey));
+            return new IncrementalSigner(signature);
+        } catch (GeneralSecurityException e) {
             throw new CipherException("RSA sign error", e);
         }
     }
@@ -319,7 +386,7 @@ public class RSAUtils {
      * @return 验签结果，true表示验签通过
      */
     public static boolean verifySign(RSASignType signType, String data, String publicKey, String sign) {
-        return verifySign(signType, data.getBytes(), publicKey, Base64.decodeBase64(sign));
+        return verifySign(signType, data.getBytes(StandardCharsets.UTF_8), publicKey, Base64Utils.decode(sign));
     }
 
     /**
@@ -331,15 +398,153 @@ public class RSAUtils {
      * @return 验签结果，true表示验签通过
      */
     public static boolean verifySign(RSASignType signType, byte[] data, String publicKey, byte[] sign) {
+        return verifySign(signType, data, getPublicKey(publicKey), sign);
+    }
+
+    /**
+     * 用公钥校验输入流中数据的数字签名（按块流式处理，内存占用与数据大小无关）
+     * @param signType 签名类型
+     * @param in 加密数据，读取到末尾，不关闭
+     * @param publicKey 公钥
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public static boolean verifySign(RSASignType signType, InputStream in, String publicKey, byte[] sign) {
+        return verifySign(signType, getPublicKey(publicKey), sign, signature -> SignatureStreams.update(signature, in));
+    }
+
+    /**
+     * 用公钥校验通道中数据的数字签名（按块流式处理，内存占用与数据大小无关）
+     * @param signType 签名类型
+     * @param channel 加密数据，读取到末尾，不关闭
+     * @param publicKey 公钥
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public static boolean verifySign(RSASignType signType, ReadableByteChannel channel, String publicKey, byte[] sign) {
+        return verifySign(signType, getPublicKey(publicKey), sign, signature -> SignatureStreams.update(signature, channel));
+    }
+
+    /**
+     * 用公钥校验文件的数字签名（按块流式处理，内存占用与文件大小无关，大文件使用内存映射读取）
+     * @param signType 签名类型
+     * @param path 文件
+     * @param publicKey 公钥
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public static boolean verifySign(RSASignType signType, Path path, String publicKey, byte[] sign) {
+        return verifySign(signType, getPublicKey(publicKey), sign, signature -> SignatureStreams.update(signature, path));
+    }
+
+    /**
+     * 创建增量验签，用于分段到达的数据
+     * @param signType 签名类型
+     * @param publicKey 公钥
+     */
+    public static IncrementalVerifier newVerifier(RSASignType signType, String publicKey) {
         try {
-            RSAPublicKey rsaPublicKey = getPublicKey(publicKey);
-            Signature signature = Signature.getInstance(signType.getType());
-            signature.initVerify(rsaPublicKey);
-            signature.update(data);
+            Signature signature = ProviderStrategy.getSignature(signType.getType());
+            signature.initVerify(getPublicKey(publicKey));
+            return new IncrementalVerifier(signature);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("RSA verify sign error", e);
+        }
+    }
+
+    /**
+     * 用私钥对外部计算好的摘要生成数字签名，结果与对原始数据调用{@link #sign(RSASignType, byte[], String)}一致
+     * 摘要按PKCS#1封装为DigestInfo之后使用NONEwithRSA签名，私钥运算不再处理原始数据
+     * @param signType 签名类型，决定摘要算法，如SHA256withRSA对应SHA-256摘要
+     * @param digest 原始数据的摘要
+     * @param privateKey 私钥
+     * @return 签名（base64编码）
+     */
+    public static String signDigest(RSASignType signType, byte[] digest, String privateKey) {
+        byte[] digestInfo = digestInfo(signType, digest);
+        return sign(RSASignType.NONEwithRSA, privateKey, signature -> signature.update(digestInfo));
+    }
+
+    /**
+     * 用公钥校验外部计算好的摘要的数字签名，与{@link #verifySign(RSASignType, byte[], String, byte[])}校验的签名通用
+     * @param signType 签名类型，决定摘要算法，如SHA256withRSA对应SHA-256摘要
+     * @param digest 原始数据的摘要
+     * @param publicKey 公钥
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public static boolean verifyDigest(RSASignType signType, byte[] digest, String publicKey, byte[] sign) {
+        byte[] digestInfo = digestInfo(signType, digest);
+        return verifySign(RSASignType.NONEwithRSA, getPublicKey(publicKey), sign, signature -> signature.update(digestInfo));
+    }
+
+    /**
+     * 用公钥批量校验数字签名（使用{@link CipherExecutors}线程池并行处理）
+     * @param signType 签名类型
+     * @param data 数据列表
+     * @param signs 签名列表，与数据列表一一对应
+     * @param publicKey 公钥
+     * @return 验签结果，第i位为true表示第i条验签通过，数据或者签名为null、签名格式错误时为false
+     */
+    public static BitSet verifyAll(RSASignType signType, List<byte[]> data, List<byte[]> signs, String publicKey) {
+        return verifyAll(signType, data, signs, publicKey, CipherExecutors.getPool());
+    }
+
+    /**
+     * 用公钥批量校验数字签名
+     * @param signType 签名类型
+     * @param data 数据列表
+     * @param signs 签名列表，与数据列表一一对应
+     * @param publicKey 公钥
+     * @param executor 验签使用的线程池
+     * @return 验签结果，第i位为true表示第i条验签通过，数据或者签名为null、签名格式错误时为false
+     */
+    public static BitSet verifyAll(RSASignType signType, List<byte[]> data, List<byte[]> signs, String publicKey, ExecutorService executor) {
+        RSAPublicKey rsaPublicKey = getPublicKey(publicKey);
+        return BatchVerifier.verifyAll(data, signs, executor, (bytes, sign) -> verify(signType, rsaPublicKey, sign, signature -> signature.update(bytes)));
+    }
+
+    private static String sign(RSASignType signType, String privateKey, SignatureStreams.SignatureUpdater updater) {
+        try {
+            RSAPrivateKey rsaPrivateKey = getPrivateKey(privateKey);
+            //用私钥对信息生成数字签名
+            Signature signature = SignaturePool.getSignature(signType.getType(), rsaPrivateKey);
+            try {
+                updater.update(signature);
+                return Base64Utils.encode(signature.sign());
+            } catch (Exception e) {
+                SignaturePool.remove(signType.getType(), rsaPrivateKey);
+                throw e;
+            }
+        } catch (Exception e) {
+            throw new CipherException("RSA sign error", e);
+        }
+    }
+
+    private static boolean verifySign(RSASignType signType, byte[] data, RSAPublicKey rsaPublicKey, byte[] sign) {
+        return verifySign(signType, rsaPublicKey, sign, signature -> signature.update(data));
+    }
+
+    private static boolean verifySign(RSASignType signType, RSAPublicKey rsaPublicKey, byte[] sign, SignatureStreams.SignatureUpdater updater) {
+        try {
+            return verify(signType, rsaPublicKey, sign, updater);
+        } catch (Exception e) {
+            throw new CipherException("RSA verify sign error", e);
+        }
+    }
+
+    /**
+     * 验签，异常不包装，签名格式错误时抛出SignatureException
+     */
+    private static boolean verify(RSASignType signType, RSAPublicKey rsaPublicKey, byte[] sign, SignatureStreams.SignatureUpdater updater) throws Exception {
+        Signature signature = SignaturePool.getSignature(signType.getType(), rsaPublicKey);
+        try {
+            updater.update(signature);
             //验证签名是否正常
             return signature.verify(sign);
         } catch (Exception e) {
-            throw new CipherException("RSA verify sign error", e);
+            SignaturePool.remove(signType.getType(), rsaPublicKey);
+            throw e;
         }
     }
 
@@ -354,6 +559,39 @@ public class RSAUtils {
      * 生成公钥和私钥
      */
     public static RSAKeyPair generateKey(int keysize) {
+        RSAKeyPairPool pool = keyPairPool;
+        if (pool != null && pool.getKeysize() == keysize && !pool.isClosed()) {
+            return pool.take();
+        }
+        return newKeyPair(keysize);
+    }
+
+    /**
+     * 设置密钥对预生成池，{@link #generateKey(int)}在密钥长度一致时从池中获取
+     * @param keyPairPool 预生成池，为null时不使用
+     */
+    public static void setKeyPairPool(RSAKeyPairPool keyPairPool) {
+        RSAUtils.keyPairPool = keyPairPool;
+    }
+
+    public static RSAKeyPairPool getKeyPairPool() {
+        return keyPairPool;
+    }
+
+    /**
+     * 生成公钥和私钥，在指定的线程池中并行搜索素数，不经过预生成池
+     * {@link #generateKey(int)}默认仍使用KeyPairGenerator，需要并行生成时显式调用该方法
+     * @param keysize 密钥长度
+     * @param executor 搜索素数使用的线程池
+     */
+    public static RSAKeyPair generateKey(int keysize, ExecutorService executor) {
+        return toKeyPair(ParallelRSAKeyGenerator.generate(keysize, executor));
+    }
+
+    /**
+     * 使用KeyPairGenerator在当前线程中生成公钥和私钥，不经过预生成池
+     */
+    static RSAKeyPair newKeyPair(int keysize) {
         SecureRandom sr = new SecureRandom();
         KeyPairGenerator kpg;
         try {
@@ -363,37 +601,93 @@ public class RSAUtils {
         }
         kpg.initialize(keysize, sr);
         //生成密匙对
-        KeyPair keyPair = kpg.generateKeyPair();
+        return toKeyPair(kpg.generateKeyPair());
+    }
+
+    private static RSAKeyPair toKeyPair(KeyPair keyPair) {
         //得到公钥
         RSAPublicKey rsaPublicKey = (RSAPublicKey) keyPair.getPublic();
         //得到私钥
         RSAPrivateKey rsaPrivateKey = (RSAPrivateKey) keyPair.getPrivate();
 
         RSAKeyPair rsaKeyPair = new RSAKeyPair();
-        rsaKeyPair.setPublicKey(Base64.encodeBase64String(rsaPublicKey.getEncoded()));
-        rsaKeyPair.setPrivateKey(Base64.encodeBase64String(rsaPrivateKey.getEncoded()));
+        rsaKeyPair.setPublicKey(Base64Utils.encode(rsaPublicKey.getEncoded()));
+        rsaKeyPair.setPrivateKey(Base64Utils.encode(rsaPrivateKey.getEncoded()));
         rsaKeyPair.setModules(rsaPublicKey.getModulus());
         return rsaKeyPair;
     }
 
+    /**
+     * 分段加解密并行处理的分段数阈值
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * 调整分段加解密并行处理的分段数阈值（默认8，可通过系统属性cipher.parallel.rsa.threshold设置）
+     * @param parallelThreshold 分段数达到该值且线程池并行度大于1时并行处理，设置为Integer.MAX_VALUE时始终串行
+     */
+    public static void setParallelThreshold(int parallelThreshold) {
+        RSAUtils.parallelThreshold = parallelThreshold;
+    }
+
     /**
      * 分段处理密文
-     * @param cipher 加密算法
+     * 结果数组按每段输出的最大长度（加密时为模长）预先分配，各段直接写入结果数组；分段数达到阈值时按线程池并行度把分段分组，
+     * 在{@link CipherExecutors}线程池中并行处理（每个线程使用自己的Cipher），结果与串行处理完全一致
+     * @param opmode 加密或者解密
+     * @param algorithm 加密算法全称
+     * @param key 公钥/私钥
      * @param data 密文或者明文
      * @param blockSize 单次加解密最大长度，加解密时超过maxDecryptBlockSize字节就报错。为此采用分段解密的办法来解密
      */
-    private static byte[] segmentHandling(Cipher cipher, byte[] data, int blockSize) throws IOException, IllegalBlockSizeException, BadPaddingException {
-        byte[] result;
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-            int dataLength = data.length;
-            for (int i = 0; i < dataLength; i += blockSize) {
-                int contentLength = Math.min(dataLength - i, blockSize);
-                byte[] doFinal = cipher.doFinal(data, i, contentLength);
-                byteArrayOutputStream.write(doFinal);
+    private static byte[] segmentHandling(int opmode, String algorithm, Key key, byte[] data, int blockSize) throws Exception {
+        //当前线程缓存的Cipher，并行处理时只用于计算输出长度（分组任务可能在当前线程中执行并重新init该Cipher）
+        Cipher cipher = CipherPool.getCipher(algorithm, opmode, key, null);
+        int segments = (data.length + blockSize - 1) / blockSize;
+        //每段输出的最大长度，解密时去掉填充后每段更短，处理完之后再截断
+        int outputBlockSize = cipher.getOutputSize(blockSize);
+        byte[] result = new byte[segments * outputBlockSize];
+        int resultLength;
+        if (segments >= parallelThreshold && CipherExecutors.getParallelism() > 1) {
+            int groupSize = (segments + CipherExecutors.getParallelism() - 1) / CipherExecutors.getParallelism();
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int from = 0; from < segments; from += groupSize) {
+                int start = from;
+                int end = Math.min(from + groupSize, segments);
+                tasks.add(() -> {
+                    Cipher segmentCipher = CipherPool.getCipher(algorithm, opmode, key, null);
+                    return segmentHandling(segmentCipher, data, blockSize, start, end, result, start * outputBlockSize);
+                });
+            }
+            List<Integer> lengths = CipherExecutors.invokeAll(tasks);
+            //各组的结果按顺序拼接（加密时各组已经连续，不需要移动）
+            resultLength = 0;
+            for (int i = 0; i < lengths.size(); i++) {
+                int groupOffset = i * groupSize * outputBlockSize;
+                if (groupOffset != resultLength) {
+                    System.arraycopy(result, groupOffset, result, resultLength, lengths.get(i));
+                }
+                resultLength += lengths.get(i);
             }
-            result = byteArrayOutputStream.toByteArray();
+        } else {
+            resultLength = segmentHandling(cipher, data, blockSize, 0, segments, result, 0);
         }
-        return result;
+        return resultLength == result.length ? result : Arrays.copyOf(result, resultLength);
+    }
+
+    /**
+     * 依次处理[from, to)之间的分段，结果从outOffset开始连续写入
+     * @return 写入out的字节数
+     */
+    private static int segmentHandling(Cipher cipher, byte[] data, int blockSize, int from, int to, byte[] out, int outOffset) throws GeneralSecurityException {
+        int position = outOffset;
+        for (int i = from; i < to; i++) {
+            int offset = i * blockSize;
+            position += cipher.doFinal(data, offset, Math.min(blockSize, data.length - offset), out, position);
+        }
+        return position - outOffset;
     }
 
     /**
@@ -402,7 +696,7 @@ public class RSAUtils {
      * @return 公钥（X509格式）
      */
     public static RSAPublicKey getPublicKey(String publicKey) {
-        return getPublicKey(Base64.decodeBase64(publicKey.getBytes()));
+        return getPublicKey(Base64Utils.decode(publicKey));
     }
 
     /**
@@ -411,13 +705,11 @@ public class RSAUtils {
      * @return 公钥（X509格式）
      */
     public static RSAPublicKey getPublicKey(byte[] key) {
-        try {
-            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(key);
-            KeyFactory keyFactory = KeyFactory.getInstance(Algorithm.RSA.getAlgorithm());
-            return (RSAPublicKey) keyFactory.generatePublic(keySpec);
-        } catch (Exception e) {
-            throw new CipherException(e);
+        Key parsed = KEY_CACHE.get(BoundedCache.digest(key), k -> parsePublicKey(key));
+        if (!(parsed instanceof RSAPublicKey)) {
+            throw new CipherException("invalid RSA public key");
         }
+        return (RSAPublicKey) parsed;
     }
 
     /**
@@ -426,7 +718,7 @@ public class RSAUtils {
      * @return 私钥（PKCS8格式）
      */
     public static RSAPrivateKey getPrivateKey(String privateKey) {
-        return getPrivateKey(Base64.decodeBase64(privateKey.getBytes()));
+        return getPrivateKey(Base64Utils.decode(privateKey));
     }
 
     /**
@@ -435,6 +727,55 @@ public class RSAUtils {
      * @return 私钥（PKCS8格式）
      */
     public static RSAPrivateKey getPrivateKey(byte[] key) {
+        Key parsed = KEY_CACHE.get(BoundedCache.digest(key), k -> parsePrivateKey(key));
+        if (!(parsed instanceof RSAPrivateKey)) {
+            throw new CipherException("invalid RSA private key");
+        }
+        return (RSAPrivateKey) parsed;
+    }
+
+    /**
+     * 获取公钥和私钥解析缓存的统计信息
+     * 所有传入String或者byte[]密钥的方法都经过该缓存，相同密钥只解析一次
+     */
+    public static CacheStats getKeyCacheStats() {
+        return KEY_CACHE.getStats();
+    }
+
+    /**
+     * 调整公钥和私钥解析缓存的容量（默认128，可通过系统属性cipher.rsa.key.cache.capacity设置），为0时不缓存
+     * @param capacity 容量
+     */
+    public static void setKeyCacheCapacity(int capacity) {
+        KEY_CACHE.setCapacity(capacity);
+    }
+
+    /**
+     * 调整公钥和私钥解析缓存的过期时间（默认1小时，可通过系统属性cipher.rsa.key.cache.ttl设置），只对之后解析的密钥生效
+     * @param ttlMillis 过期时间（毫秒），为0时不过期
+     */
+    public static void setKeyCacheTtl(long ttlMillis) {
+        KEY_CACHE.setTtlMillis(ttlMillis);
+    }
+
+    /**
+     * 清空公钥和私钥解析缓存
+     */
+    public static void clearKeyCache() {
+        KEY_CACHE.clear();
+    }
+
+    private static RSAPublicKey parsePublicKey(byte[] key) {
+        try {
+            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(key);
+            KeyFactory keyFactory = KeyFactory.getInstance(Algorithm.RSA.getAlgorithm());
+            return (RSAPublicKey) keyFactory.generatePublic(keySpec);
+        } catch (Exception e) {
+            throw new CipherException(e);
+        }
+    }
+
+    private static RSAPrivateKey parsePrivateKey(byte[] key) {
         try {
             PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(key);
             KeyFactory keyFactory = KeyFactory.getInstance(Algorithm.RSA.getAlgorithm());
@@ -444,6 +785,62 @@ public class RSAUtils {
         }
     }
 
+    /**
+     * 按PKCS#1把摘要封装为DigestInfo
+     */
+    private static byte[] digestInfo(RSASignType signType, byte[] digest) {
+        ASN1ObjectIdentifier digestAlgorithm;
+        int digestLength;
+        switch (signType) {
+            case MD5withRSA:
+                digestAlgorithm = PKCSObjectIdentifiers.md5;
+                digestLength = 16;
+                break;
+            case SHA1withRSA:
+                digestAlgorithm = OIWObjectIdentifiers.idSHA1;
+                digestLength = 20;
+                break;
+            case SHA224withRSA:
+                digestAlgorithm = NISTObjectIdentifiers.id_sha224;
+                digestLength = 28;
+                break;
+            case SHA256withRSA:
+                digestAlgorithm = NISTObjectIdentifiers.id_sha256;
+                digestLength = 32;
+                break;
+            case SHA384withRSA:
+                digestAlgorithm = NISTObjectIdentifiers.id_sha384;
+                digestLength = 48;
+                break;
+            case SHA512withRSA:
+                digestAlgorithm = NISTObjectIdentifiers.id_sha512;
+                digestLength = 64;
+                break;
+            case SHA512_224WithRSA:
+                digestAlgorithm = NISTObjectIdentifiers.id_sha512_224;
+                digestLength = 28;
+                break;
+            case SHA512_256WithRSA:
+                digestAlgorithm = NISTObjectIdentifiers.id_sha512_256;
+                digestLength = 32;
+                break;
+            case RIPEMD160WithRSA:
+                digestAlgorithm = TeleTrusTObjectIdentifiers.ripemd160;
+                digestLength = 20;
+                break;
+            default:
+                throw new CipherException("{} not support sign digest", signType.getType());
+        }
+        if (digest == null || digest.length != digestLength) {
+            throw new CipherException("{} digest length must be {}", signType.getType(), digestLength);
+        }
+        try {
+            return new DigestInfo(new AlgorithmIdentifier(digestAlgorithm, DERNull.INSTANCE), digest).getEncoded(ASN1Encoding.DER);
+        } catch (IOException e) {
+            throw new CipherException("RSA digest info encode error", e);
+        }
+    }
+
     private static void check(Mode mode, Padding padding) {
         if (mode != Mode.NONE && mode != Mode.ECB) {
             throw new CipherException("invalid RSA mode");
@@ -0,0 +1,145 @@
+package com.dxy.library.util.cipher.asymmetry;
+
+import com.dxy.library.util.cipher.constant.SM2SignType;
+import com.dxy.library.util.cipher.exception.CipherException;
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SM3Digest;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.RandomDSAKCalculator;
+import org.bouncycastle.crypto.signers.StandardDSAEncoding;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECConstants;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.util.BigIntegers;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+/**
+ * SM2摘要签名（GM/T 0003.2）
+ * SM2签名的消息摘要为e=H(Z||M)，其中Z=H(ENTL||ID||a||b||xG||yG||xA||yA)为签名者身份和公钥的杂凑值，H与签名类型一致（sm3WithSM2为SM3，SHA256withSM2为SHA-256）
+ * 这里直接对外部计算好的e进行签名和验签，签名为DER编码，与{@link org.bouncycastle.crypto.signers.SM2Signer}的结果通用
+ * @author duanxinyuan
+ * 2026/10/18 22:05
+ */
+class SM2DigestSigner {
+
+    //默认用户ID，与BouncyCastle一致
+    static final byte[] DEFAULT_USER_ID = "1234567812345678".getBytes(StandardCharsets.US_ASCII);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * 计算签名者的杂凑值Z
+     * @param signType 签名类型
+     * @param publicKey 公钥
+     * @param userId 用户ID
+     */
+    static byte[] getZ(SM2SignType signType, ECPublicKeyParameters publicKey, byte[] userId) {
+        int entl = userId.length * 8;
+        if (entl > 0xFFFF) {
+            throw new CipherException("SM2 user id too long");
+        }
+        Digest digest = newDigest(signType);
+        digest.update((byte) (entl >> 8));
+        digest.update((byte) entl);
+        digest.update(userId, 0, userId.length);
+        ECDomainParameters parameters = publicKey.getParameters();
+        ECPoint q = publicKey.getQ().normalize();
+        update(digest, parameters.getCurve().getA());
+        update(digest, parameters.getCurve().getB());
+        update(digest, parameters.getG().getAffineXCoord());
+        update(digest, parameters.getG().getAffineYCoord());
+        update(digest, q.getAffineXCoord());
+        update(digest, q.getAffineYCoord());
+        byte[] z = new byte[digest.getDigestSize()];
+        digest.doFinal(z, 0);
+        return z;
+    }
+
+    /**
+     * 对摘要e签名
+     * @param privateKey 私钥
+     * @param digest 摘要e=H(Z||M)
+     * @return 签名（DER编码）
+     */
+    static byte[] sign(ECPrivateKeyParameters privateKey, byte[] digest) throws IOException {
+        ECDomainParameters parameters = privateKey.getParameters();
+        BigInteger n = parameters.getN();
+        BigInteger d = privateKey.getD();
+        BigInteger e = new BigInteger(1, digest);
+        RandomDSAKCalculator kCalculator = new RandomDSAKCalculator();
+        kCalculator.init(n, RANDOM);
+        FixedPointCombMultiplier multiplier = new FixedPointCombMultiplier();
+        BigInteger r;
+        BigInteger s;
+        do {
+            BigInteger k;
+            do {
+                k = kCalculator.nextK();
+                ECPoint p = multiplier.multiply(parameters.getG(), k).normalize();
+                //r = (e + x1) mod n
+                r = e.add(p.getAffineXCoord().toBigInteger()).mod(n);
+            } while (r.signum() == 0 || r.add(k).equals(n));
+            //s = ((1 + d)^-1 * (k - r * d)) mod n
+            BigInteger dPlus1Inverse = BigIntegers.modOddInverse(n, d.add(ECConstants.ONE));
+            s = k.subtract(r.multiply(d)).mod(n).multiply(dPlus1Inverse).mod(n);
+        } while (s.signum() == 0);
+        return StandardDSAEncoding.INSTANCE.encode(n, r, s);
+    }
+
+    /**
+     * 校验摘要e的签名
+     * @param publicKey 公钥
+     * @param digest 摘要e=H(Z||M)
+     * @param sign 签名（DER编码）
+     */
+    static boolean verify(ECPublicKeyParameters publicKey, byte[] digest, byte[] sign) throws IOException {
+        ECDomainParameters parameters = publicKey.getParameters();
+        BigInteger n = parameters.getN();
+        BigInteger[] rs = StandardDSAEncoding.INSTANCE.decode(n, sign);
+        BigInteger r = rs[0];
+        BigInteger s = rs[1];
+        if (r.compareTo(ECConstants.ONE) < 0 || r.compareTo(n) >= 0 || s.compareTo(ECConstants.ONE) < 0 || s.compareTo(n) >= 0) {
+            return false;
+        }
+        //t = (r + s) mod n
+        BigInteger t = r.add(s).mod(n);
+        if (t.signum() == 0) {
+            return false;
+        }
+        ECPoint p = ECAlgorithms.sumOfTwoMultiplies(parameters.getG(), s, publicKey.getQ(), t).normalize();
+        if (p.isInfinity()) {
+            return false;
+        }
+        BigInteger e = new BigInteger(1, digest);
+        return e.add(p.getAffineXCoord().toBigInteger()).mod(n).equals(r);
+    }
+
+    /**
+     * 签名类型对应的摘要算法
+     */
+    static Digest newDigest(SM2SignType signType) {
+        switch (signType) {
+            case sm3WithSM2:
+                return new SM3Digest();
+            case SHA256withSM2:
+                return new SHA256Digest();
+            default:
+                throw new CipherException("{} not support sign digest", signType.getType());
+        }
+    }
+
+    private static void update(Digest digest, ECFieldElement element) {
+        byte[] bytes = element.getEncoded();
+        digest.update(bytes, 0, bytes.length);
+    }
+
+}
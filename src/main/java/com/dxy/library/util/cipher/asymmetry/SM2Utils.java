@@ -1,20 +1,36 @@
 package com.dxy.library.util.cipher.asymmetry;
 
+import com.dxy.library.util.cipher.cache.BoundedCache;
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
 import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.constant.SM2SignType;
 import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.pojo.CacheStats;
 import com.dxy.library.util.cipher.pojo.SM2KeyPair;
+import com.dxy.library.util.cipher.pool.CipherPool;
+import com.dxy.library.util.cipher.pool.SignaturePool;
+import com.dxy.library.util.cipher.provider.ProviderStrategy;
+import com.dxy.library.util.cipher.utils.Base64Utils;
 import com.dxy.library.util.cipher.utils.KeyEncodedUtils;
-import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.jcajce.provider.asymmetric.util.ECUtil;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import javax.crypto.Cipher;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.*;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * SM2工具类
@@ -36,6 +52,10 @@ public class SM2Utils {
         Security.addProvider(new BouncyCastleProvider());
     }
 
+    //解析后的公钥和私钥缓存，key为密钥的SHA-256摘要（缓存中不出现密钥原文），容量和过期时间（毫秒）可通过系统属性设置
+    private static final BoundedCache<String, Key> KEY_CACHE = new BoundedCache<>(Integer.getInteger("cipher.sm2.key.cache.capacity", 128),
+            Long.getLong("cipher.sm2.key.cache.ttl", 60 * 60 * 1000L));
+
     /**
      * 公钥加密
      * @param data 加密内容
@@ -66,7 +86,7 @@ public class SM2Utils {
         if (StringUtils.isEmpty(data)) {
             return null;
         }
-        return Base64.encodeBase64String(encrypt(data.getBytes(), ecPublicKey));
+        return Base64Utils.encode(encrypt(data.getBytes(StandardCharsets.UTF_8), ecPublicKey));
     }
 
     /**
@@ -77,7 +97,7 @@ public class SM2Utils {
      */
     public static byte[] encrypt(byte[] data, ECPublicKey ecPublicKey) {
         try {
-            Cipher cipher = Cipher.getInstance(Algorithm.SM2.getAlgorithm());
+            Cipher cipher = CipherPool.newCipher(Algorithm.SM2.getAlgorithm(), null);
             cipher.init(Cipher.ENCRYPT_MODE, ecPublicKey);
             return cipher.doFinal(data);
         } catch (Exception e) {
@@ -115,8 +135,8 @@ public class SM2Utils {
         if (StringUtils.isEmpty(data)) {
             return null;
         }
-        byte[] decrypt = decrypt(Base64.decodeBase64(data.getBytes()), ecPrivateKey);
-        return new String(decrypt);
+        byte[] decrypt = decrypt(Base64Utils.decode(data), ecPrivateKey);
+        return new String(decrypt, StandardCharsets.UTF_8);
     }
 
     /**
@@ -127,7 +147,7 @@ public class SM2Utils {
      */
     public static byte[] decrypt(byte[] data, ECPrivateKey ecPrivateKey) {
         try {
-            Cipher cipher = Cipher.getInstance(Algorithm.SM2.getAlgorithm());
+            Cipher cipher = CipherPool.newCipher(Algorithm.SM2.getAlgorithm(), null);
             cipher.init(Cipher.DECRYPT_MODE, ecPrivateKey);
             return cipher.doFinal(data);
         } catch (Exception e) {
@@ -143,7 +163,7 @@ public class SM2Utils {
      * @return 签名（base64编码）
      */
     public static String sign(SM2SignType signType, String data, String privateKey) {
-        return sign(signType, data.getBytes(), getPrivateKey(privateKey));
+        return sign(signType, data.getBytes(StandardCharsets.UTF_8), getPrivateKey(privateKey));
     }
 
     /**
@@ -154,7 +174,7 @@ public class SM2Utils {
      * @return 签名
      */
     public static String sign(SM2SignType signType, String data, ECPrivateKey privateKey) {
-        return sign(signType, data.getBytes(), privateKey);
+        return sign(signType, data.getBytes(StandardCharsets.UTF_8), privateKey);
     }
 
     /**
@@ -165,13 +185,53 @@ public class SM2Utils {
      * @return 签名
      */
     public static String sign(SM2SignType signType, byte[] data, ECPrivateKey privateKey) {
+        return sign(signType, privateKey, signature -> signature.update(data));
+    }
+
+    /**
+     * 用私钥对输入流中的数据生成数字签名（按块流式处理，内存占用与数据大小无关）
+     * @param signType 签名类型
+     * @param in 签名的数据，读取到末尾，不关闭
+     * @param privateKey 私钥
+     * @return 签名（base64编码）
+     */
+    public static String sign(SM2SignType signType, InputStream in, ECPrivateKey privateKey) {
+        return sign(signType, privateKey, signature -> SignatureStreams.update(signature, in));
+    }
+
+    /**
+     * 用私钥对通道中的数据生成数字签名（按块流式处理，内存占用与数据大小无关）
+     * @param signType 签名类型
+     * @param channel 签名的数据，读取到末尾，不关闭
+     * @param privateKey 私钥
+     * @return 签名（base64编码）
+     */
+    public static String sign(SM2SignType signType, ReadableByteChannel channel, ECPrivateKey privateKey) {
+        return sign(signType, privateKey, signature -> SignatureStreams.update(signature, channel));
+    }
+
+    /**
+     * 用私钥对文件生成数字签名（按块流式处理，内存占用与文件大小无关，大文件使用内存映射读取）
+     * @param signType 签名类型
+     * @param path 签名的文件
+     * @param privateKey 私钥
+     * @return 签名（base64编码）
+     */
+    public static String sign(SM2SignType signType, Path path, ECPrivateKey privateKey) {
+        return sign(signType, privateKey, signature -> SignatureStreams.update(signature, path));
+    }
+
+    /**
+     * 创建增量签名，用于分段到达的数据
+     * @param signType 签名类型
+     * @param privateKey 私钥
+     */
+    public static IncrementalSigner newSigner(SM2SignType signType, ECPrivateKey privateKey) {
         try {
-            //用私钥对信息生成数字签名
-            Signature signature = Signature.getInstance(signType.getType());
+            Signature signature = ProviderStrategy.getSignature(signType.getType());
             signature.initSign(privateKey);
-            signature.update(data);
-            return Base64.encodeBase64String(signature.sign());
-        } catch (Exception e) {
+            return new IncrementalSigner(signature);
+        } catch (GeneralSecurityException e) {
             throw new CipherException("EC sign error", e);
         }
     }
@@ -185,7 +245,7 @@ public class SM2Utils {
      * @return 验签结果，true表示验签通过
      */
     public static boolean verifySign(SM2SignType signType, String data, String publicKey, String sign) {
-        return verifySign(signType, data.getBytes(), publicKey, Base64.decodeBase64(sign));
+        return verifySign(signType, data.getBytes(StandardCharsets.UTF_8), publicKey, Base64Utils.decode(sign));
     }
 
     /**
@@ -197,7 +257,7 @@ public class SM2Utils {
      * @return 验签结果，true表示验签通过
      */
     public static boolean verifySign(SM2SignType signType, String data, ECPublicKey publicKey, String sign) {
-        return verifySign(signType, data.getBytes(), publicKey, Base64.decodeBase64(sign));
+        return verifySign(signType, data.getBytes(StandardCharsets.UTF_8), publicKey, Base64Utils.decode(sign));
     }
 
     /**
@@ -212,6 +272,31 @@ public class SM2Utils {
         return verifySign(signType, data, getPublicKey(publicKey), sign);
     }
 
+    /**
+     * 用公钥批量校验数字签名（使用{@link CipherExecutors}线程池并行处理）
+     * @param signType 签名类型
+     * @param data 数据列表
+     * @param signs 签名列表，与数据列表一一对应
+     * @param publicKey 公钥（X509格式，经过base64编码）
+     * @return 验签结果，第i位为true表示第i条验签通过，数据或者签名为null、签名格式错误时为false
+     */
+    public static BitSet verifyAll(SM2SignType signType, List<byte[]> data, List<byte[]> signs, String publicKey) {
+        return verifyAll(signType, data, signs, getPublicKey(publicKey), CipherExecutors.getPool());
+    }
+
+    /**
+     * 用公钥批量校验数字签名
+     * @param signType 签名类型
+     * @param data 数据列表
+     * @param signs 签名列表，与数据列表一一对应
+     * @param publicKey 公钥
+     * @param executor 验签使用的线程池
+     * @return 验签结果，第i位为true表示第i条验签通过，数据或者签名为null、签名格式错误时为false
+     */
+    public static BitSet verifyAll(SM2SignType signType, List<byte[]> data, List<byte[]> signs, ECPublicKey publicKey, ExecutorService executor) {
+        return BatchVerifier.verifyAll(data, signs, executor, (bytes, sign) -> verify(signType, publicKey, sign, signature -> signature.update(bytes)));
+    }
+
     /**
      * 用公钥校验数字签名
      * @param signType 签名类型
@@ -221,14 +306,167 @@ public class SM2Utils {
      * @return 验签结果，true表示验签通过
      */
     public static boolean verifySign(SM2SignType signType, byte[] data, ECPublicKey publicKey, byte[] sign) {
+        return verifySign(signType, publicKey, sign, signature -> signature.update(data));
+    }
+
+    /**
+     * 用公钥校验输入流中数据的数字签名（按块流式处理，内存占用与数据大小无关）
+     * @param signType 签名类型
+     * @param in 加密数据，读取到末尾，不关闭
+     * @param publicKey 公钥
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public static boolean verifySign(SM2SignType signType, InputStream in, ECPublicKey publicKey, byte[] sign) {
+        return verifySign(signType, publicKey, sign, signature -> SignatureStreams.update(signature, in));
+    }
+
+    /**
+     * 用公钥校验通道中数据的数字签名（按块流式处理，内存占用与数据大小无关）
+     * @param signType 签名类型
+     * @param channel 加密数据，读取到末尾，不关闭
+     * @param publicKey 公钥
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public static boolean verifySign(SM2SignType signType, ReadableByteChannel channel, ECPublicKey publicKey, byte[] sign) {
+        return verifySign(signType, publicKey, sign, signature -> SignatureStreams.update(signature, channel));
+    }
+
+    /**
+     * 用公钥校验文件的数字签名（按块流式处理，内存占用与文件大小无关，大文件使用内存映射读取）
+     * @param signType 签名类型
+     * @param path 文件
+     * @param publicKey 公钥
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public static boolean verifySign(SM2SignType signType, Path path, ECPublicKey publicKey, byte[] sign) {
+        return verifySign(signType, publicKey, sign, signature -> SignatureStreams.update(signature, path));
+    }
+
+    /**
+     * 创建增量验签，用于分段到达的数据
+     * @param signType 签名类型
+     * @param publicKey 公钥
+     */
+    public static IncrementalVerifier newVerifier(SM2SignType signType, ECPublicKey publicKey) {
         try {
-            Signature signature = Signature.getInstance(signType.getType());
+            Signature signature = ProviderStrategy.getSignature(signType.getType());
             signature.initVerify(publicKey);
-            signature.update(data);
+            return new IncrementalVerifier(signature);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("EC verify sign error", e);
+        }
+    }
+
+    /**
+     * 计算签名者的杂凑值Z=H(ENTL||ID||a||b||xG||yG||xA||yA)，使用默认用户ID（1234567812345678）
+     * SM2签名的摘要为e=H(Z||M)，外部计算摘要时需要先输入Z再输入原始数据，H与签名类型一致（sm3WithSM2为SM3，SHA256withSM2为SHA-256）
+     * @param signType 签名类型
+     * @param publicKey 签名者的公钥
+     * @return Z值
+     */
+    public static byte[] getZ(SM2SignType signType, ECPublicKey publicKey) {
+        try {
+            return SM2DigestSigner.getZ(signType, (ECPublicKeyParameters) ECUtil.generatePublicKeyParameter(publicKey), SM2DigestSigner.DEFAULT_USER_ID);
+        } catch (InvalidKeyException e) {
+            throw new CipherException("invalid EC public key", e);
+        }
+    }
+
+    /**
+     * 用私钥对外部计算好的摘要生成数字签名，与{@link #sign(SM2SignType, byte[], ECPrivateKey)}生成的签名通用
+     * @param signType 签名类型
+     * @param digest 摘要e=H(Z||M)，Z见{@link #getZ(SM2SignType, ECPublicKey)}
+     * @param privateKey 私钥（PKCS8格式，经过base64编码）
+     * @return 签名（base64编码）
+     */
+    public static String signDigest(SM2SignType signType, byte[] digest, String privateKey) {
+        return signDigest(signType, digest, getPrivateKey(privateKey));
+    }
+
+    /**
+     * 用私钥对外部计算好的摘要生成数字签名，与{@link #sign(SM2SignType, byte[], ECPrivateKey)}生成的签名通用
+     * @param signType 签名类型
+     * @param digest 摘要e=H(Z||M)，Z见{@link #getZ(SM2SignType, ECPublicKey)}
+     * @param privateKey 私钥
+     * @return 签名（base64编码）
+     */
+    public static String signDigest(SM2SignType signType, byte[] digest, ECPrivateKey privateKey) {
+        checkDigest(signType, digest);
+        try {
+            return Base64Utils.encode(SM2DigestSigner.sign((ECPrivateKeyParameters) ECUtil.generatePrivateKeyParameter(privateKey), digest));
+        } catch (Exception e) {
+            throw new CipherException("EC sign error", e);
+        }
+    }
+
+    /**
+     * 用公钥校验外部计算好的摘要的数字签名，与{@link #verifySign(SM2SignType, byte[], ECPublicKey, byte[])}校验的签名通用
+     * @param signType 签名类型
+     * @param digest 摘要e=H(Z||M)，Z见{@link #getZ(SM2SignType, ECPublicKey)}
+     * @param publicKey 公钥（X509格式，经过base64编码）
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public static boolean verifyDigest(SM2SignType signType, byte[] digest, String publicKey, byte[] sign) {
+        return verifyDigest(signType, digest, getPublicKey(publicKey), sign);
+    }
+
+    /**
+     * 用公钥校验外部计算好的摘要的数字签名，与{@link #verifySign(SM2SignType, byte[], ECPublicKey, byte[])}校验的签名通用
+     * @param signType 签名类型
+     * @param digest 摘要e=H(Z||M)，Z见{@link #getZ(SM2SignType, ECPublicKey)}
+     * @param publicKey 公钥
+     * @param sign 签名
+     * @return 验签结果，true表示验签通过
+     */
+    public static boolean verifyDigest(SM2SignType signType, byte[] digest, ECPublicKey publicKey, byte[] sign) {
+        checkDigest(signType, digest);
+        try {
+            return SM2DigestSigner.verify((ECPublicKeyParameters) ECUtil.generatePublicKeyParameter(publicKey), digest, sign);
+        } catch (Exception e) {
+            throw new CipherException("EC verify sign error", e);
+        }
+    }
+
+    private static String sign(SM2SignType signType, ECPrivateKey privateKey, SignatureStreams.SignatureUpdater updater) {
+        try {
+            //用私钥对信息生成数字签名
+            Signature signature = SignaturePool.getSignature(signType.getType(), privateKey);
+            try {
+                updater.update(signature);
+                return Base64Utils.encode(signature.sign());
+            } catch (Exception e) {
+                SignaturePool.remove(signType.getType(), privateKey);
+                throw e;
+            }
+        } catch (Exception e) {
+            throw new CipherException("EC sign error", e);
+        }
+    }
+
+    private static boolean verifySign(SM2SignType signType, ECPublicKey publicKey, byte[] sign, SignatureStreams.SignatureUpdater updater) {
+        try {
+            return verify(signType, publicKey, sign, updater);
+        } catch (Exception e) {
+            throw new CipherException("EC verify sign error", e);
+        }
+    }
+
+    /**
+     * 验签，异常不包装，签名格式错误时抛出SignatureException
+     */
+    private static boolean verify(SM2SignType signType, ECPublicKey publicKey, byte[] sign, SignatureStreams.SignatureUpdater updater) throws Exception {
+        Signature signature = SignaturePool.getSignature(signType.getType(), publicKey);
+        try {
+            updater.update(signature);
             //验证签名是否正常
             return signature.verify(sign);
         } catch (Exception e) {
-            throw new CipherException("EC verify sign error", e);
+            SignaturePool.remove(signType.getType(), publicKey);
+            throw e;
         }
     }
 
@@ -274,7 +512,7 @@ public class SM2Utils {
      * @param publicKey 公钥（X509格式，经过base64编码）
      */
     public static ECPublicKey getPublicKey(String publicKey) {
-        return getPublicKey(Base64.decodeBase64(publicKey.getBytes()));
+        return getPublicKey(Base64Utils.decode(publicKey));
     }
 
     /**
@@ -282,13 +520,11 @@ public class SM2Utils {
      * @param key 公钥（X509格式）
      */
     public static ECPublicKey getPublicKey(byte[] key) {
-        try {
-            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(key);
-            KeyFactory keyFactory = KeyFactory.getInstance(Algorithm.EC.getAlgorithm());
-            return (ECPublicKey) keyFactory.generatePublic(keySpec);
-        } catch (Exception e) {
-            throw new CipherException(e);
+        Key parsed = KEY_CACHE.get(BoundedCache.digest(key), k -> parsePublicKey(key));
+        if (!(parsed instanceof ECPublicKey)) {
+            throw new CipherException("invalid SM2 public key");
         }
+        return (ECPublicKey) parsed;
     }
 
     /**
@@ -296,7 +532,7 @@ public class SM2Utils {
      * @param privateKey 私钥（PKCS8格式，经过base64编码）
      */
     public static ECPrivateKey getPrivateKey(String privateKey) {
-        return getPrivateKey(Base64.decodeBase64(privateKey.getBytes()));
+        return getPrivateKey(Base64Utils.decode(privateKey));
     }
 
     /**
@@ -304,6 +540,55 @@ public class SM2Utils {
      * @param key 私钥（PKCS8格式）
      */
     public static ECPrivateKey getPrivateKey(byte[] key) {
+        Key parsed = KEY_CACHE.get(BoundedCache.digest(key), k -> parsePrivateKey(key));
+        if (!(parsed instanceof ECPrivateKey)) {
+            throw new CipherException("invalid SM2 private key");
+        }
+        return (ECPrivateKey) parsed;
+    }
+
+    /**
+     * 获取公钥和私钥解析缓存的统计信息
+     * 所有传入String或者byte[]密钥的方法都经过该缓存，相同密钥只解析一次
+     */
+    public static CacheStats getKeyCacheStats() {
+        return KEY_CACHE.getStats();
+    }
+
+    /**
+     * 调整公钥和私钥解析缓存的容量（默认128，可通过系统属性cipher.sm2.key.cache.capacity设置），为0时不缓存
+     * @param capacity 容量
+     */
+    public static void setKeyCacheCapacity(int capacity) {
+        KEY_CACHE.setCapacity(capacity);
+    }
+
+    /**
+     * 调整公钥和私钥解析缓存的过期时间（默认1小时，可通过系统属性cipher.sm2.key.cache.ttl设置），只对之后解析的密钥生效
+     * @param ttlMillis 过期时间（毫秒），为0时不过期
+     */
+    public static void setKeyCacheTtl(long ttlMillis) {
+        KEY_CACHE.setTtlMillis(ttlMillis);
+    }
+
+    /**
+     * 清空公钥和私钥解析缓存
+     */
+    public static void clearKeyCache() {
+        KEY_CACHE.clear();
+    }
+
+    private static ECPublicKey parsePublicKey(byte[] key) {
+        try {
+            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(key);
+            KeyFactory keyFactory = KeyFactory.getInstance(Algorithm.EC.getAlgorithm());
+            return (ECPublicKey) keyFactory.generatePublic(keySpec);
+        } catch (Exception e) {
+            throw new CipherException(e);
+        }
+    }
+
+    private static ECPrivateKey parsePrivateKey(byte[] key) {
         try {
             PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(key);
             KeyFactory keyFactory = KeyFactory.getInstance(Algorithm.EC.getAlgorithm());
@@ -313,4 +598,11 @@ public class SM2Utils {
         }
     }
 
+    private static void checkDigest(SM2SignType signType, byte[] digest) {
+        int digestLength = SM2DigestSigner.newDigest(signType).getDigestSize();
+        if (digest == null || digest.length != digestLength) {
+            throw new CipherException("{} digest length must be {}", signType.getType(), digestLength);
+        }
+    }
+
 }
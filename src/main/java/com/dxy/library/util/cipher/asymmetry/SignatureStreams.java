@@ -0,0 +1,81 @@
+package com.dxy.library.util.cipher.asymmetry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.Signature;
+import java.security.SignatureException;
+
+/**
+ * 流式签名和验签
+ * 按固定大小分块调用Signature.update，内存占用与数据大小无关，大文件使用内存映射读取
+ * @author duanxinyuan
+ * 2026/10/18 21:55
+ */
+class SignatureStreams {
+
+    //单次读取的数据块大小
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    //单次内存映射的区域大小
+    private static final int MAPPED_REGION_SIZE = 64 * 1024 * 1024;
+
+    //超过该大小的文件使用内存映射读取
+    private static final long MAPPED_THRESHOLD = 16 * 1024 * 1024;
+
+    /**
+     * 使用已初始化的Signature处理数据，处理完成之后调用sign或者verify
+     */
+    @FunctionalInterface
+    interface SignatureUpdater {
+
+        void update(Signature signature) throws Exception;
+
+    }
+
+    /**
+     * 读取输入流直到末尾（不关闭输入流）
+     */
+    static void update(Signature signature, InputStream in) throws IOException, SignatureException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int length;
+        while ((length = in.read(buffer)) != -1) {
+            signature.update(buffer, 0, length);
+        }
+    }
+
+    /**
+     * 读取通道直到末尾（不关闭通道）
+     */
+    static void update(Signature signature, ReadableByteChannel channel) throws IOException, SignatureException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            signature.update(buffer);
+            buffer.clear();
+        }
+    }
+
+    /**
+     * 读取文件
+     */
+    static void update(Signature signature, Path path) throws IOException, SignatureException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < MAPPED_THRESHOLD) {
+                update(signature, channel);
+                return;
+            }
+            for (long position = 0; position < size; position += MAPPED_REGION_SIZE) {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPED_REGION_SIZE, size - position));
+                signature.update(region);
+            }
+        }
+    }
+
+}
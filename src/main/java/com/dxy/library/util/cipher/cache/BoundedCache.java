@@ -0,0 +1,256 @@
+package com.dxy.library.util.cipher.cache;
+
+import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.pojo.CacheStats;
+import com.dxy.library.util.cipher.utils.Base64Utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 有界缓存（线程安全，近似LRU）
+ * 基于ConcurrentHashMap，读取不加锁，命中时只更新条目的访问时间；超出容量时淘汰访问时间最早的条目
+ * 淘汰时扫描全部条目，由一个线程完成，其他线程不等待（并发写入时条目数可能短暂超出容量），适用于容量为数百到数千的场景
+ * 可设置过期时间（从写入时开始计算），记录命中、未命中、淘汰和过期次数；过期的条目在下次访问时移除，在此之前仍占用容量，会被正常淘汰
+ * 未命中时在锁外计算新值，计算耗时不阻塞其他线程，并发计算同一个key时以先写入的值为准
+ * @author duanxinyuan
+ * 2026/10/18 19:40
+ */
+public class BoundedCache<K, V> {
+
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new CipherException(e);
+        }
+    });
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+
+    //淘汰锁，同一时刻只有一个线程淘汰
+    private final ReentrantLock evictLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private volatile int capacity;
+
+    //过期时间（纳秒），为0时不过期
+    private volatile long ttlNanos;
+
+    /**
+     * @param capacity 容量，为0时不缓存
+     */
+    public BoundedCache(int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * @param capacity 容量，为0时不缓存
+     * @param ttlMillis 过期时间（毫秒），为0时不过期
+     */
+    public BoundedCache(int capacity, long ttlMillis) {
+        checkCapacity(capacity);
+        checkTtl(ttlMillis);
+        this.capacity = capacity;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * 计算密钥的摘要（SHA-256，Base64编码），用作缓存的key，缓存中不出现密钥原文
+     * @param key 密钥
+     */
+    public static String digest(byte[] key) {
+        return Base64Utils.encode(DIGESTS.get().digest(key));
+    }
+
+    /**
+     * 获取缓存的值，不存在时计算并写入缓存
+     * @param key 键
+     * @param loader 未命中时计算值
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = loader.apply(key);
+        if (capacity == 0) {
+            return value;
+        }
+        long now = System.nanoTime();
+        long ttlNanos = this.ttlNanos;
+        Entry<V> entry = new Entry<>(value, ttlNanos == 0 ? Long.MAX_VALUE : now + ttlNanos, now);
+        Entry<V> existing = map.putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!existing.isExpired(now)) {
+                return existing.value;
+            }
+            if (map.replace(key, existing, entry)) {
+                expirations.increment();
+            }
+        }
+        if (map.size() > capacity) {
+            evict(false);
+        }
+        return value;
+    }
+
+    /**
+     * 获取缓存的值，不存在时返回null（不计入命中统计）
+     * @param key 键
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (entry.isExpired(now)) {
+            if (map.remove(key, entry)) {
+                expirations.increment();
+            }
+            return null;
+        }
+        entry.accessTime = now;
+        return entry.value;
+    }
+
+    /**
+     * 移除缓存的值
+     * @param key 键
+     */
+    public void remove(K key) {
+        map.remove(key);
+    }
+
+    /**
+     * 清空缓存（不清空统计）
+     */
+    public void clear() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 调整容量，超出新容量的条目立即淘汰
+     * @param capacity 容量，为0时不缓存
+     */
+    public void setCapacity(int capacity) {
+        checkCapacity(capacity);
+        this.capacity = capacity;
+        evict(true);
+    }
+
+    public long getTtlMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+    }
+
+    /**
+     * 调整过期时间，只对之后写入的条目生效
+     * @param ttlMillis 过期时间（毫秒），为0时不过期
+     */
+    public void setTtlMillis(long ttlMillis) {
+        checkTtl(ttlMillis);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size(), capacity);
+    }
+
+    /**
+     * 淘汰访问时间最早的条目，直到不超过容量
+     * @param wait 其他线程正在淘汰时是否等待
+     */
+    private void evict(boolean wait) {
+        if (wait) {
+            evictLock.lock();
+        } else if (!evictLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess;
+            while ((excess = map.size() - capacity) > 0) {
+                //一次扫描找出访问时间最早的excess个条目（大顶堆，堆顶为其中访问时间最晚的）
+                PriorityQueue<Map.Entry<K, Entry<V>>> oldest = new PriorityQueue<>(excess,
+                        (a, b) -> Long.compare(b.getValue().accessTime, a.getValue().accessTime));
+                for (Map.Entry<K, Entry<V>> e : map.entrySet()) {
+                    if (oldest.size() < excess) {
+                        oldest.add(e);
+                    } else if (e.getValue().accessTime - oldest.peek().getValue().accessTime < 0) {
+                        oldest.poll();
+                        oldest.add(e);
+                    }
+                }
+                for (Map.Entry<K, Entry<V>> e : oldest) {
+                    if (map.remove(e.getKey(), e.getValue())) {
+                        evictions.increment();
+                    }
+                }
+            }
+        } finally {
+            evictLock.unlock();
+        }
+    }
+
+    private static void checkCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new CipherException("cache capacity must not be negative");
+        }
+    }
+
+    private static void checkTtl(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new CipherException("cache ttl must not be negative");
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+
+        //过期时刻（System.nanoTime），不过期时为Long.MAX_VALUE
+        private final long expireAt;
+
+        //最近访问时刻（System.nanoTime），用于近似LRU淘汰
+        private volatile long accessTime;
+
+        Entry(V value, long expireAt, long accessTime) {
+            this.value = value;
+            this.expireAt = expireAt;
+            this.accessTime = accessTime;
+        }
+
+        boolean isExpired(long now) {
+            return expireAt != Long.MAX_VALUE && now - expireAt >= 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.dxy.library.util.cipher.concurrent;
+
+import com.dxy.library.util.cipher.exception.CipherException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * 并行加解密使用的线程池
+ * 默认使用ForkJoinPool.commonPool()，可通过{@link #setPool(ForkJoinPool)}替换为独立的线程池，避免和业务任务互相影响
+ * @author duanxinyuan
+ * 2026/10/18 15:40
+ */
+public class CipherExecutors {
+
+    private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * 执行全部任务并等待完成，任一任务失败时抛出该任务的异常
+     * @param tasks 任务列表
+     * @return 任务结果，顺序与任务列表一致
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) throws Exception {
+        return invokeAll(pool, tasks);
+    }
+
+    /**
+     * 在指定的线程池中执行全部任务并等待完成，任一任务失败时抛出该任务的异常
+     * @param executor 线程池
+     * @param tasks 任务列表
+     * @return 任务结果，顺序与任务列表一致
+     */
+    public static <T> List<T> invokeAll(ExecutorService executor, List<? extends Callable<T>> tasks) throws Exception {
+        List<Future<T>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CipherException("parallel cipher task interrupted", e);
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw new CipherException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CipherException("parallel cipher task interrupted", e);
+        }
+        return results;
+    }
+
+    public static ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public static void setPool(ForkJoinPool pool) {
+        CipherExecutors.pool = pool;
+    }
+
+    /**
+     * 线程池并行度
+     */
+    public static int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * 指定线程池的并行度，非ForkJoinPool时按CPU核数计算
+     * @param executor 线程池
+     */
+    public static int getParallelism(ExecutorService executor) {
+        return executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+    }
+
+}
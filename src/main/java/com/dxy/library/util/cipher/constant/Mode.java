@@ -6,6 +6,7 @@ package com.dxy.library.util.cipher.constant;
  * 1、NoPadding填充情况下，CBC、ECB和PCBC三种模式是不支持的
  * 2、CFB、OFB两种模式下，加密数据长度等于原始数据长度
  * 3、PCBC是CBC的扩种，较少使用，故而没有引入
+ * 4、GCM、CCM为认证加密模式（AEAD），需要nonce，可以附带AAD，密文末尾附带认证标签
  * @author duanxinyuan
  * 2019/2/19 20:52
  */
@@ -30,7 +31,13 @@ public enum Mode {
     OFB("OFB"),
 
     //计数器模式，增加一个序列函数对所有密文快做XOR
-    CTR("CTR");
+    CTR("CTR"),
+
+    //伽罗瓦/计数器模式，CTR加密加GMAC认证，同时保证机密性和完整性，只支持NoPadding，只能用于块长128的算法（AES、SM4），JDK有硬件加速
+    GCM("GCM"),
+
+    //计数器/CBC-MAC模式，CTR加密加CBC-MAC认证，同时保证机密性和完整性，只支持NoPadding，只能用于块长128的算法（AES、SM4）
+    CCM("CCM");
 
     String mode;
 
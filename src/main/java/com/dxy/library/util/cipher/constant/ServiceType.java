@@ -0,0 +1,39 @@
+package com.dxy.library.util.cipher.constant;
+
+/**
+ * JCE服务类型
+ * 全部服务类型见官方文档：https://docs.oracle.com/javase/8/docs/technotes/guides/security/StandardNames.html
+ * @author duanxinyuan
+ * 2026/10/18 16:30
+ */
+public enum ServiceType {
+
+    //加解密，算法名称为加密算法全称，如AES/CBC/PKCS5Padding
+    Cipher("Cipher"),
+
+    //数字签名，算法名称见RSASignType、SM2SignType
+    Signature("Signature"),
+
+    //消息认证码，算法名称见HmacType
+    Mac("Mac"),
+
+    //散列
+    MessageDigest("MessageDigest"),
+
+    ;
+
+    private String type;
+
+    ServiceType(String type) {
+        this.type = type;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+}
@@ -0,0 +1,530 @@
+package com.dxy.library.util.cipher.engine;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.CipherSpi;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.ref.WeakReference;
+import java.security.AlgorithmParameters;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.InvalidParameterSpecException;
+import java.util.Arrays;
+import java.util.function.BiFunction;
+
+/**
+ * 分组密码工作模式的通用实现，支持ECB、CBC（NoPadding、PKCS5Padding、PKCS7Padding）和CTR（NoPadding），子类只需要提供分组变换
+ * 加解密结果、分段update的行为以及异常类型与JDK和BouncyCastle的实现一致
+ * 1、ECB和CTR的批量数据一次交给{@link #processBlocks(byte[], int, int, byte[], int)}，子类可以交错处理多个分组
+ * 2、CBC解密时各分组先批量解密再与前一分组密文异或，只有CBC加密需要逐块处理
+ * 3、处理过程中只使用初始化时分配的工作缓冲区，不分配新对象（输入输出重叠时除外）
+ * 4、使用同一个SecretKeySpec对象重新初始化（只更换偏移量）时不再调用{@link #initEngine(boolean, byte[])}，子类持有的已扩展密钥直接复用
+ * @author duanxinyuan
+ * 2026/10/18 17:55
+ */
+abstract class BlockModeCipherSpi extends CipherSpi {
+
+    //批量处理的分组数
+    private static final int BATCH_BLOCKS = 64;
+
+    //内置实现直接构造Cipher，不注册到Security，这里只作为Cipher.getProvider的返回值
+    static final Provider PROVIDER = new BuiltInProvider();
+
+    enum Mode {ECB, CBC, CTR}
+
+    private final String algorithm;
+
+    private final int blockSize;
+
+    private final Mode mode;
+
+    private final boolean padding;
+
+    //批量处理的工作缓冲区
+    private final byte[] work;
+
+    //未满一个分组的数据（解密且有填充时保留最后一个完整分组）
+    private final byte[] buffer;
+
+    private int bufferLength;
+
+    //CBC为前一分组密文，CTR为当前计数器
+    private final byte[] state;
+
+    //CTR模式当前分组的密钥流
+    private final byte[] keystream;
+
+    private int keystreamPosition;
+
+    private byte[] iv;
+
+    private boolean encrypting;
+
+    private boolean initialized;
+
+    //最近一次完成密钥扩展的密钥和方向，同一个SecretKeySpec对象重复初始化（如CipherContext每次更换偏移量）时跳过密钥扩展
+    //只用于比较是否为同一个对象，使用弱引用，线程缓存的密码器不会让调用方的密钥一直留在堆中
+    private WeakReference<Key> engineKey;
+
+    private boolean engineForEncryption;
+
+    BlockModeCipherSpi(String algorithm, int blockSize, Mode mode, boolean padding) {
+        this.algorithm = algorithm;
+        this.blockSize = blockSize;
+        this.mode = mode;
+        this.padding = padding;
+        this.work = new byte[BATCH_BLOCKS * blockSize];
+        this.buffer = new byte[blockSize];
+        this.state = new byte[blockSize];
+        this.keystream = new byte[blockSize];
+        this.keystreamPosition = blockSize;
+    }
+
+    /**
+     * 解析加密算法全称，创建对应工作模式和填充方式的实现，不支持时返回null
+     * @param transformation 加密算法全称，如SM4/CBC/PKCS7Padding
+     * @param algorithm 算法名称
+     * @param constructor 根据工作模式和是否有填充创建实现
+     */
+    static BlockModeCipherSpi newInstance(String transformation, String algorithm, BiFunction<Mode, Boolean, BlockModeCipherSpi> constructor) {
+        String[] parts = transformation.split("/");
+        if (parts.length != 3 || !algorithm.equalsIgnoreCase(parts[0])) {
+            return null;
+        }
+        Mode mode;
+        try {
+            mode = Mode.valueOf(parts[1].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        boolean padding;
+        if ("NoPadding".equalsIgnoreCase(parts[2])) {
+            padding = false;
+        } else if ("PKCS5Padding".equalsIgnoreCase(parts[2]) || "PKCS7Padding".equalsIgnoreCase(parts[2])) {
+            padding = true;
+        } else {
+            return null;
+        }
+        if (mode == Mode.CTR && padding) {
+            return null;
+        }
+        return constructor.apply(mode, padding);
+    }
+
+    /**
+     * 使用密钥初始化分组变换
+     * @param forEncryption 是否为加密变换（CTR模式加解密都使用加密变换）
+     * @param key 密钥
+     */
+    protected abstract void initEngine(boolean forEncryption, byte[] key) throws InvalidKeyException;
+
+    /**
+     * 分组变换，输出可以与输入是同一个数组的同一位置
+     * @param blocks 分组数量
+     */
+    protected abstract void processBlocks(byte[] in, int inOff, int blocks, byte[] out, int outOff);
+
+    @Override
+    protected void engineSetMode(String mode) throws NoSuchAlgorithmException {
+        if (!this.mode.name().equalsIgnoreCase(mode)) {
+            throw new NoSuchAlgorithmException("can't support mode " + mode);
+        }
+    }
+
+    @Override
+    protected void engineSetPadding(String padding) throws NoSuchPaddingException {
+        boolean isPadding = "PKCS5Padding".equalsIgnoreCase(padding) || "PKCS7Padding".equalsIgnoreCase(padding);
+        if (isPadding != this.padding || !isPadding && !"NoPadding".equalsIgnoreCase(padding)) {
+            throw new NoSuchPaddingException("Padding " + padding + " unknown.");
+        }
+    }
+
+    @Override
+    protected int engineGetBlockSize() {
+        return blockSize;
+    }
+
+    @Override
+    protected int engineGetOutputSize(int inputLen) {
+        int total = bufferLength + inputLen;
+        if (padding && encrypting) {
+            return total / blockSize * blockSize + blockSize;
+        }
+        return total;
+    }
+
+    @Override
+    protected byte[] engineGetIV() {
+        return iv == null ? null : iv.clone();
+    }
+
+    @Override
+    protected AlgorithmParameters engineGetParameters() {
+        if (iv == null) {
+            return null;
+        }
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance(algorithm);
+            parameters.init(new IvParameterSpec(iv));
+            return parameters;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected void engineInit(int opmode, Key key, SecureRandom random) throws InvalidKeyException {
+        try {
+            engineInit(opmode, key, (AlgorithmParameterSpec) null, random);
+        } catch (InvalidAlgorithmParameterException e) {
+            throw new InvalidKeyException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected void engineInit(int opmode, Key key, AlgorithmParameters params, SecureRandom random) throws InvalidKeyException, InvalidAlgorithmParameterException {
+        AlgorithmParameterSpec spec = null;
+        if (params != null) {
+            try {
+                spec = params.getParameterSpec(IvParameterSpec.class);
+            } catch (InvalidParameterSpecException e) {
+                throw new InvalidAlgorithmParameterException("can't handle parameter " + params, e);
+            }
+        }
+        engineInit(opmode, key, spec, random);
+    }
+
+    @Override
+    protected void engineInit(int opmode, Key key, AlgorithmParameterSpec params, SecureRandom random) throws InvalidKeyException, InvalidAlgorithmParameterException {
+        boolean encrypting = opmode == Cipher.ENCRYPT_MODE || opmode == Cipher.WRAP_MODE;
+        //CTR模式加解密都使用加密变换
+        boolean forEncryption = encrypting || mode == Mode.CTR;
+        //SecretKeySpec不可变，同一个对象的密钥内容不会变化
+        boolean sameKey = key instanceof SecretKeySpec && engineKey != null && engineKey.get() == key && forEncryption == engineForEncryption;
+        byte[] keyBytes = null;
+        if (!sameKey) {
+            keyBytes = key == null ? null : key.getEncoded();
+            if (keyBytes == null) {
+                throw new InvalidKeyException("Key encoding must not be null");
+            }
+        }
+        byte[] iv = null;
+        if (params instanceof IvParameterSpec) {
+            if (mode == Mode.ECB) {
+                throw new InvalidAlgorithmParameterException("ECB mode does not use an IV");
+            }
+            iv = ((IvParameterSpec) params).getIV();
+            if (iv.length != blockSize) {
+                throw new InvalidAlgorithmParameterException("IV must be " + blockSize + " bytes long.");
+            }
+        } else if (params != null) {
+            throw new InvalidAlgorithmParameterException("unknown parameter type.");
+        } else if (mode != Mode.ECB) {
+            if (!encrypting) {
+                throw new InvalidKeyException("no IV set when one expected");
+            }
+            //加密时未指定偏移量则随机生成
+            iv = new byte[blockSize];
+            (random == null ? new SecureRandom() : random).nextBytes(iv);
+        }
+        if (!sameKey) {
+            engineKey = null;
+            initEngine(forEncryption, keyBytes);
+            engineKey = new WeakReference<>(key);
+            engineForEncryption = forEncryption;
+        }
+        this.encrypting = encrypting;
+        this.iv = iv;
+        this.initialized = true;
+        reset();
+    }
+
+    @Override
+    protected byte[] engineUpdate(byte[] input, int inputOffset, int inputLen) {
+        byte[] output = new byte[engineGetOutputSize(inputLen)];
+        try {
+            int length = engineUpdate(input, inputOffset, inputLen, output, 0);
+            return length == output.length ? output : Arrays.copyOf(output, length);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected int engineUpdate(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset) throws ShortBufferException {
+        checkInitialized();
+        if (inputLen <= 0) {
+            return 0;
+        }
+        if (isOverlapping(input, inputOffset, inputLen, output, outputOffset)) {
+            input = Arrays.copyOfRange(input, inputOffset, inputOffset + inputLen);
+            inputOffset = 0;
+        }
+        return update(input, inputOffset, inputLen, output, outputOffset);
+    }
+
+    @Override
+    protected byte[] engineDoFinal(byte[] input, int inputOffset, int inputLen) throws IllegalBlockSizeException, BadPaddingException {
+        byte[] output = new byte[engineGetOutputSize(inputLen)];
+        try {
+            int length = engineDoFinal(input, inputOffset, inputLen, output, 0);
+            return length == output.length ? output : Arrays.copyOf(output, length);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected int engineDoFinal(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset)
+            throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        checkInitialized();
+        try {
+            if (padding && encrypting && output.length - outputOffset < engineGetOutputSize(inputLen)) {
+                throw new ShortBufferException("output buffer too short");
+            }
+            int length = 0;
+            if (inputLen > 0) {
+                if (isOverlapping(input, inputOffset, inputLen, output, outputOffset)) {
+                    input = Arrays.copyOfRange(input, inputOffset, inputOffset + inputLen);
+                    inputOffset = 0;
+                }
+                length = update(input, inputOffset, inputLen, output, outputOffset);
+            }
+            return length + doFinal(output, outputOffset + length);
+        } finally {
+            reset();
+        }
+    }
+
+    /**
+     * 处理输入数据，ECB和CBC模式下不满一个分组的数据留在缓冲区
+     */
+    private int update(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset) throws ShortBufferException {
+        if (mode == Mode.CTR) {
+            if (output.length - outputOffset < inputLen) {
+                throw new ShortBufferException("output buffer too short");
+            }
+            ctr(input, inputOffset, inputLen, output, outputOffset);
+            return inputLen;
+        }
+        int total = bufferLength + inputLen;
+        int remain = total % blockSize;
+        if (remain == 0 && padding && !encrypting) {
+            //解密时保留最后一个分组，doFinal时去除填充
+            remain = blockSize;
+        }
+        int length = total - remain;
+        if (length <= 0) {
+            System.arraycopy(input, inputOffset, buffer, bufferLength, inputLen);
+            bufferLength += inputLen;
+            return 0;
+        }
+        if (output.length - outputOffset < length) {
+            throw new ShortBufferException("output buffer too short");
+        }
+        int produced = 0;
+        if (bufferLength > 0) {
+            int fill = blockSize - bufferLength;
+            System.arraycopy(input, inputOffset, buffer, bufferLength, fill);
+            processModeBlocks(buffer, 0, 1, output, outputOffset);
+            inputOffset += fill;
+            inputLen -= fill;
+            produced = blockSize;
+            bufferLength = 0;
+        }
+        processModeBlocks(input, inputOffset, (length - produced) / blockSize, output, outputOffset + produced);
+        inputOffset += length - produced;
+        inputLen -= length - produced;
+        System.arraycopy(input, inputOffset, buffer, 0, inputLen);
+        bufferLength = inputLen;
+        return length;
+    }
+
+    /**
+     * 处理缓冲区中剩余的数据，加密时添加填充，解密时去除填充
+     */
+    private int doFinal(byte[] output, int outputOffset) throws ShortBufferException, IllegalBlockSizeException, BadPaddingException {
+        if (mode == Mode.CTR) {
+            return 0;
+        }
+        if (!padding) {
+            if (bufferLength != 0) {
+                throw new IllegalBlockSizeException("data not block size aligned");
+            }
+            return 0;
+        }
+        if (encrypting) {
+            byte pad = (byte) (blockSize - bufferLength);
+            Arrays.fill(buffer, bufferLength, blockSize, pad);
+            processModeBlocks(buffer, 0, 1, output, outputOffset);
+            return blockSize;
+        }
+        if (bufferLength != blockSize) {
+            throw new IllegalBlockSizeException("last block incomplete in decryption");
+        }
+        processModeBlocks(buffer, 0, 1, buffer, 0);
+        int pad = buffer[blockSize - 1] & 0xFF;
+        boolean invalid = pad == 0 || pad > blockSize;
+        for (int i = blockSize - Math.min(Math.max(pad, 1), blockSize); i < blockSize; i++) {
+            invalid |= (buffer[i] & 0xFF) != pad;
+        }
+        if (invalid) {
+            throw new BadPaddingException("pad block corrupted");
+        }
+        int length = blockSize - pad;
+        if (output.length - outputOffset < length) {
+            throw new ShortBufferException("output buffer too short");
+        }
+        System.arraycopy(buffer, 0, output, outputOffset, length);
+        return length;
+    }
+
+    /**
+     * 按工作模式处理完整的分组
+     */
+    private void processModeBlocks(byte[] input, int inputOffset, int blocks, byte[] output, int outputOffset) {
+        if (blocks <= 0) {
+            return;
+        }
+        switch (mode) {
+            case ECB:
+                processBlocks(input, inputOffset, blocks, output, outputOffset);
+                break;
+            case CBC:
+                if (encrypting) {
+                    cbcEncrypt(input, inputOffset, blocks, output, outputOffset);
+                } else {
+                    cbcDecrypt(input, inputOffset, blocks, output, outputOffset);
+                }
+                break;
+            default:
+                throw new IllegalStateException("unexpected mode " + mode);
+        }
+    }
+
+    private void cbcEncrypt(byte[] input, int inputOffset, int blocks, byte[] output, int outputOffset) {
+        for (int i = 0; i < blocks; i++) {
+            for (int j = 0; j < blockSize; j++) {
+                state[j] ^= input[inputOffset + j];
+            }
+            processBlocks(state, 0, 1, state, 0);
+            System.arraycopy(state, 0, output, outputOffset, blockSize);
+            inputOffset += blockSize;
+            outputOffset += blockSize;
+        }
+    }
+
+    private void cbcDecrypt(byte[] input, int inputOffset, int blocks, byte[] output, int outputOffset) {
+        while (blocks > 0) {
+            int batch = Math.min(blocks, BATCH_BLOCKS);
+            int length = batch * blockSize;
+            //先保存密文，输出覆盖输入时仍然可以取到前一分组的密文
+            System.arraycopy(input, inputOffset, work, 0, length);
+            processBlocks(work, 0, batch, output, outputOffset);
+            for (int j = 0; j < blockSize; j++) {
+                output[outputOffset + j] ^= state[j];
+            }
+            for (int j = blockSize; j < length; j++) {
+                output[outputOffset + j] ^= work[j - blockSize];
+            }
+            System.arraycopy(work, length - blockSize, state, 0, blockSize);
+            blocks -= batch;
+            inputOffset += length;
+            outputOffset += length;
+        }
+    }
+
+    private void ctr(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset) {
+        //先用完上一次剩余的密钥流
+        while (keystreamPosition < blockSize && inputLen > 0) {
+            output[outputOffset++] = (byte) (input[inputOffset++] ^ keystream[keystreamPosition++]);
+            inputLen--;
+        }
+        while (inputLen >= blockSize) {
+            int batch = Math.min(inputLen / blockSize, BATCH_BLOCKS);
+            int length = batch * blockSize;
+            for (int i = 0; i < length; i += blockSize) {
+                System.arraycopy(state, 0, work, i, blockSize);
+                incrementCounter();
+            }
+            processBlocks(work, 0, batch, work, 0);
+            for (int i = 0; i < length; i++) {
+                output[outputOffset + i] = (byte) (input[inputOffset + i] ^ work[i]);
+            }
+            inputOffset += length;
+            outputOffset += length;
+            inputLen -= length;
+        }
+        if (inputLen > 0) {
+            processBlocks(state, 0, 1, keystream, 0);
+            incrementCounter();
+            for (keystreamPosition = 0; keystreamPosition < inputLen; keystreamPosition++) {
+                output[outputOffset + keystreamPosition] = (byte) (input[inputOffset + keystreamPosition] ^ keystream[keystreamPosition]);
+            }
+        }
+    }
+
+    /**
+     * 计数器加1，计数器为整个分组的大端整数，溢出时回绕
+     */
+    private void incrementCounter() {
+        for (int i = blockSize - 1; i >= 0; i--) {
+            if (++state[i] != 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 恢复到初始化之后的状态
+     */
+    private void reset() {
+        bufferLength = 0;
+        keystreamPosition = blockSize;
+        if (iv != null) {
+            System.arraycopy(iv, 0, state, 0, blockSize);
+        }
+    }
+
+    private void checkInitialized() {
+        if (!initialized) {
+            throw new IllegalStateException("Cipher not initialized");
+        }
+    }
+
+    /**
+     * 输入输出是否重叠，原地处理（位置相同且缓冲区为空）不算重叠
+     */
+    private boolean isOverlapping(byte[] input, int inputOffset, int inputLen, byte[] output, int outputOffset) {
+        if (input != output) {
+            return false;
+        }
+        if (inputOffset == outputOffset && (bufferLength == 0 || mode == Mode.CTR)) {
+            return false;
+        }
+        return outputOffset < inputOffset + inputLen && inputOffset < outputOffset + engineGetOutputSize(inputLen);
+    }
+
+    /**
+     * 内置实现的Provider，不注册任何服务
+     */
+    private static final class BuiltInProvider extends Provider {
+
+        private static final long serialVersionUID = 1L;
+
+        BuiltInProvider() {
+            super("CipherUtils", 1.0, "cipher-utils built-in ciphers");
+        }
+
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.dxy.library.util.cipher.engine;
+
+import com.dxy.library.util.cipher.cache.BoundedCache;
+import com.dxy.library.util.cipher.pojo.CacheStats;
+
+import javax.crypto.Cipher;
+
+/**
+ * 缓存扩展密钥的Blowfish密码器
+ * Blowfish的密钥扩展需要521次分组加密来生成P数组和S盒，JDK的实现每次init都重新扩展，小数据量加解密时密钥扩展的耗时远大于加解密本身
+ * 这里把扩展后的密钥放在有界LRU缓存中，以密钥的SHA-256摘要为key，相同密钥再次使用时直接复用
+ * 缓存中不保留密钥原文，但扩展后的P数组和S盒与密钥同样敏感，不再使用的密钥可通过{@link #clearCache()}清除
+ * 支持Blowfish/ECB、Blowfish/CBC（NoPadding、PKCS5Padding、PKCS7Padding）和Blowfish/CTR/NoPadding，其他方式仍使用JDK或者BouncyCastle
+ * 未指定Provider时{@link com.dxy.library.util.cipher.pool.CipherPool}默认使用，可通过系统属性cipher.blowfish.engine.enabled=false或者{@link #setEnabled(boolean)}关闭
+ * 缓存容量可通过系统属性cipher.blowfish.cache.capacity或者{@link #setCacheCapacity(int)}调整，为0时不缓存
+ * 注意：直接构造Cipher子类时JDK会校验调用方（Oracle JDK 8会校验所在jar的JCE签名，校验失败时抛出异常），构造失败时自动关闭，之后全部回退到JDK或者BouncyCastle
+ * @author duanxinyuan
+ * 2026/10/18 19:55
+ */
+public class BlowfishCipher extends Cipher {
+
+    //是否启用
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("cipher.blowfish.engine.enabled", "true"));
+
+    //扩展密钥缓存，key为密钥的SHA-256摘要
+    private static final BoundedCache<String, BlowfishKeySchedule> CACHE = new BoundedCache<>(Integer.getInteger("cipher.blowfish.cache.capacity", 256));
+
+    private BlowfishCipher(BlockModeCipherSpi cipherSpi, String transformation) {
+        super(cipherSpi, BlockModeCipherSpi.PROVIDER, transformation);
+    }
+
+    /**
+     * 创建密码器，未启用或者不支持时返回null
+     * @param transformation 加密算法全称，如Blowfish/CBC/PKCS5Padding
+     */
+    public static Cipher newCipher(String transformation) {
+        if (!enabled) {
+            return null;
+        }
+        BlockModeCipherSpi cipherSpi = BlockModeCipherSpi.newInstance(transformation, "Blowfish", BlowfishCipherSpi::new);
+        if (cipherSpi == null) {
+            return null;
+        }
+        try {
+            return new BlowfishCipher(cipherSpi, transformation);
+        } catch (RuntimeException e) {
+            //当前JDK不允许构造未签名的Cipher子类
+            enabled = false;
+            return null;
+        }
+    }
+
+    /**
+     * 获取扩展后的密钥，缓存中没有时创建
+     */
+    static BlowfishKeySchedule getKeySchedule(byte[] key) {
+        return CACHE.get(BoundedCache.digest(key), k -> new BlowfishKeySchedule(key));
+    }
+
+    /**
+     * 获取扩展密钥缓存的统计信息
+     */
+    public static CacheStats getCacheStats() {
+        return CACHE.getStats();
+    }
+
+    /**
+     * 调整扩展密钥缓存的容量，超出新容量的条目立即淘汰
+     * @param capacity 容量，为0时不缓存
+     */
+    public static void setCacheCapacity(int capacity) {
+        CACHE.setCapacity(capacity);
+    }
+
+    /**
+     * 清空扩展密钥缓存
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 启用或者关闭，当前线程已缓存的Cipher不受影响，需要时调用{@link com.dxy.library.util.cipher.pool.CipherPool#clear()}
+     */
+    public static void setEnabled(boolean enabled) {
+        BlowfishCipher.enabled = enabled;
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.dxy.library.util.cipher.engine;
+
+import java.security.InvalidKeyException;
+
+/**
+ * Blowfish密码器实现，分组变换使用{@link BlowfishCipher}缓存的扩展密钥，相同密钥重复初始化时不再扩展密钥
+ * @author duanxinyuan
+ * 2026/10/18 19:55
+ */
+class BlowfishCipherSpi extends BlockModeCipherSpi {
+
+    private BlowfishKeySchedule keySchedule;
+
+    private boolean forEncryption;
+
+    BlowfishCipherSpi(Mode mode, boolean padding) {
+        super("Blowfish", BlowfishKeySchedule.BLOCK_SIZE, mode, padding);
+    }
+
+    @Override
+    protected void initEngine(boolean forEncryption, byte[] key) throws InvalidKeyException {
+        if (key.length < 4 || key.length > 56) {
+            throw new InvalidKeyException("Blowfish key length must be 32~448 bits");
+        }
+        keySchedule = BlowfishCipher.getKeySchedule(key);
+        this.forEncryption = forEncryption;
+    }
+
+    @Override
+    protected void processBlocks(byte[] in, int inOff, int blocks, byte[] out, int outOff) {
+        int blockSize = BlowfishKeySchedule.BLOCK_SIZE;
+        if (forEncryption) {
+            for (int i = 0; i < blocks; i++) {
+                keySchedule.encryptBlock(in, inOff + i * blockSize, out, outOff + i * blockSize);
+            }
+        } else {
+            for (int i = 0; i < blocks; i++) {
+                keySchedule.decryptBlock(in, inOff + i * blockSize, out, outOff + i * blockSize);
+            }
+        }
+    }
+
+}
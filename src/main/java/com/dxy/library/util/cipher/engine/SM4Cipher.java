@@ -0,0 +1,55 @@
+package com.dxy.library.util.cipher.engine;
+
+import javax.crypto.Cipher;
+
+/**
+ * 基于{@link SM4TableEngine}的SM4密码器
+ * SM4在JVM上没有硬件加速，BouncyCastle的通用实现比AES慢数倍，这里直接构造Cipher包装查表实现，不经过Provider注册
+ * 支持SM4/ECB、SM4/CBC（NoPadding、PKCS5Padding、PKCS7Padding）和SM4/CTR/NoPadding，其他方式仍使用BouncyCastle
+ * 未指定Provider时{@link com.dxy.library.util.cipher.pool.CipherPool}默认使用，可通过系统属性cipher.sm4.engine.enabled=false或者{@link #setEnabled(boolean)}关闭
+ * 注意：直接构造Cipher子类时JDK会校验调用方（Oracle JDK 8会校验所在jar的JCE签名，校验失败时抛出异常），构造失败时自动关闭，之后全部回退到BouncyCastle
+ * @author duanxinyuan
+ * 2026/10/18 18:20
+ */
+public class SM4Cipher extends Cipher {
+
+    //是否启用
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("cipher.sm4.engine.enabled", "true"));
+
+    private SM4Cipher(BlockModeCipherSpi cipherSpi, String transformation) {
+        super(cipherSpi, BlockModeCipherSpi.PROVIDER, transformation);
+    }
+
+    /**
+     * 创建密码器，未启用或者不支持时返回null
+     * @param transformation 加密算法全称，如SM4/CBC/PKCS7Padding
+     */
+    public static Cipher newCipher(String transformation) {
+        if (!enabled) {
+            return null;
+        }
+        BlockModeCipherSpi cipherSpi = BlockModeCipherSpi.newInstance(transformation, "SM4", SM4CipherSpi::new);
+        if (cipherSpi == null) {
+            return null;
+        }
+        try {
+            return new SM4Cipher(cipherSpi, transformation);
+        } catch (RuntimeException e) {
+            //当前JDK不允许构造未签名的Cipher子类
+            enabled = false;
+            return null;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 启用或者关闭，当前线程已缓存的Cipher不受影响，需要时调用{@link com.dxy.library.util.cipher.pool.CipherPool#clear()}
+     */
+    public static void setEnabled(boolean enabled) {
+        SM4Cipher.enabled = enabled;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.dxy.library.util.cipher.engine;
+
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.security.InvalidKeyException;
+
+/**
+ * 基于{@link SM4TableEngine}的SM4密码器实现，批量数据交给{@link SM4TableEngine#processBlocks(byte[], int, int, byte[], int)}交错处理
+ * @author duanxinyuan
+ * 2026/10/18 17:55
+ */
+class SM4CipherSpi extends BlockModeCipherSpi {
+
+    private final SM4TableEngine engine = new SM4TableEngine();
+
+    SM4CipherSpi(Mode mode, boolean padding) {
+        super("SM4", SM4TableEngine.BLOCK_SIZE, mode, padding);
+    }
+
+    @Override
+    protected void initEngine(boolean forEncryption, byte[] key) throws InvalidKeyException {
+        if (key.length != SM4TableEngine.BLOCK_SIZE) {
+            throw new InvalidKeyException("SM4 requires a 128 bit key");
+        }
+        engine.init(forEncryption, new KeyParameter(key));
+    }
+
+    @Override
+    protected void processBlocks(byte[] in, int inOff, int blocks, byte[] out, int outOff) {
+        engine.processBlocks(in, inOff, blocks, out, outOff);
+    }
+
+}
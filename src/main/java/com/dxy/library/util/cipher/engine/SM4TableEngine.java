@@ -0,0 +1,261 @@
+package com.dxy.library.util.cipher.engine;
+
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+
+/**
+ * 查表实现的SM4分组密码（GB/T 32907-2016）
+ * 1、S盒与线性变换L预先合并成4张256项的T表，每轮只需要4次查表和异或，不再逐字节替换和循环移位
+ * 2、轮函数按4轮展开，4个状态字轮流更新，不需要在数组中移动状态，加解密过程中不分配对象
+ * 3、{@link #processBlocks(byte[], int, int, byte[], int)}交错处理4个分组，4条互不依赖的计算链可以同时执行，用于ECB、CTR等可批量处理的场景
+ * 4、不保留密钥原文，只保存轮密钥；通过{@link SM4Cipher}使用时，同一个SecretKeySpec对象重复初始化（只更换偏移量）由密码器跳过密钥扩展
+ * 实现了BouncyCastle的BlockCipher接口，可以与BouncyCastle的工作模式组合使用
+ * @author duanxinyuan
+ * 2026/10/18 17:30
+ */
+public class SM4TableEngine implements BlockCipher {
+
+    public static final int BLOCK_SIZE = 16;
+
+    private static final byte[] SBOX = {
+            (byte) 0xD6, (byte) 0x90, (byte) 0xE9, (byte) 0xFE, (byte) 0xCC, (byte) 0xE1, (byte) 0x3D, (byte) 0xB7, (byte) 0x16, (byte) 0xB6, (byte) 0x14, (byte) 0xC2, (byte) 0x28, (byte) 0xFB, (byte) 0x2C, (byte) 0x05,
+            (byte) 0x2B, (byte) 0x67, (byte) 0x9A, (byte) 0x76, (byte) 0x2A, (byte) 0xBE, (byte) 0x04, (byte) 0xC3, (byte) 0xAA, (byte) 0x44, (byte) 0x13, (byte) 0x26, (byte) 0x49, (byte) 0x86, (byte) 0x06, (byte) 0x99,
+            (byte) 0x9C, (byte) 0x42, (byte) 0x50, (byte) 0xF4, (byte) 0x91, (byte) 0xEF, (byte) 0x98, (byte) 0x7A, (byte) 0x33, (byte) 0x54, (byte) 0x0B, (byte) 0x43, (byte) 0xED, (byte) 0xCF, (byte) 0xAC, (byte) 0x62,
+            (byte) 0xE4, (byte) 0xB3, (byte) 0x1C, (byte) 0xA9, (byte) 0xC9, (byte) 0x08, (byte) 0xE8, (byte) 0x95, (byte) 0x80, (byte) 0xDF, (byte) 0x94, (byte) 0xFA, (byte) 0x75, (byte) 0x8F, (byte) 0x3F, (byte) 0xA6,
+            (byte) 0x47, (byte) 0x07, (byte) 0xA7, (byte) 0xFC, (byte) 0xF3, (byte) 0x73, (byte) 0x17, (byte) 0xBA, (byte) 0x83, (byte) 0x59, (byte) 0x3C, (byte) 0x19, (byte) 0xE6, (byte) 0x85, (byte) 0x4F, (byte) 0xA8,
+            (byte) 0x68, (byte) 0x6B, (byte) 0x81, (byte) 0xB2, (byte) 0x71, (byte) 0x64, (byte) 0xDA, (byte) 0x8B, (byte) 0xF8, (byte) 0xEB, (byte) 0x0F, (byte) 0x4B, (byte) 0x70, (byte) 0x56, (byte) 0x9D, (byte) 0x35,
+            (byte) 0x1E, (byte) 0x24, (byte) 0x0E, (byte) 0x5E, (byte) 0x63, (byte) 0x58, (byte) 0xD1, (byte) 0xA2, (byte) 0x25, (byte) 0x22, (byte) 0x7C, (byte) 0x3B, (byte) 0x01, (byte) 0x21, (byte) 0x78, (byte) 0x87,
+            (byte) 0xD4, (byte) 0x00, (byte) 0x46, (byte) 0x57, (byte) 0x9F, (byte) 0xD3, (byte) 0x27, (byte) 0x52, (byte) 0x4C, (byte) 0x36, (byte) 0x02, (byte) 0xE7, (byte) 0xA0, (byte) 0xC4, (byte) 0xC8, (byte) 0x9E,
+            (byte) 0xEA, (byte) 0xBF, (byte) 0x8A, (byte) 0xD2, (byte) 0x40, (byte) 0xC7, (byte) 0x38, (byte) 0xB5, (byte) 0xA3, (byte) 0xF7, (byte) 0xF2, (byte) 0xCE, (byte) 0xF9, (byte) 0x61, (byte) 0x15, (byte) 0xA1,
+            (byte) 0xE0, (byte) 0xAE, (byte) 0x5D, (byte) 0xA4, (byte) 0x9B, (byte) 0x34, (byte) 0x1A, (byte) 0x55, (byte) 0xAD, (byte) 0x93, (byte) 0x32, (byte) 0x30, (byte) 0xF5, (byte) 0x8C, (byte) 0xB1, (byte) 0xE3,
+            (byte) 0x1D, (byte) 0xF6, (byte) 0xE2, (byte) 0x2E, (byte) 0x82, (byte) 0x66, (byte) 0xCA, (byte) 0x60, (byte) 0xC0, (byte) 0x29, (byte) 0x23, (byte) 0xAB, (byte) 0x0D, (byte) 0x53, (byte) 0x4E, (byte) 0x6F,
+            (byte) 0xD5, (byte) 0xDB, (byte) 0x37, (byte) 0x45, (byte) 0xDE, (byte) 0xFD, (byte) 0x8E, (byte) 0x2F, (byte) 0x03, (byte) 0xFF, (byte) 0x6A, (byte) 0x72, (byte) 0x6D, (byte) 0x6C, (byte) 0x5B, (byte) 0x51,
+            (byte) 0x8D, (byte) 0x1B, (byte) 0xAF, (byte) 0x92, (byte) 0xBB, (byte) 0xDD, (byte) 0xBC, (byte) 0x7F, (byte) 0x11, (byte) 0xD9, (byte) 0x5C, (byte) 0x41, (byte) 0x1F, (byte) 0x10, (byte) 0x5A, (byte) 0xD8,
+            (byte) 0x0A, (byte) 0xC1, (byte) 0x31, (byte) 0x88, (byte) 0xA5, (byte) 0xCD, (byte) 0x7B, (byte) 0xBD, (byte) 0x2D, (byte) 0x74, (byte) 0xD0, (byte) 0x12, (byte) 0xB8, (byte) 0xE5, (byte) 0xB4, (byte) 0xB0,
+            (byte) 0x89, (byte) 0x69, (byte) 0x97, (byte) 0x4A, (byte) 0x0C, (byte) 0x96, (byte) 0x77, (byte) 0x7E, (byte) 0x65, (byte) 0xB9, (byte) 0xF1, (byte) 0x09, (byte) 0xC5, (byte) 0x6E, (byte) 0xC6, (byte) 0x84,
+            (byte) 0x18, (byte) 0xF0, (byte) 0x7D, (byte) 0xEC, (byte) 0x3A, (byte) 0xDC, (byte) 0x4D, (byte) 0x20, (byte) 0x79, (byte) 0xEE, (byte) 0x5F, (byte) 0x3E, (byte) 0xD7, (byte) 0xCB, (byte) 0x39, (byte) 0x48
+    };
+
+    private static final int[] FK = {0xA3B1BAC6, 0x56AA3350, 0x677D9197, 0xB27022DC};
+
+    //轮常量，CK[i]的第j个字节为(4i+j)*7 mod 256
+    private static final int[] CK = new int[32];
+
+    //T表，T0[x] = L(S(x) << 24)，T1～T3依次循环右移8位
+    private static final int[] T0 = new int[256];
+    private static final int[] T1 = new int[256];
+    private static final int[] T2 = new int[256];
+    private static final int[] T3 = new int[256];
+
+    static {
+        for (int i = 0; i < 32; i++) {
+            int ck = 0;
+            for (int j = 0; j < 4; j++) {
+                ck = ck << 8 | ((4 * i + j) * 7 & 0xFF);
+            }
+            CK[i] = ck;
+        }
+        for (int i = 0; i < 256; i++) {
+            int b = (SBOX[i] & 0xFF) << 24;
+            int t = b ^ Integer.rotateLeft(b, 2) ^ Integer.rotateLeft(b, 10) ^ Integer.rotateLeft(b, 18) ^ Integer.rotateLeft(b, 24);
+            T0[i] = t;
+            T1[i] = Integer.rotateRight(t, 8);
+            T2[i] = Integer.rotateRight(t, 16);
+            T3[i] = Integer.rotateRight(t, 24);
+        }
+    }
+
+    //轮密钥，解密时为逆序
+    private final int[] rk = new int[32];
+
+    private boolean initialized;
+
+    @Override
+    public void init(boolean forEncryption, CipherParameters params) throws IllegalArgumentException {
+        if (!(params instanceof KeyParameter)) {
+            throw new IllegalArgumentException("invalid parameter passed to SM4 init - " + (params == null ? null : params.getClass().getName()));
+        }
+        byte[] key = ((KeyParameter) params).getKey();
+        if (key.length != 16) {
+            throw new IllegalArgumentException("SM4 requires a 128 bit key");
+        }
+        expandKey(key, forEncryption);
+        this.initialized = true;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "SM4";
+    }
+
+    @Override
+    public int getBlockSize() {
+        return BLOCK_SIZE;
+    }
+
+    @Override
+    public int processBlock(byte[] in, int inOff, byte[] out, int outOff) throws DataLengthException, IllegalStateException {
+        if (!initialized) {
+            throw new IllegalStateException("SM4 not initialised");
+        }
+        if (inOff + BLOCK_SIZE > in.length) {
+            throw new DataLengthException("input buffer too short");
+        }
+        if (outOff + BLOCK_SIZE > out.length) {
+            throw new DataLengthException("output buffer too short");
+        }
+        crypt(in, inOff, out, outOff);
+        return BLOCK_SIZE;
+    }
+
+    /**
+     * 批量处理多个分组，每4个分组交错计算
+     * @param in 输入
+     * @param inOff 输入的起始位置
+     * @param blocks 分组数量
+     * @param out 输出，可以与输入是同一个数组的同一位置
+     * @param outOff 输出的起始位置
+     * @return 处理的字节数
+     */
+    public int processBlocks(byte[] in, int inOff, int blocks, byte[] out, int outOff) {
+        if (!initialized) {
+            throw new IllegalStateException("SM4 not initialised");
+        }
+        int length = blocks * BLOCK_SIZE;
+        if (inOff + length > in.length) {
+            throw new DataLengthException("input buffer too short");
+        }
+        if (outOff + length > out.length) {
+            throw new DataLengthException("output buffer too short");
+        }
+        int i = 0;
+        for (; i + 4 <= blocks; i += 4) {
+            crypt4(in, inOff + i * BLOCK_SIZE, out, outOff + i * BLOCK_SIZE);
+        }
+        for (; i < blocks; i++) {
+            crypt(in, inOff + i * BLOCK_SIZE, out, outOff + i * BLOCK_SIZE);
+        }
+        return length;
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    private void expandKey(byte[] key, boolean forEncryption) {
+        int k0 = getInt(key, 0) ^ FK[0];
+        int k1 = getInt(key, 4) ^ FK[1];
+        int k2 = getInt(key, 8) ^ FK[2];
+        int k3 = getInt(key, 12) ^ FK[3];
+        int[] keys = new int[32];
+        for (int i = 0; i < 32; i += 4) {
+            k0 ^= tPrime(k1 ^ k2 ^ k3 ^ CK[i]);
+            k1 ^= tPrime(k2 ^ k3 ^ k0 ^ CK[i + 1]);
+            k2 ^= tPrime(k3 ^ k0 ^ k1 ^ CK[i + 2]);
+            k3 ^= tPrime(k0 ^ k1 ^ k2 ^ CK[i + 3]);
+            keys[i] = k0;
+            keys[i + 1] = k1;
+            keys[i + 2] = k2;
+            keys[i + 3] = k3;
+        }
+        for (int i = 0; i < 32; i++) {
+            rk[i] = forEncryption ? keys[i] : keys[31 - i];
+        }
+    }
+
+    private void crypt(byte[] in, int inOff, byte[] out, int outOff) {
+        int[] rk = this.rk;
+        int x0 = getInt(in, inOff);
+        int x1 = getInt(in, inOff + 4);
+        int x2 = getInt(in, inOff + 8);
+        int x3 = getInt(in, inOff + 12);
+        for (int i = 0; i < 32; i += 4) {
+            x0 ^= t(x1 ^ x2 ^ x3 ^ rk[i]);
+            x1 ^= t(x2 ^ x3 ^ x0 ^ rk[i + 1]);
+            x2 ^= t(x3 ^ x0 ^ x1 ^ rk[i + 2]);
+            x3 ^= t(x0 ^ x1 ^ x2 ^ rk[i + 3]);
+        }
+        //反序变换
+        putInt(x3, out, outOff);
+        putInt(x2, out, outOff + 4);
+        putInt(x1, out, outOff + 8);
+        putInt(x0, out, outOff + 12);
+    }
+
+    private void crypt4(byte[] in, int inOff, byte[] out, int outOff) {
+        int[] rk = this.rk;
+        int a0 = getInt(in, inOff), a1 = getInt(in, inOff + 4), a2 = getInt(in, inOff + 8), a3 = getInt(in, inOff + 12);
+        int b0 = getInt(in, inOff + 16), b1 = getInt(in, inOff + 20), b2 = getInt(in, inOff + 24), b3 = getInt(in, inOff + 28);
+        int c0 = getInt(in, inOff + 32), c1 = getInt(in, inOff + 36), c2 = getInt(in, inOff + 40), c3 = getInt(in, inOff + 44);
+        int d0 = getInt(in, inOff + 48), d1 = getInt(in, inOff + 52), d2 = getInt(in, inOff + 56), d3 = getInt(in, inOff + 60);
+        for (int i = 0; i < 32; i++) {
+            int k = rk[i];
+            int a = t(a1 ^ a2 ^ a3 ^ k) ^ a0;
+            int b = t(b1 ^ b2 ^ b3 ^ k) ^ b0;
+            int c = t(c1 ^ c2 ^ c3 ^ k) ^ c0;
+            int d = t(d1 ^ d2 ^ d3 ^ k) ^ d0;
+            a0 = a1;
+            a1 = a2;
+            a2 = a3;
+            a3 = a;
+            b0 = b1;
+            b1 = b2;
+            b2 = b3;
+            b3 = b;
+            c0 = c1;
+            c1 = c2;
+            c2 = c3;
+            c3 = c;
+            d0 = d1;
+            d1 = d2;
+            d2 = d3;
+            d3 = d;
+        }
+        putInt(a3, out, outOff);
+        putInt(a2, out, outOff + 4);
+        putInt(a1, out, outOff + 8);
+        putInt(a0, out, outOff + 12);
+        putInt(b3, out, outOff + 16);
+        putInt(b2, out, outOff + 20);
+        putInt(b1, out, outOff + 24);
+        putInt(b0, out, outOff + 28);
+        putInt(c3, out, outOff + 32);
+        putInt(c2, out, outOff + 36);
+        putInt(c1, out, outOff + 40);
+        putInt(c0, out, outOff + 44);
+        putInt(d3, out, outOff + 48);
+        putInt(d2, out, outOff + 52);
+        putInt(d1, out, outOff + 56);
+        putInt(d0, out, outOff + 60);
+    }
+
+    /**
+     * 轮函数中的合成置换T（非线性变换τ和线性变换L），查表实现
+     */
+    private static int t(int x) {
+        return T0[x >>> 24] ^ T1[(x >>> 16) & 0xFF] ^ T2[(x >>> 8) & 0xFF] ^ T3[x & 0xFF];
+    }
+
+    /**
+     * 密钥扩展中的合成置换T'，线性变换为L'(B) = B ^ (B <<< 13) ^ (B <<< 23)
+     */
+    private static int tPrime(int x) {
+        int b = (SBOX[x >>> 24] & 0xFF) << 24 | (SBOX[(x >>> 16) & 0xFF] & 0xFF) << 16 | (SBOX[(x >>> 8) & 0xFF] & 0xFF) << 8 | (SBOX[x & 0xFF] & 0xFF);
+        return b ^ Integer.rotateLeft(b, 13) ^ Integer.rotateLeft(b, 23);
+    }
+
+    private static int getInt(byte[] bytes, int offset) {
+        return bytes[offset] << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static void putInt(int value, byte[] bytes, int offset) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+}
@@ -2,6 +2,7 @@ package com.dxy.library.util.cipher.hash;
 
 import com.dxy.library.util.cipher.constant.HmacType;
 import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.provider.ProviderStrategy;
 import org.apache.commons.codec.binary.Hex;
 
 import javax.crypto.KeyGenerator;
@@ -123,7 +124,7 @@ public class HmacUtils {
      */
     public static byte[] hmac(byte[] data, byte[] key, HmacType hmacType) {
         try {
-            Mac mac = Mac.getInstance(hmacType.getType());
+            Mac mac = ProviderStrategy.getMac(hmacType.getType());
             SecretKeySpec secretKeySpec = new SecretKeySpec(key, hmacType.getType());
             mac.init(secretKeySpec);
             return mac.doFinal(data);
@@ -2,6 +2,7 @@ package com.dxy.library.util.cipher.hash;
 
 import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.provider.ProviderStrategy;
 import org.apache.commons.codec.binary.Hex;
 
 import java.security.MessageDigest;
@@ -32,7 +33,7 @@ public class MD5Utils {
      */
     public static byte[] md5(byte[] data) {
         try {
-            MessageDigest messageDigest = MessageDigest.getInstance(Algorithm.MD5.getAlgorithm());
+            MessageDigest messageDigest = ProviderStrategy.getMessageDigest(Algorithm.MD5.getAlgorithm());
             return messageDigest.digest(data);
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalArgumentException("MD5 error", e);
@@ -95,7 +96,7 @@ public class MD5Utils {
     private static byte[] md5WithSalt(byte[] data, byte[] salt, int hashCount) {
         MessageDigest messageDigest;
         try {
-            messageDigest = MessageDigest.getInstance(Algorithm.MD5.getAlgorithm());
+            messageDigest = ProviderStrategy.getMessageDigest(Algorithm.MD5.getAlgorithm());
         } catch (NoSuchAlgorithmException e) {
             throw new CipherException("MD5 error", e);
         }
@@ -1,6 +1,7 @@
 package com.dxy.library.util.cipher.hash;
 
 import com.dxy.library.util.cipher.constant.Algorithm;
+import com.dxy.library.util.cipher.provider.ProviderStrategy;
 import org.apache.commons.codec.binary.Hex;
 
 import java.security.MessageDigest;
@@ -173,7 +174,7 @@ public class SHAUtils {
      */
     public static byte[] sha(byte[] data, Algorithm algorithm) {
         try {
-            MessageDigest digest = MessageDigest.getInstance(algorithm.getAlgorithm());
+            MessageDigest digest = ProviderStrategy.getMessageDigest(algorithm.getAlgorithm());
             return digest.digest(data);
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalArgumentException("SHA error", e);
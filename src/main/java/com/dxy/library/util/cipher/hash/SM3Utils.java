@@ -2,6 +2,7 @@ package com.dxy.library.util.cipher.hash;
 
 import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.provider.ProviderStrategy;
 import org.apache.commons.codec.binary.Hex;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
@@ -28,7 +29,7 @@ public class SM3Utils {
      */
     public static String sm3(String data) {
         try {
-            MessageDigest md = MessageDigest.getInstance(Algorithm.SM3.getAlgorithm());
+            MessageDigest md = ProviderStrategy.getMessageDigest(Algorithm.SM3.getAlgorithm());
             byte[] bytes = md.digest(data.getBytes());
             return Hex.encodeHexString(bytes);
         } catch (Exception e) {
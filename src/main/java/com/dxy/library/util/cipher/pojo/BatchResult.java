@@ -0,0 +1,46 @@
+package com.dxy.library.util.cipher.pojo;
+
+import com.dxy.library.util.cipher.exception.CipherException;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 批量加解密结果
+ * @author duanxinyuan
+ * 2026/10/18 17:45
+ */
+@Data
+public class BatchResult {
+
+    //加解密结果，与输入一一对应，处理失败的位置为null
+    private List<byte[]> results;
+
+    //处理失败的元素，key为在输入中的下标
+    private Map<Integer, CipherException> errors;
+
+    public BatchResult(int size) {
+        this.results = new ArrayList<>(size);
+        this.errors = new TreeMap<>();
+    }
+
+    /**
+     * 是否全部处理成功
+     */
+    public boolean isSuccess() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * 获取指定下标的加解密结果
+     * @param index 在输入中的下标
+     * @return 加解密结果，处理失败时返回null
+     */
+    public byte[] get(int index) {
+        return results.get(index);
+    }
+
+}
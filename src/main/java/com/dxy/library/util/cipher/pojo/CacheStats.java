@@ -0,0 +1,41 @@
+package com.dxy.library.util.cipher.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 缓存统计
+ * @author duanxinyuan
+ * 2026/10/18 19:40
+ */
+@Data
+@AllArgsConstructor
+public class CacheStats {
+
+    //命中次数
+    private long hits;
+
+    //未命中次数
+    private long misses;
+
+    //因超出容量被淘汰的条目数
+    private long evictions;
+
+    //因过期被移除的条目数
+    private long expirations;
+
+    //当前条目数
+    private int size;
+
+    //容量
+    private int capacity;
+
+    /**
+     * 命中率，没有访问时为0
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.dxy.library.util.cipher.pool;
+
+import com.dxy.library.util.cipher.constant.ServiceType;
+import com.dxy.library.util.cipher.engine.BlowfishCipher;
+import com.dxy.library.util.cipher.engine.SM4Cipher;
+import com.dxy.library.util.cipher.provider.ProviderStrategy;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cipher缓存池
+ * Cipher.getInstance每次都会遍历Provider列表并创建新的CipherSpi，小数据量加解密时这部分开销占比很大
+ * Cipher非线程安全，这里按线程缓存，以加密算法全称（和Provider）为key，热路径上只需要init和doFinal
+ * 注意：获取到的Cipher只能在当前调用内使用（每次使用前必须重新init），不能跨调用持有，长期持有请使用{@link #newCipher(String, String)}
+ * 未指定Provider时JCE在第一次init时根据密钥选择Provider，之后一直使用该Provider，缓存的Cipher会绑定到当前线程第一次使用的密钥所选择的Provider，
+ * 因此需要初始化时请使用{@link #getCipher(String, int, Key, AlgorithmParameterSpec)}，已绑定的Provider不接受密钥时（如SunJCE不支持16位的DESede密钥）重新创建
+ * 未指定Provider时按{@link ProviderStrategy}的映射表选择Provider，映射表中也没有时SM4和Blowfish的ECB、CBC、CTR方式使用内置的{@link SM4Cipher}和{@link BlowfishCipher}
+ * 可通过系统属性cipher.pool.enabled=false或者{@link #setEnabled(boolean)}关闭
+ * @author duanxinyuan
+ * 2026/10/18 10:12
+ */
+public class CipherPool {
+
+    //是否启用缓存
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("cipher.pool.enabled", "true"));
+
+    //线程缓存，key为加密算法全称（和Provider）
+    private static final ThreadLocal<Map<String, Cipher>> CIPHERS = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * 获取当前线程缓存的Cipher，Provider由{@link ProviderStrategy}决定
+     * @param transformation 加密算法全称，如AES/CBC/PKCS7Padding
+     */
+    public static Cipher getCipher(String transformation) throws GeneralSecurityException {
+        return getCipher(transformation, null);
+    }
+
+    /**
+     * 获取当前线程缓存的Cipher
+     * @param transformation 加密算法全称，如AES/CBC/PKCS7Padding
+     * @param provider Provider名称，为空时由{@link ProviderStrategy}决定
+     */
+    public static Cipher getCipher(String transformation, String provider) throws GeneralSecurityException {
+        if (StringUtils.isEmpty(provider)) {
+            provider = ProviderStrategy.getProvider(ServiceType.Cipher, transformation);
+        }
+        if (!enabled) {
+            return newCipher(transformation, provider);
+        }
+        Map<String, Cipher> ciphers = CIPHERS.get();
+        String key = getKey(transformation, provider);
+        Cipher cipher = ciphers.get(key);
+        if (cipher == null) {
+            cipher = newCipher(transformation, provider);
+            ciphers.put(key, cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * 获取当前线程缓存的Cipher并初始化，Provider由{@link ProviderStrategy}决定
+     * 缓存的Cipher绑定的Provider不接受该密钥时，重新创建Cipher（重新选择Provider）并替换缓存
+     * @param transformation 加密算法全称，如AES/CBC/PKCS7Padding
+     * @param opmode 加密或者解密
+     * @param key 密钥
+     * @param params 参数（如偏移量），不需要时传null
+     */
+    public static Cipher getCipher(String transformation, int opmode, Key key, AlgorithmParameterSpec params) throws GeneralSecurityException {
+        String provider = ProviderStrategy.getProvider(ServiceType.Cipher, transformation);
+        Cipher cipher = getCipher(transformation, provider);
+        try {
+            return init(cipher, opmode, key, params);
+        } catch (InvalidKeyException e) {
+            if (!enabled) {
+                throw e;
+            }
+            cipher = init(newCipher(transformation, provider), opmode, key, params);
+            CIPHERS.get().put(getKey(transformation, provider), cipher);
+            return cipher;
+        }
+    }
+
+    /**
+     * 创建新的Cipher（不缓存）
+     * @param transformation 加密算法全称，如AES/CBC/PKCS7Padding
+     * @param provider Provider名称，为空时由{@link ProviderStrategy}决定
+     */
+    public static Cipher newCipher(String transformation, String provider) throws GeneralSecurityException {
+        if (StringUtils.isEmpty(provider)) {
+            provider = ProviderStrategy.getProvider(ServiceType.Cipher, transformation);
+        }
+        if (StringUtils.isEmpty(provider)) {
+            //没有指定Provider时优先使用内置的实现
+            Cipher cipher = SM4Cipher.newCipher(transformation);
+            if (cipher == null) {
+                cipher = BlowfishCipher.newCipher(transformation);
+            }
+            return cipher != null ? cipher : Cipher.getInstance(transformation);
+        }
+        return Cipher.getInstance(transformation, provider);
+    }
+
+    private static Cipher init(Cipher cipher, int opmode, Key key, AlgorithmParameterSpec params) throws GeneralSecurityException {
+        if (params != null) {
+            cipher.init(opmode, key, params);
+        } else {
+            cipher.init(opmode, key);
+        }
+        return cipher;
+    }
+
+    private static String getKey(String transformation, String provider) {
+        return StringUtils.isEmpty(provider) ? transformation : transformation + "@" + provider;
+    }
+
+    /**
+     * 清空当前线程缓存的Cipher
+     */
+    public static void clear() {
+        CIPHERS.remove();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        CipherPool.enabled = enabled;
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.dxy.library.util.cipher.pool;
+
+import com.dxy.library.util.cipher.constant.ServiceType;
+import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.pojo.CacheStats;
+import com.dxy.library.util.cipher.provider.ProviderStrategy;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Signature缓存池
+ * Signature.getInstance需要遍历Provider列表，initSign/initVerify需要校验密钥并计算预处理数据（如SM2的Z值），验签频繁时这部分开销占比很大
+ * Signature非线程安全，这里按线程缓存已初始化的Signature，以签名类型、Provider和密钥为key（私钥用于签名，公钥用于验签），每个线程超出容量时淘汰最久未使用的
+ * sign/verify之后Signature会回到初始化之后的状态，热路径上只需要update和sign/verify
+ * 注意：获取到的Signature只能在当前调用内使用，且必须以sign/verify结束，处理过程中抛出异常时需调用{@link #remove(String, Key)}丢弃
+ * 可通过系统属性cipher.signature.pool.enabled=false或者{@link #setEnabled(boolean)}关闭，容量可通过系统属性cipher.signature.pool.capacity设置
+ * @author duanxinyuan
+ * 2026/10/18 21:10
+ */
+public class SignaturePool {
+
+    //是否启用缓存
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("cipher.signature.pool.enabled", "true"));
+
+    //每个线程缓存的最大数量
+    private static volatile int capacity = Integer.getInteger("cipher.signature.pool.capacity", 16);
+
+    private static final LongAdder HITS = new LongAdder();
+
+    private static final LongAdder MISSES = new LongAdder();
+
+    private static final LongAdder EVICTIONS = new LongAdder();
+
+    //线程缓存，按访问顺序排列
+    private static final ThreadLocal<LinkedHashMap<PoolKey, Signature>> SIGNATURES = ThreadLocal.withInitial(() -> new LinkedHashMap<>(16, 0.75f, true));
+
+    /**
+     * 获取当前线程缓存的已初始化签名的Signature
+     * @param algorithm 签名类型，如SHA256withRSA
+     * @param privateKey 私钥
+     */
+    public static Signature getSignature(String algorithm, PrivateKey privateKey) throws GeneralSecurityException {
+        return getSignature(algorithm, (Key) privateKey);
+    }
+
+    /**
+     * 获取当前线程缓存的已初始化验签的Signature
+     * @param algorithm 签名类型，如SHA256withRSA
+     * @param publicKey 公钥
+     */
+    public static Signature getSignature(String algorithm, PublicKey publicKey) throws GeneralSecurityException {
+        return getSignature(algorithm, (Key) publicKey);
+    }
+
+    /**
+     * 丢弃当前线程缓存的Signature，使用过程中抛出异常（Signature状态不确定）时调用
+     * @param algorithm 签名类型
+     * @param key 私钥或者公钥
+     */
+    public static void remove(String algorithm, Key key) {
+        SIGNATURES.get().remove(new PoolKey(algorithm, ProviderStrategy.getProvider(ServiceType.Signature, algorithm), key));
+    }
+
+    /**
+     * 清空当前线程缓存的Signature
+     */
+    public static void clear() {
+        SIGNATURES.remove();
+    }
+
+    /**
+     * 获取统计信息，命中、未命中和淘汰次数为所有线程的总和，条目数为当前线程的
+     */
+    public static CacheStats getStats() {
+        return new CacheStats(HITS.sum(), MISSES.sum(), EVICTIONS.sum(), 0, SIGNATURES.get().size(), capacity);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        SignaturePool.enabled = enabled;
+    }
+
+    public static int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 调整每个线程缓存的最大数量，各线程在下次写入缓存时淘汰超出的部分
+     * @param capacity 容量，为0时不缓存
+     */
+    public static void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new CipherException("signature pool capacity must not be negative");
+        }
+        SignaturePool.capacity = capacity;
+    }
+
+    private static Signature getSignature(String algorithm, Key key) throws GeneralSecurityException {
+        if (!enabled || capacity == 0) {
+            return newSignature(algorithm, key);
+        }
+        PoolKey poolKey = new PoolKey(algorithm, ProviderStrategy.getProvider(ServiceType.Signature, algorithm), key);
+        LinkedHashMap<PoolKey, Signature> signatures = SIGNATURES.get();
+        Signature signature = signatures.get(poolKey);
+        if (signature != null) {
+            HITS.increment();
+            return signature;
+        }
+        MISSES.increment();
+        signature = newSignature(algorithm, key);
+        signatures.put(poolKey, signature);
+        Iterator<Map.Entry<PoolKey, Signature>> iterator = signatures.entrySet().iterator();
+        while (signatures.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            EVICTIONS.increment();
+        }
+        return signature;
+    }
+
+    private static Signature newSignature(String algorithm, Key key) throws GeneralSecurityException {
+        Signature signature = ProviderStrategy.getSignature(algorithm);
+        if (key instanceof PrivateKey) {
+            signature.initSign((PrivateKey) key);
+        } else {
+            signature.initVerify((PublicKey) key);
+        }
+        return signature;
+    }
+
+    private static class PoolKey {
+
+        private final String algorithm;
+
+        //Provider名称，使用默认顺序时为null
+        private final String provider;
+
+        private final Key key;
+
+        PoolKey(String algorithm, String provider, Key key) {
+            this.algorithm = algorithm;
+            this.provider = provider;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey poolKey = (PoolKey) o;
+            return algorithm.equals(poolKey.algorithm) && Objects.equals(provider, poolKey.provider) && (key == poolKey.key || key.equals(poolKey.key));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(algorithm, provider, key);
+        }
+
+    }
+
+}
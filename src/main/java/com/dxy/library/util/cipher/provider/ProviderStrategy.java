@@ -0,0 +1,566 @@
+package com.dxy.library.util.cipher.provider;
+
+import com.dxy.library.util.cipher.constant.Algorithm;
+import com.dxy.library.util.cipher.constant.HmacType;
+import com.dxy.library.util.cipher.constant.Mode;
+import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.constant.RSASignType;
+import com.dxy.library.util.cipher.constant.SM2SignType;
+import com.dxy.library.util.cipher.constant.ServiceType;
+import com.dxy.library.util.cipher.exception.CipherException;
+import org.apache.commons.lang3.StringUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provider选择策略
+ * 不指定Provider时，JCE按Provider注册顺序选择第一个支持该算法的实现，同一个算法可能由SunJCE（有硬件指令优化）或者BouncyCastle（纯Java实现）提供，
+ * 这里维护一张“服务类型+算法名称”到Provider的映射表，CipherPool、RSAUtils、SM2Utils、HmacUtils和散列工具类获取实例时都会先查询该表，表中没有的算法使用默认顺序
+ * 1、手动配置：{@link #setProvider(ServiceType, String, String)}，或者系统属性cipher.provider.[服务类型].[算法名称]=[Provider名称]，如cipher.provider.Cipher.AES/CBC/PKCS5Padding=SunJCE
+ * 2、自动校准：{@link #calibrate()}，对支持该算法的每个Provider跑一次短时间的基准测试，选择最快的实现，系统属性cipher.provider.calibrate=true时在类加载时执行
+ * 校准时只会选择与默认Provider结果一致（或者可以互相解密、互相验签）且支持全部密钥长度的实现，不会改变加解密结果
+ * 当前映射表可以通过{@link #getProviders()}查看
+ * @author duanxinyuan
+ * 2026/10/18 16:30
+ */
+public class ProviderStrategy {
+
+    //系统属性前缀
+    private static final String PROPERTY_PREFIX = "cipher.provider.";
+
+    //校准时每个实现的预热时长（纳秒），需要足够JIT编译热点代码（SunJCE的AES硬件指令优化只在编译之后生效）
+    private static final long WARMUP_NANOS = 10_000_000L;
+
+    //校准时每轮的计时时长（纳秒）
+    private static final long MEASURE_NANOS = 2_000_000L;
+
+    //校准时的计时轮数，各实现交替计时，取每个实现的最小值，减少抖动的影响
+    private static final int MEASURE_ROUNDS = 3;
+
+    //校准使用的数据长度（字节）
+    private static final int DATA_LENGTH = 1024;
+
+    //校准使用的RSA密钥长度，只用于比较相对速度
+    private static final int RSA_KEY_SIZE = 1024;
+
+    //对称加密算法工具类支持的密钥长度，校准时要求实现支持全部长度
+    private static final Map<String, int[]> KEY_LENGTHS = new HashMap<>();
+
+    //映射表，服务类型 → 算法名称 → Provider名称
+    private static final Map<ServiceType, Map<String, String>> PROVIDERS = new EnumMap<>(ServiceType.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static volatile KeyPair rsaKeyPair;
+
+    private static volatile KeyPair sm2KeyPair;
+
+    static {
+        //导入Provider，BouncyCastle是一个开源的加解密解决方案，主页在http://www.bouncycastle.org/
+        Security.addProvider(new BouncyCastleProvider());
+
+        KEY_LENGTHS.put(Algorithm.AES.getAlgorithm(), new int[]{16, 24, 32});
+        KEY_LENGTHS.put(Algorithm.SM4.getAlgorithm(), new int[]{16});
+        KEY_LENGTHS.put(Algorithm.DES.getAlgorithm(), new int[]{8});
+        KEY_LENGTHS.put(Algorithm.DESede.getAlgorithm(), new int[]{16, 24});
+        KEY_LENGTHS.put(Algorithm.Blowfish.getAlgorithm(), new int[]{4, 16, 56});
+
+        for (ServiceType serviceType : ServiceType.values()) {
+            PROVIDERS.put(serviceType, new ConcurrentHashMap<>());
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (!name.startsWith(PROPERTY_PREFIX)) {
+                continue;
+            }
+            String[] parts = StringUtils.split(name.substring(PROPERTY_PREFIX.length()), ".", 2);
+            for (ServiceType serviceType : ServiceType.values()) {
+                if (parts.length == 2 && serviceType.getType().equals(parts[0])) {
+                    setProvider(serviceType, parts[1], System.getProperty(name));
+                }
+            }
+        }
+        if (Boolean.getBoolean("cipher.provider.calibrate")) {
+            calibrate();
+        }
+    }
+
+    /**
+     * 获取算法对应的Provider
+     * @param serviceType 服务类型
+     * @param algorithm 算法名称，Cipher为加密算法全称，如AES/CBC/PKCS5Padding
+     * @return Provider名称，未配置时返回null（使用默认顺序）
+     */
+    public static String getProvider(ServiceType serviceType, String algorithm) {
+        Map<String, String> providers = PROVIDERS.get(serviceType);
+        return providers.isEmpty() ? null : providers.get(algorithm);
+    }
+
+    /**
+     * 指定算法使用的Provider
+     * @param serviceType 服务类型
+     * @param algorithm 算法名称，Cipher为加密算法全称，如AES/CBC/PKCS5Padding
+     * @param provider Provider名称，如SunJCE、BC
+     */
+    public static void setProvider(ServiceType serviceType, String algorithm, String provider) {
+        if (Security.getProvider(provider) == null) {
+            throw new CipherException("provider {} not found", provider);
+        }
+        try {
+            newInstance(serviceType, algorithm, provider);
+        } catch (Exception e) {
+            throw new CipherException("provider " + provider + " does not support " + serviceType.getType() + "." + algorithm, e);
+        }
+        PROVIDERS.get(serviceType).put(algorithm, provider);
+    }
+
+    /**
+     * 删除算法的Provider配置，恢复默认顺序
+     * @param serviceType 服务类型
+     * @param algorithm 算法名称
+     */
+    public static void removeProvider(ServiceType serviceType, String algorithm) {
+        PROVIDERS.get(serviceType).remove(algorithm);
+    }
+
+    /**
+     * 清空映射表
+     */
+    public static void clear() {
+        PROVIDERS.values().forEach(Map::clear);
+    }
+
+    /**
+     * 获取当前映射表
+     * @return key为“服务类型.算法名称”，如Cipher.AES/CBC/PKCS5Padding，value为Provider名称
+     */
+    public static Map<String, String> getProviders() {
+        Map<String, String> providers = new TreeMap<>();
+        PROVIDERS.forEach((serviceType, map) -> map.forEach((algorithm, provider) -> providers.put(serviceType.getType() + "." + algorithm, provider)));
+        return Collections.unmodifiableMap(providers);
+    }
+
+    /**
+     * 获取Signature，按映射表选择Provider
+     * @param algorithm 签名类型，如SHA256withRSA
+     */
+    public static Signature getSignature(String algorithm) throws NoSuchAlgorithmException {
+        String provider = getProvider(ServiceType.Signature, algorithm);
+        if (provider == null) {
+            return Signature.getInstance(algorithm);
+        }
+        try {
+            return Signature.getInstance(algorithm, provider);
+        } catch (NoSuchProviderException e) {
+            throw new NoSuchAlgorithmException(e);
+        }
+    }
+
+    /**
+     * 获取Mac，按映射表选择Provider
+     * @param algorithm Hmac类型，如HmacSHA256
+     */
+    public static Mac getMac(String algorithm) throws NoSuchAlgorithmException {
+        String provider = getProvider(ServiceType.Mac, algorithm);
+        if (provider == null) {
+            return Mac.getInstance(algorithm);
+        }
+        try {
+            return Mac.getInstance(algorithm, provider);
+        } catch (NoSuchProviderException e) {
+            throw new NoSuchAlgorithmException(e);
+        }
+    }
+
+    /**
+     * 获取MessageDigest，按映射表选择Provider
+     * @param algorithm 散列算法，如SHA-256
+     */
+    public static MessageDigest getMessageDigest(String algorithm) throws NoSuchAlgorithmException {
+        String provider = getProvider(ServiceType.MessageDigest, algorithm);
+        if (provider == null) {
+            return MessageDigest.getInstance(algorithm);
+        }
+        try {
+            return MessageDigest.getInstance(algorithm, provider);
+        } catch (NoSuchProviderException e) {
+            throw new NoSuchAlgorithmException(e);
+        }
+    }
+
+    /**
+     * 校准本工具包用到的全部算法：对称加密算法的常用模式和填充组合、RSA加解密、SM2加解密、RSA和SM2签名、Hmac和散列算法
+     * @return 校准之后的映射表
+     */
+    public static Map<String, String> calibrate() {
+        List<String> transformations = new ArrayList<>();
+        Algorithm[] symmetries = {Algorithm.AES, Algorithm.SM4, Algorithm.DES, Algorithm.DESede, Algorithm.Blowfish};
+        Mode[] modes = {Mode.ECB, Mode.CBC, Mode.CTR, Mode.CFB, Mode.OFB};
+        Padding[] paddings = {Padding.NoPadding, Padding.PKCS5Padding, Padding.PKCS7Padding};
+        for (Algorithm algorithm : symmetries) {
+            for (Mode mode : modes) {
+                for (Padding padding : paddings) {
+                    transformations.add(Algorithm.getAlgorithm(algorithm, mode, padding));
+                }
+            }
+        }
+        for (Algorithm algorithm : new Algorithm[]{Algorithm.AES, Algorithm.SM4}) {
+            transformations.add(Algorithm.getAlgorithm(algorithm, Mode.GCM, Padding.NoPadding));
+            transformations.add(Algorithm.getAlgorithm(algorithm, Mode.CCM, Padding.NoPadding));
+        }
+        transformations.add(Algorithm.getAlgorithm(Algorithm.RSA, Mode.ECB, Padding.PKCS1Padding));
+        transformations.add(Algorithm.getAlgorithm(Algorithm.RSA, Mode.NONE, Padding.PKCS1Padding));
+        transformations.add(Algorithm.SM2.getAlgorithm());
+        for (String transformation : transformations) {
+            calibrate(ServiceType.Cipher, transformation);
+        }
+        for (RSASignType signType : RSASignType.values()) {
+            calibrate(ServiceType.Signature, signType.getType());
+        }
+        for (SM2SignType signType : SM2SignType.values()) {
+            calibrate(ServiceType.Signature, signType.getType());
+        }
+        for (HmacType hmacType : HmacType.values()) {
+            calibrate(ServiceType.Mac, hmacType.getType());
+        }
+        Algorithm[] digests = {Algorithm.MD5, Algorithm.SHA, Algorithm.SHA1, Algorithm.SHA224, Algorithm.SHA256, Algorithm.SHA384, Algorithm.SHA512,
+                Algorithm.SHA3_224, Algorithm.SHA3_256, Algorithm.SHA3_384, Algorithm.SHA3_512, Algorithm.SM3};
+        for (Algorithm digest : digests) {
+            calibrate(ServiceType.MessageDigest, digest.getAlgorithm());
+        }
+        return getProviders();
+    }
+
+    /**
+     * 校准单个算法：找出所有支持该算法的Provider，排除结果与默认Provider不一致的实现，跑一次短时间的基准测试，选择最快的实现写入映射表
+     * @param serviceType 服务类型
+     * @param algorithm 算法名称，Cipher为加密算法全称，如AES/CBC/PKCS5Padding
+     * @return 选择的Provider名称，没有任何Provider支持该算法时返回null
+     */
+    public static String calibrate(ServiceType serviceType, String algorithm) {
+        List<String> candidates = new ArrayList<>();
+        for (Provider provider : Security.getProviders()) {
+            try {
+                newInstance(serviceType, algorithm, provider.getName());
+                candidates.add(provider.getName());
+            } catch (Exception ignored) {
+                //该Provider不支持此算法
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        String selected = candidates.size() == 1 ? candidates.get(0) : select(serviceType, algorithm, candidates);
+        if (selected != null) {
+            PROVIDERS.get(serviceType).put(algorithm, selected);
+        }
+        return selected;
+    }
+
+    /**
+     * 对多个候选Provider做基准测试，返回最快的实现
+     */
+    private static String select(ServiceType serviceType, String algorithm, List<String> candidates) {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        try {
+            Probe probe = newProbe(serviceType, algorithm);
+            for (String candidate : candidates) {
+                try {
+                    Operation operation = probe.create(candidate);
+                    warmup(operation);
+                    operations.put(candidate, operation);
+                } catch (Exception ignored) {
+                    //密钥长度不支持或者结果不一致
+                }
+            }
+        } catch (Exception ignored) {
+            //默认Provider无法完成基准测试
+            return null;
+        }
+        Map<String, Long> costs = new HashMap<>();
+        for (int round = 0; round < MEASURE_ROUNDS; round++) {
+            for (Iterator<Map.Entry<String, Operation>> iterator = operations.entrySet().iterator(); iterator.hasNext(); ) {
+                Map.Entry<String, Operation> entry = iterator.next();
+                try {
+                    costs.merge(entry.getKey(), measure(entry.getValue()), Math::min);
+                } catch (Exception e) {
+                    iterator.remove();
+                    costs.remove(entry.getKey());
+                }
+            }
+        }
+        return costs.entrySet().stream().min(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse(null);
+    }
+
+    private static Object newInstance(ServiceType serviceType, String algorithm, String provider) throws Exception {
+        switch (serviceType) {
+            case Cipher:
+                return Cipher.getInstance(algorithm, provider);
+            case Signature:
+                return Signature.getInstance(algorithm, provider);
+            case Mac:
+                return Mac.getInstance(algorithm, provider);
+            case MessageDigest:
+                return MessageDigest.getInstance(algorithm, provider);
+            default:
+                throw new CipherException("invalid service type");
+        }
+    }
+
+    private static void warmup(Operation operation) throws Exception {
+        long start = System.nanoTime();
+        do {
+            operation.run();
+        } while (System.nanoTime() - start < WARMUP_NANOS);
+    }
+
+    /**
+     * 计算单次操作的平均耗时（纳秒）
+     */
+    private static long measure(Operation operation) throws Exception {
+        int iterations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            operation.run();
+            iterations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        return elapsed / iterations;
+    }
+
+    private static Probe newProbe(ServiceType serviceType, String algorithm) throws Exception {
+        switch (serviceType) {
+            case Cipher:
+                if (algorithm.startsWith(Algorithm.RSA.getAlgorithm() + "/")) {
+                    return newRsaCipherProbe(algorithm);
+                }
+                return newCipherProbe(algorithm);
+            case Signature:
+                return newSignatureProbe(algorithm);
+            case Mac:
+                return newMacProbe(algorithm);
+            case MessageDigest:
+                return newDigestProbe(algorithm);
+            default:
+                throw new CipherException("invalid service type");
+        }
+    }
+
+    /**
+     * 对称加密：每种密钥长度的密文都要与默认Provider一致
+     */
+    private static Probe newCipherProbe(String transformation) throws Exception {
+        String[] parts = transformation.split("/");
+        int[] keyLengths = KEY_LENGTHS.get(parts[0]);
+        if (keyLengths == null) {
+            throw new CipherException("{} is not supported on calibration", transformation);
+        }
+        boolean isAead = Mode.GCM.getMode().equals(parts[1]) || Mode.CCM.getMode().equals(parts[1]);
+        boolean withoutIv = Mode.ECB.getMode().equals(parts[1]);
+        byte[] iv = randomBytes(isAead ? 12 : Cipher.getInstance(transformation).getBlockSize());
+        byte[] data = randomBytes(DATA_LENGTH);
+        List<SecretKeySpec> keys = new ArrayList<>();
+        List<byte[]> expected = new ArrayList<>();
+        for (int keyLength : keyLengths) {
+            SecretKeySpec key = new SecretKeySpec(randomBytes(keyLength), parts[0]);
+            keys.add(key);
+            //默认Provider在init时才确定（如SunJCE不支持16字节的DESede密钥，会顺延到BouncyCastle），每种密钥长度分别创建
+            expected.add(encrypt(Cipher.getInstance(transformation), key, iv, isAead, withoutIv, data));
+        }
+        return provider -> {
+            Cipher cipher = Cipher.getInstance(transformation, provider);
+            for (int i = 0; i < keys.size(); i++) {
+                if (!Arrays.equals(expected.get(i), encrypt(cipher, keys.get(i), iv, isAead, withoutIv, data))) {
+                    throw new CipherException("{} result of provider {} differs from the default provider", transformation, provider);
+                }
+            }
+            //认证加密模式不允许重复使用同一个nonce，每次使用不同的nonce
+            byte[] nonce = new byte[iv.length];
+            int[] count = {0};
+            return () -> {
+                if (isAead) {
+                    count[0]++;
+                    nonce[0] = (byte) (count[0] >>> 24);
+                    nonce[1] = (byte) (count[0] >>> 16);
+                    nonce[2] = (byte) (count[0] >>> 8);
+                    nonce[3] = (byte) count[0];
+                }
+                encrypt(cipher, keys.get(0), isAead ? nonce : iv, isAead, withoutIv, data);
+            };
+        };
+    }
+
+    private static byte[] encrypt(Cipher cipher, SecretKeySpec key, byte[] iv, boolean isAead, boolean withoutIv, byte[] data) throws Exception {
+        if (isAead) {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, iv));
+        } else if (withoutIv) {
+            cipher.init(Cipher.ENCRYPT_MODE, key);
+        } else {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(iv));
+        }
+        return cipher.doFinal(data);
+    }
+
+    /**
+     * RSA加解密：PKCS1填充的密文是随机的，要求公钥和私钥两个方向的密文都能被默认Provider解密
+     */
+    private static Probe newRsaCipherProbe(String transformation) throws Exception {
+        KeyPair keyPair = getRsaKeyPair();
+        Cipher defaultCipher = Cipher.getInstance(transformation);
+        byte[] data = randomBytes(RSA_KEY_SIZE / 8 - 11);
+        return provider -> {
+            Cipher cipher = Cipher.getInstance(transformation, provider);
+            cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPublic());
+            byte[] encrypted = cipher.doFinal(data);
+            defaultCipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+            boolean isCompatible = Arrays.equals(data, defaultCipher.doFinal(encrypted));
+            cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPrivate());
+            encrypted = cipher.doFinal(data);
+            defaultCipher.init(Cipher.DECRYPT_MODE, keyPair.getPublic());
+            if (!isCompatible || !Arrays.equals(data, defaultCipher.doFinal(encrypted))) {
+                throw new CipherException("{} result of provider {} differs from the default provider", transformation, provider);
+            }
+            return () -> {
+                cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPublic());
+                cipher.doFinal(data);
+            };
+        };
+    }
+
+    /**
+     * 签名：SM2签名是随机的，要求与默认Provider可以互相验签
+     */
+    private static Probe newSignatureProbe(String algorithm) throws Exception {
+        KeyPair keyPair = algorithm.toUpperCase().endsWith(Algorithm.SM2.getAlgorithm()) ? getSm2KeyPair() : getRsaKeyPair();
+        Signature defaultSignature = Signature.getInstance(algorithm);
+        //NONEwithRSA直接对数据做填充，数据长度不能超过模长减去11字节
+        byte[] data = randomBytes(32);
+        defaultSignature.initSign(keyPair.getPrivate());
+        defaultSignature.update(data);
+        byte[] defaultSign = defaultSignature.sign();
+        return provider -> {
+            Signature signature = Signature.getInstance(algorithm, provider);
+            signature.initVerify(keyPair.getPublic());
+            signature.update(data);
+            boolean isCompatible = signature.verify(defaultSign);
+            signature.initSign(keyPair.getPrivate());
+            signature.update(data);
+            byte[] sign = signature.sign();
+            defaultSignature.initVerify(keyPair.getPublic());
+            defaultSignature.update(data);
+            if (!isCompatible || !defaultSignature.verify(sign)) {
+                throw new CipherException("{} result of provider {} differs from the default provider", algorithm, provider);
+            }
+            return () -> {
+                signature.initSign(keyPair.getPrivate());
+                signature.update(data);
+                byte[] bytes = signature.sign();
+                signature.initVerify(keyPair.getPublic());
+                signature.update(data);
+                signature.verify(bytes);
+            };
+        };
+    }
+
+    private static Probe newMacProbe(String algorithm) throws Exception {
+        SecretKeySpec key = new SecretKeySpec(randomBytes(32), algorithm);
+        byte[] data = randomBytes(DATA_LENGTH);
+        Mac defaultMac = Mac.getInstance(algorithm);
+        defaultMac.init(key);
+        byte[] expected = defaultMac.doFinal(data);
+        return provider -> {
+            Mac mac = Mac.getInstance(algorithm, provider);
+            mac.init(key);
+            if (!Arrays.equals(expected, mac.doFinal(data))) {
+                throw new CipherException("{} result of provider {} differs from the default provider", algorithm, provider);
+            }
+            return () -> {
+                mac.init(key);
+                mac.doFinal(data);
+            };
+        };
+    }
+
+    private static Probe newDigestProbe(String algorithm) throws Exception {
+        byte[] data = randomBytes(DATA_LENGTH);
+        byte[] expected = MessageDigest.getInstance(algorithm).digest(data);
+        return provider -> {
+            MessageDigest messageDigest = MessageDigest.getInstance(algorithm, provider);
+            if (!Arrays.equals(expected, messageDigest.digest(data))) {
+                throw new CipherException("{} result of provider {} differs from the default provider", algorithm, provider);
+            }
+            return () -> messageDigest.digest(data);
+        };
+    }
+
+    private static KeyPair getRsaKeyPair() throws Exception {
+        if (rsaKeyPair == null) {
+            KeyPairGenerator kpg = KeyPairGenerator.getInstance(Algorithm.RSA.getAlgorithm());
+            kpg.initialize(RSA_KEY_SIZE);
+            rsaKeyPair = kpg.generateKeyPair();
+        }
+        return rsaKeyPair;
+    }
+
+    private static KeyPair getSm2KeyPair() throws Exception {
+        if (sm2KeyPair == null) {
+            KeyPairGenerator kpg = KeyPairGenerator.getInstance(Algorithm.EC.getAlgorithm(), BouncyCastleProvider.PROVIDER_NAME);
+            kpg.initialize(new ECGenParameterSpec("sm2p256v1"));
+            sm2KeyPair = kpg.generateKeyPair();
+        }
+        return sm2KeyPair;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * 基准测试，根据Provider创建被测操作，创建时校验与默认Provider的兼容性，不兼容时抛出异常
+     */
+    @FunctionalInterface
+    private interface Probe {
+
+        Operation create(String provider) throws Exception;
+
+    }
+
+    /**
+     * 被测操作
+     */
+    @FunctionalInterface
+    private interface Operation {
+
+        void run() throws Exception;
+
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.dxy.library.util.cipher.symmetry;
+
+import com.dxy.library.util.cipher.exception.CipherException;
+
+import javax.crypto.Cipher;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+
+/**
+ * 分块加解密输入流，从下层输入流按分块读取数据，经过Cipher处理后返回，用于替代javax.crypto.CipherInputStream
+ * JDK实现的内部缓冲区只有512字节，这里默认按{@link ChunkedCipherOutputStream#DEFAULT_CHUNK_SIZE}分块，输入输出缓冲区在整个流的生命周期内复用
+ * 与JDK实现不同，读到末尾时doFinal的异常（如解密时填充错误）不会被吞掉，以{@link CipherException}抛出
+ * 持有的Cipher必须为独占的实例（不能来自{@link com.dxy.library.util.cipher.pool.CipherPool#getCipher(String)}），流本身非线程安全，不支持mark/reset
+ * @author duanxinyuan
+ * 2026/10/18 20:30
+ */
+public class ChunkedCipherInputStream extends FilterInputStream {
+
+    private final Cipher cipher;
+
+    //从下层输入流读取数据的缓冲区
+    private final byte[] chunk;
+
+    //Cipher输出的缓冲区
+    private byte[] output;
+
+    //输出缓冲区中下一个可读字节的位置
+    private int position;
+
+    //输出缓冲区中有效数据的长度
+    private int limit;
+
+    //下层输入流是否已读完（已doFinal）
+    private boolean finished;
+
+    private boolean closed;
+
+    /**
+     * @param in 下层输入流
+     * @param cipher 已初始化的密码器
+     */
+    public ChunkedCipherInputStream(InputStream in, Cipher cipher) {
+        this(in, cipher, ChunkedCipherOutputStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param in 下层输入流
+     * @param cipher 已初始化的密码器
+     * @param chunkSize 分块大小（字节）
+     */
+    public ChunkedCipherInputStream(InputStream in, Cipher cipher, int chunkSize) {
+        super(in);
+        if (chunkSize <= 0) {
+            throw new CipherException("chunk size must be positive");
+        }
+        this.cipher = cipher;
+        this.chunk = new byte[chunkSize];
+        this.output = new byte[cipher.getOutputSize(chunkSize)];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return output[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            ensureOpen();
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int length = Math.min(len, limit - position);
+        System.arraycopy(output, position, b, off, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && fill()) {
+            int length = (int) Math.min(n - skipped, limit - position);
+            position += length;
+            skipped += length;
+        }
+        return skipped;
+    }
+
+    /**
+     * 不阻塞即可读取的字节数（只统计已处理完的数据）
+     */
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return limit - position;
+    }
+
+    /**
+     * 关闭下层输入流，未读到末尾时不再doFinal
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        position = 0;
+        limit = 0;
+        in.close();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * 输出缓冲区中没有可读数据时从下层输入流读取下一个分块
+     * @return 是否有可读数据，false表示已读到末尾
+     */
+    private boolean fill() throws IOException {
+        ensureOpen();
+        while (position >= limit) {
+            if (finished) {
+                return false;
+            }
+            int read = in.read(chunk, 0, chunk.length);
+            position = 0;
+            try {
+                if (read == -1) {
+                    finished = true;
+                    ensureOutputCapacity(cipher.getOutputSize(0));
+                    limit = cipher.doFinal(output, 0);
+                } else {
+                    ensureOutputCapacity(cipher.getOutputSize(read));
+                    limit = cipher.update(chunk, 0, read, output, 0);
+                }
+            } catch (GeneralSecurityException e) {
+                limit = 0;
+                throw new CipherException(cipher.getAlgorithm() + " stream " + (read == -1 ? "doFinal" : "update") + " error", e);
+            }
+        }
+        return true;
+    }
+
+    private void ensureOutputCapacity(int capacity) {
+        if (output.length < capacity) {
+            output = new byte[capacity];
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.dxy.library.util.cipher.symmetry;
+
+import com.dxy.library.util.cipher.exception.CipherException;
+
+import javax.crypto.Cipher;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+
+/**
+ * 分块加解密输出流，写入的数据经过Cipher处理后写入下层输出流，用于替代javax.crypto.CipherOutputStream
+ * 小块写入先在内部缓冲区中攒满一个分块再调用Cipher.update，大块写入按分块大小直接处理，输入输出缓冲区在整个流的生命周期内复用
+ * 与JDK实现不同，close时doFinal的异常（如数据长度不是块长的整数倍）不会被吞掉，以{@link CipherException}抛出，下层输出流仍会关闭
+ * 持有的Cipher必须为独占的实例（不能来自{@link com.dxy.library.util.cipher.pool.CipherPool#getCipher(String)}），流本身非线程安全
+ * @author duanxinyuan
+ * 2026/10/18 20:30
+ */
+public class ChunkedCipherOutputStream extends FilterOutputStream {
+
+    //默认分块大小，可通过系统属性cipher.stream.chunk.size设置
+    public static final int DEFAULT_CHUNK_SIZE = Integer.getInteger("cipher.stream.chunk.size", 64 * 1024);
+
+    private final Cipher cipher;
+
+    //待处理数据的缓冲区
+    private final byte[] chunk;
+
+    //缓冲区中待处理数据的长度
+    private int count;
+
+    //Cipher输出的缓冲区
+    private byte[] output;
+
+    private final byte[] single = new byte[1];
+
+    private boolean closed;
+
+    /**
+     * @param out 下层输出流
+     * @param cipher 已初始化的密码器
+     */
+    public ChunkedCipherOutputStream(OutputStream out, Cipher cipher) {
+        this(out, cipher, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param out 下层输出流
+     * @param cipher 已初始化的密码器
+     * @param chunkSize 分块大小（字节）
+     */
+    public ChunkedCipherOutputStream(OutputStream out, Cipher cipher, int chunkSize) {
+        super(out);
+        if (chunkSize <= 0) {
+            throw new CipherException("chunk size must be positive");
+        }
+        this.cipher = cipher;
+        this.chunk = new byte[chunkSize];
+        this.output = new byte[cipher.getOutputSize(chunkSize)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        single[0] = (byte) b;
+        write(single, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (count + len < chunk.length) {
+            System.arraycopy(b, off, chunk, count, len);
+            count += len;
+            return;
+        }
+        //先补满缓冲区中的分块，再按分块大小直接处理，剩余部分放入缓冲区
+        if (count > 0) {
+            int fill = chunk.length - count;
+            System.arraycopy(b, off, chunk, count, fill);
+            update(chunk, 0, chunk.length);
+            count = 0;
+            off += fill;
+            len -= fill;
+        }
+        while (len >= chunk.length) {
+            update(b, off, chunk.length);
+            off += chunk.length;
+            len -= chunk.length;
+        }
+        System.arraycopy(b, off, chunk, 0, len);
+        count = len;
+    }
+
+    /**
+     * 处理缓冲区中的数据并刷新下层输出流，不足一个密码块的数据仍由Cipher保留，close时才写出
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (count > 0) {
+            update(chunk, 0, count);
+            count = 0;
+        }
+        out.flush();
+    }
+
+    /**
+     * 处理剩余数据（doFinal）并关闭下层输出流，重复调用不做任何处理
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (count > 0) {
+                update(chunk, 0, count);
+                count = 0;
+            }
+            ensureOutputCapacity(cipher.getOutputSize(0));
+            int length;
+            try {
+                length = cipher.doFinal(output, 0);
+            } catch (GeneralSecurityException e) {
+                throw new CipherException(cipher.getAlgorithm() + " stream doFinal error", e);
+            }
+            out.write(output, 0, length);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void update(byte[] b, int off, int len) throws IOException {
+        ensureOutputCapacity(cipher.getOutputSize(len));
+        int length;
+        try {
+            length = cipher.update(b, off, len, output, 0);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException(cipher.getAlgorithm() + " stream update error", e);
+        }
+        if (length > 0) {
+            out.write(output, 0, length);
+        }
+    }
+
+    private void ensureOutputCapacity(int capacity) {
+        if (output.length < capacity) {
+            output = new byte[capacity];
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+}
@@ -0,0 +1,397 @@
+package com.dxy.library.util.cipher.symmetry;
+
+import com.dxy.library.util.cipher.constant.Algorithm;
+import com.dxy.library.util.cipher.constant.Mode;
+import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.pojo.BatchResult;
+import com.dxy.library.util.cipher.pool.CipherPool;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 对称加密上下文，绑定密钥、密码块工作模式和填充方式，线程安全，可复用
+ * 通过AESUtils.prepare、SM4Utils.prepare等方法创建，密钥校验只在创建时执行一次
+ * 每个线程分别持有一个加密和一个解密的Cipher，ECB模式下只初始化一次；带偏移量时偏移量不变则不重新初始化，偏移量变化时重新调用Cipher.init
+ * 上下文本身不保存扩展后的密钥，每次重新初始化是否重新扩展密钥取决于Cipher的实现：
+ * 1、SM4、Blowfish的内置实现（{@link com.dxy.library.util.cipher.engine.SM4Cipher}、{@link com.dxy.library.util.cipher.engine.BlowfishCipher}）由每个线程的Cipher持有已扩展的密钥，
+ * 使用上下文中同一个SecretKeySpec重新初始化时只更换偏移量，密钥扩展每个线程只执行一次
+ * 2、AES使用JDK实现，JDK 8在密钥内容不变时跳过密钥扩展，但每次重新初始化仍有比较密钥、复制参数等开销；DES、DESede的JDK实现每次初始化都重新扩展密钥（耗时较小）
+ * 3、内置实现被关闭或者指定其他Provider时，与第2点相同取决于该实现
+ * @author duanxinyuan
+ * 2026/10/18 11:05
+ */
+public class CipherContext {
+
+    private final Algorithm algorithm;
+
+    private final Mode mode;
+
+    private final Padding padding;
+
+    //加密算法全称
+    private final String transformation;
+
+    private final SecretKeySpec secretKeySpec;
+
+    //块长度（字节）
+    private final int blockSize;
+
+    //偏移量长度（字节）
+    private final int ivLength;
+
+    private final ThreadLocal<CipherHolder> encryptCiphers = new ThreadLocal<>();
+
+    private final ThreadLocal<CipherHolder> decryptCiphers = new ThreadLocal<>();
+
+    CipherContext(Algorithm algorithm, SecretKeySpec secretKeySpec, Mode mode, Padding padding, int blockSize, int ivLength) {
+        this.algorithm = algorithm;
+        this.mode = mode;
+        this.padding = padding;
+        this.transformation = Algorithm.getAlgorithm(algorithm, mode, padding);
+        this.secretKeySpec = secretKeySpec;
+        this.blockSize = blockSize;
+        this.ivLength = ivLength;
+    }
+
+    /**
+     * 加密（不带偏移量）
+     * @param data 明文
+     * @return 密文
+     */
+    public byte[] encrypt(byte[] data) {
+        return encrypt(data, (byte[]) null);
+    }
+
+    /**
+     * 加密
+     * @param data 明文
+     * @param iv 偏移量
+     * @return 密文
+     */
+    public byte[] encrypt(byte[] data, String iv) {
+        return encrypt(data, getIvBytes(iv));
+    }
+
+    /**
+     * 加密
+     * @param data 明文
+     * @param iv 偏移量
+     * @return 密文
+     */
+    public byte[] encrypt(byte[] data, byte[] iv) {
+        return doFinal(getCipher(encryptCiphers), Cipher.ENCRYPT_MODE, data, iv);
+    }
+
+    /**
+     * 加密（ByteBuffer，支持直接内存）
+     * @param in 明文，读取position到limit之间的数据
+     * @param out 密文，从position开始写入
+     * @param iv 偏移量，不使用偏移量时传null
+     * @return 写入out的字节数
+     */
+    public int encrypt(ByteBuffer in, ByteBuffer out, byte[] iv) {
+        check(in.remaining(), iv);
+        CipherHolder holder = getCipher(encryptCiphers);
+        try {
+            return holder.init(Cipher.ENCRYPT_MODE, secretKeySpec, iv, mode == Mode.ECB).doFinal(in, out);
+        } catch (Exception e) {
+            holder.reset();
+            throw new CipherException(algorithm.getAlgorithm() + " encrypt error", e);
+        }
+    }
+
+    /**
+     * 加密（写入调用方提供的数组，偏移量不变时不重新初始化，不分配新的结果数组，in和out可以是同一个数组）
+     * @param in 明文
+     * @param inOffset 明文的起始位置
+     * @param inLength 明文的长度
+     * @param out 密文，从outOffset开始写入，剩余空间不足时抛出异常，所需长度见{@link #getOutputSize(int)}
+     * @param outOffset 密文写入的起始位置
+     * @param iv 偏移量，不使用偏移量时传null
+     * @return 写入out的字节数
+     */
+    public int encrypt(byte[] in, int inOffset, int inLength, byte[] out, int outOffset, byte[] iv) {
+        check(inLength, iv);
+        CipherHolder holder = getCipher(encryptCiphers);
+        try {
+            return holder.init(Cipher.ENCRYPT_MODE, secretKeySpec, iv, mode == Mode.ECB).doFinal(in, inOffset, inLength, out, outOffset);
+        } catch (Exception e) {
+            holder.reset();
+            throw new CipherException(algorithm.getAlgorithm() + " encrypt error", e);
+        }
+    }
+
+    /**
+     * 解密（不带偏移量）
+     * @param data 密文
+     * @return 明文
+     */
+    public byte[] decrypt(byte[] data) {
+        return decrypt(data, (byte[]) null);
+    }
+
+    /**
+     * 解密
+     * @param data 密文
+     * @param iv 偏移量
+     * @return 明文
+     */
+    public byte[] decrypt(byte[] data, String iv) {
+        return decrypt(data, getIvBytes(iv));
+    }
+
+    /**
+     * 解密
+     * @param data 密文
+     * @param iv 偏移量
+     * @return 明文
+     */
+    public byte[] decrypt(byte[] data, byte[] iv) {
+        return doFinal(getCipher(decryptCiphers), Cipher.DECRYPT_MODE, data, iv);
+    }
+
+    /**
+     * 解密（ByteBuffer，支持直接内存）
+     * @param in 密文，读取position到limit之间的数据
+     * @param out 明文，从position开始写入
+     * @param iv 偏移量，不使用偏移量时传null
+     * @return 写入out的字节数
+     */
+    public int decrypt(ByteBuffer in, ByteBuffer out, byte[] iv) {
+        check(in.remaining(), iv);
+        CipherHolder holder = getCipher(decryptCiphers);
+        try {
+            return holder.init(Cipher.DECRYPT_MODE, secretKeySpec, iv, mode == Mode.ECB).doFinal(in, out);
+        } catch (Exception e) {
+            holder.reset();
+            throw new CipherException(algorithm.getAlgorithm() + " decrypt error", e);
+        }
+    }
+
+    /**
+     * 解密（写入调用方提供的数组，偏移量不变时不重新初始化，不分配新的结果数组，in和out可以是同一个数组）
+     * @param in 密文
+     * @param inOffset 密文的起始位置
+     * @param inLength 密文的长度
+     * @param out 明文，从outOffset开始写入，剩余空间不足时抛出异常，所需长度见{@link #getOutputSize(int)}
+     * @param outOffset 明文写入的起始位置
+     * @param iv 偏移量，不使用偏移量时传null
+     * @return 写入out的字节数
+     */
+    public int decrypt(byte[] in, int inOffset, int inLength, byte[] out, int outOffset, byte[] iv) {
+        check(inLength, iv);
+        CipherHolder holder = getCipher(decryptCiphers);
+        try {
+            return holder.init(Cipher.DECRYPT_MODE, secretKeySpec, iv, mode == Mode.ECB).doFinal(in, inOffset, inLength, out, outOffset);
+        } catch (Exception e) {
+            holder.reset();
+            throw new CipherException(algorithm.getAlgorithm() + " decrypt error", e);
+        }
+    }
+
+    /**
+     * 计算加解密结果的最大长度，用于预先分配输出数组
+     * @param inputLength 明文或者密文长度
+     * @return 输出数组所需的长度
+     */
+    public int getOutputSize(int inputLength) {
+        return getOutputSize(inputLength, padding, blockSize);
+    }
+
+    /**
+     * 计算加解密结果的最大长度：有填充时加密结果为补齐到块长的整数倍（数据长度正好是块长整数倍时增加一个块），解密结果不超过密文长度，返回两者中较大的值
+     */
+    static int getOutputSize(int inputLength, Padding padding, int blockSize) {
+        if (padding == Padding.NoPadding) {
+            return inputLength;
+        }
+        return (inputLength / blockSize + 1) * blockSize;
+    }
+
+    /**
+     * 批量加密，每个元素只重新设置偏移量（偏移量相同时不重新初始化），单个元素失败不影响其他元素
+     * @param data 明文列表
+     * @param ivs 偏移量列表，与明文一一对应，不使用偏移量时传null
+     * @return 加密结果，包含每个元素的密文和失败原因
+     */
+    public BatchResult encryptAll(List<byte[]> data, List<String> ivs) {
+        return handleAll(data, ivs, true);
+    }
+
+    /**
+     * 批量解密，每个元素只重新设置偏移量（偏移量相同时不重新初始化），单个元素失败不影响其他元素
+     * @param data 密文列表
+     * @param ivs 偏移量列表，与密文一一对应，不使用偏移量时传null
+     * @return 解密结果，包含每个元素的明文和失败原因
+     */
+    public BatchResult decryptAll(List<byte[]> data, List<String> ivs) {
+        return handleAll(data, ivs, false);
+    }
+
+    /**
+     * 批量加密，使用{@link CipherPool}中当前线程缓存的Cipher，不创建上下文自己的线程Cipher
+     * 供AESUtils.encryptAll等一次性调用使用，Cipher的创建在多次调用之间复用
+     */
+    BatchResult encryptAllPooled(List<byte[]> data, List<String> ivs) {
+        return handleAll(data, ivs, true, getPooledCipher());
+    }
+
+    /**
+     * 批量解密，使用{@link CipherPool}中当前线程缓存的Cipher，不创建上下文自己的线程Cipher
+     * 供AESUtils.decryptAll等一次性调用使用，Cipher的创建在多次调用之间复用
+     */
+    BatchResult decryptAllPooled(List<byte[]> data, List<String> ivs) {
+        return handleAll(data, ivs, false, getPooledCipher());
+    }
+
+    private BatchResult handleAll(List<byte[]> data, List<String> ivs, boolean isEncrypt) {
+        return handleAll(data, ivs, isEncrypt, getCipher(isEncrypt ? encryptCiphers : decryptCiphers));
+    }
+
+    private BatchResult handleAll(List<byte[]> data, List<String> ivs, boolean isEncrypt, CipherHolder holder) {
+        if (ivs != null && ivs.size() != data.size()) {
+            throw new CipherException("{} ivs size {} not equals data size {}", algorithm.getAlgorithm(), ivs.size(), data.size());
+        }
+        int opmode = isEncrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE;
+        BatchResult batchResult = new BatchResult(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            byte[] bytes = data.get(i);
+            byte[] result = null;
+            try {
+                if (bytes == null) {
+                    throw new CipherException("{} data is null", algorithm.getAlgorithm());
+                }
+                byte[] iv = ivs == null ? null : getIvBytes(ivs.get(i));
+                result = doFinal(holder, opmode, bytes, iv);
+            } catch (CipherException e) {
+                batchResult.getErrors().put(i, e);
+            }
+            batchResult.getResults().add(result);
+        }
+        return batchResult;
+    }
+
+    private byte[] doFinal(CipherHolder holder, int opmode, byte[] data, byte[] iv) {
+        check(data.length, iv);
+        try {
+            return holder.init(opmode, secretKeySpec, iv, mode == Mode.ECB).doFinal(data);
+        } catch (Exception e) {
+            holder.reset();
+            throw new CipherException(algorithm.getAlgorithm() + (opmode == Cipher.ENCRYPT_MODE ? " encrypt error" : " decrypt error"), e);
+        }
+    }
+
+    /**
+     * CipherPool中的Cipher可能已被其他调用以其他密钥初始化，这里每次创建未初始化的CipherHolder，第一个元素会重新初始化
+     */
+    private CipherHolder getPooledCipher() {
+        return new CipherHolder(transformation);
+    }
+
+    private CipherHolder getCipher(ThreadLocal<CipherHolder> ciphers) {
+        CipherHolder holder = ciphers.get();
+        if (holder == null) {
+            try {
+                holder = new CipherHolder(CipherPool.newCipher(transformation, null));
+            } catch (GeneralSecurityException e) {
+                throw new CipherException(algorithm.getAlgorithm() + " cipher create error", e);
+            }
+            ciphers.set(holder);
+        }
+        return holder;
+    }
+
+    private static byte[] getIvBytes(String iv) {
+        return StringUtils.isEmpty(iv) ? null : iv.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void check(int dataLength, byte[] iv) {
+        boolean isNotSupport = padding == Padding.NoPadding && (mode == Mode.ECB || mode == Mode.CBC) && dataLength % blockSize != 0;
+        if (isNotSupport) {
+            throw new CipherException("data length must be multiple of {} bytes on ECB/NoPadding or CBC/NoPadding mode", blockSize);
+        }
+        if (iv != null && iv.length > 0) {
+            if (iv.length != ivLength) {
+                throw new CipherException("{} iv not {} bytes long", algorithm.getAlgorithm(), ivLength);
+            }
+            if (mode == Mode.ECB) {
+                throw new CipherException("{} ECB mode does not use an IV", algorithm.getAlgorithm());
+            }
+        }
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Padding getPadding() {
+        return padding;
+    }
+
+    /**
+     * 线程持有的Cipher，记录最近一次初始化使用的偏移量，偏移量不变时跳过初始化（doFinal之后Cipher会回到初始化之后的状态）
+     */
+    private static class CipherHolder {
+
+        //使用CipherPool中线程缓存的Cipher时为加密算法全称，初始化时由CipherPool获取（已绑定的Provider不接受密钥时会重新创建）
+        private final String transformation;
+
+        private Cipher cipher;
+
+        private boolean initialized;
+
+        private byte[] iv;
+
+        CipherHolder(Cipher cipher) {
+            this.transformation = null;
+            this.cipher = cipher;
+        }
+
+        CipherHolder(String transformation) {
+            this.transformation = transformation;
+        }
+
+        /**
+         * @param withoutIv 模式本身不使用偏移量（ECB），未传偏移量的其他模式由Cipher随机生成偏移量，每次都需要重新初始化
+         */
+        Cipher init(int opmode, SecretKeySpec secretKeySpec, byte[] iv, boolean withoutIv) throws GeneralSecurityException {
+            if (iv != null && iv.length == 0) {
+                iv = null;
+            }
+            if (initialized && (iv != null || withoutIv) && Arrays.equals(this.iv, iv)) {
+                return cipher;
+            }
+            initialized = false;
+            if (transformation != null) {
+                cipher = CipherPool.getCipher(transformation, opmode, secretKeySpec, iv == null ? null : new IvParameterSpec(iv));
+            } else if (iv != null) {
+                cipher.init(opmode, secretKeySpec, new IvParameterSpec(iv));
+            } else {
+                cipher.init(opmode, secretKeySpec);
+            }
+            this.iv = iv == null ? null : iv.clone();
+            initialized = true;
+            return cipher;
+        }
+
+        void reset() {
+            initialized = false;
+            iv = null;
+        }
+
+    }
+
+}
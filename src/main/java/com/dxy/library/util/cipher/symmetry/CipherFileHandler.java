@@ -0,0 +1,93 @@
+package com.dxy.library.util.cipher.symmetry;
+
+import javax.crypto.Cipher;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+
+/**
+ * 文件分块加解密
+ * 通过FileChannel按固定大小分块调用Cipher.update，内存占用与文件大小无关，大文件使用内存映射读取
+ * 读写缓冲区使用堆内存，随调用结束由GC回收；直接内存不受堆压力触发回收，高并发时容易超出MaxDirectMemorySize，FileChannel读写堆缓冲区时本身也会经过JDK线程缓存的直接内存
+ * @author duanxinyuan
+ * 2026/10/18 14:20
+ */
+class CipherFileHandler {
+
+    //单次update的数据块大小
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    //单次内存映射的区域大小
+    private static final int MAPPED_REGION_SIZE = 64 * 1024 * 1024;
+
+    //超过该大小的文件使用内存映射读取
+    private static final long MAPPED_THRESHOLD = 16 * 1024 * 1024;
+
+    /**
+     * 使用已初始化的Cipher处理文件
+     * @param cipher 已初始化的密码器
+     * @param in 输入文件
+     * @param out 输出文件，已存在时覆盖
+     * @return 输出文件的长度
+     */
+    static long handle(Cipher cipher, Path in, Path out) throws IOException, GeneralSecurityException {
+        try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = input.size();
+            ByteBuffer buffer = ByteBuffer.allocate(cipher.getOutputSize(CHUNK_SIZE));
+            long written = 0;
+            if (size >= MAPPED_THRESHOLD) {
+                for (long position = 0; position < size; position += MAPPED_REGION_SIZE) {
+                    MappedByteBuffer region = input.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPED_REGION_SIZE, size - position));
+                    while (region.hasRemaining()) {
+                        ByteBuffer chunk = region.duplicate();
+                        chunk.limit(chunk.position() + Math.min(CHUNK_SIZE, chunk.remaining()));
+                        region.position(chunk.limit());
+                        buffer = update(cipher, chunk, buffer);
+                        written += write(buffer, output);
+                    }
+                }
+            } else {
+                ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+                while (input.read(chunk) != -1) {
+                    chunk.flip();
+                    buffer = update(cipher, chunk, buffer);
+                    written += write(buffer, output);
+                    chunk.clear();
+                }
+            }
+            buffer = ensureCapacity(buffer, cipher.getOutputSize(0));
+            cipher.doFinal(ByteBuffer.allocate(0), buffer);
+            written += write(buffer, output);
+            return written;
+        }
+    }
+
+    private static ByteBuffer update(Cipher cipher, ByteBuffer chunk, ByteBuffer buffer) throws GeneralSecurityException {
+        buffer = ensureCapacity(buffer, cipher.getOutputSize(chunk.remaining()));
+        cipher.update(chunk, buffer);
+        return buffer;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        buffer.clear();
+        if (buffer.capacity() < capacity) {
+            return ByteBuffer.allocate(capacity);
+        }
+        return buffer;
+    }
+
+    private static int write(ByteBuffer buffer, FileChannel output) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        return length;
+    }
+
+}
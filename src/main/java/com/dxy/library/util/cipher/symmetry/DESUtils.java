@@ -4,7 +4,10 @@ import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.constant.Mode;
 import com.dxy.library.util.cipher.constant.Padding;
 import com.dxy.library.util.cipher.exception.CipherException;
-import org.apache.commons.codec.binary.Base64;
+import com.dxy.library.util.cipher.pojo.BatchResult;
+import com.dxy.library.util.cipher.pool.CipherPool;
+import com.dxy.library.util.cipher.utils.Base64Utils;
+import com.dxy.library.util.cipher.utils.TextCipherUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
@@ -13,10 +16,14 @@ import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.security.Security;
+import java.util.List;
 
 /**
  * DES工具类
@@ -103,8 +110,19 @@ public class DESUtils {
         if (StringUtils.isEmpty(data)) {
             return null;
         }
-        byte[] encrypt = encrypt(data.getBytes(), key.getBytes(), iv, mode, padding);
-        return Base64.encodeBase64String(encrypt);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (!TextCipherUtils.isFusible(data)) {
+            //超长文本走字节数组接口，数据量较大时可以分段并行处理
+            return Base64Utils.encode(encrypt(data.getBytes(StandardCharsets.UTF_8), keyBytes, iv, mode, padding));
+        }
+        try {
+            return TextCipherUtils.encrypt(data, dataLength -> {
+                check(dataLength, keyBytes, iv, mode, padding);
+                return getCipher(Cipher.ENCRYPT_MODE, keyBytes, iv, mode, padding);
+            });
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("DES encrypt error", e);
+        }
     }
 
     /**
@@ -117,20 +135,17 @@ public class DESUtils {
      * @return 密文
      */
     public static byte[] encrypt(byte[] data, byte[] key, String iv, Mode mode, Padding padding) {
-        check(data, key, iv, mode, padding);
+        check(data.length, key, iv, mode, padding);
         try {
-            SecretKeySpec secretKeySpec = getSecretKeySpec(key);
-            String algorithm = Algorithm.getAlgorithm(Algorithm.DES, mode, padding);
-            // 创建密码器
-            Cipher cipher = Cipher.getInstance(algorithm);
-            // 初始化
-            if (StringUtils.isNotEmpty(iv)) {
-                AlgorithmParameters parameters = AlgorithmParameters.getInstance(Algorithm.DES.getAlgorithm());
-                parameters.init(new IvParameterSpec(iv.getBytes(StandardCharsets.UTF_8)));
-                cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec, parameters);
-            } else {
-                cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
+            if (ParallelCipher.isParallelCtr(data.length, mode, padding, iv)) {
+                //数据量较大时分段并行处理
+                String algorithm = Algorithm.getAlgorithm(Algorithm.DES, mode, padding);
+                return ParallelCipher.ctr(Cipher.ENCRYPT_MODE, algorithm, getSecretKeySpec(key), iv.getBytes(StandardCharsets.UTF_8), data);
+            }
+            if (ParallelCipher.isParallelEcb(data.length, mode)) {
+                return ParallelCipher.ecb(Cipher.ENCRYPT_MODE, Algorithm.DES, padding, getSecretKeySpec(key), 8, data);
             }
+            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE, key, iv, mode, padding);
             //加密
             return cipher.doFinal(data);
         } catch (Exception e) {
@@ -138,6 +153,51 @@ public class DESUtils {
         }
     }
 
+    /**
+     * DES加密（ByteBuffer，接受直接内存，调用方不需要先拷贝到byte[]，Provider内部可能分块经过临时的堆内数组）
+     * @param in 明文，读取position到limit之间的数据
+     * @param out 密文，从position开始写入，剩余空间不足时抛出异常
+     * @param key 密钥，长度必须是8位
+     * @param iv 偏移量，长度必须是8位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 写入out的字节数
+     */
+    public static int encrypt(ByteBuffer in, ByteBuffer out, byte[] key, String iv, Mode mode, Padding padding) {
+        check(in.remaining(), key, iv, mode, padding);
+        try {
+            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE, key, iv, mode, padding);
+            //加密
+            return cipher.doFinal(in, out);
+        } catch (Exception e) {
+            throw new CipherException("DES encrypt error", e);
+        }
+    }
+
+    /**
+     * DES加密（写入调用方提供的数组，可复用缓冲区，不分配新的结果数组，in和out可以是同一个数组）
+     * @param in 明文
+     * @param inOffset 明文的起始位置
+     * @param inLength 明文的长度
+     * @param out 密文，从outOffset开始写入，剩余空间不足时抛出异常，所需长度见{@link #getOutputSize(int, Mode, Padding)}
+     * @param outOffset 密文写入的起始位置
+     * @param key 密钥，长度必须是8位
+     * @param iv 偏移量，长度必须是8位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 写入out的字节数
+     */
+    public static int encrypt(byte[] in, int inOffset, int inLength, byte[] out, int outOffset, byte[] key, String iv, Mode mode, Padding padding) {
+        check(inLength, key, iv, mode, padding);
+        try {
+            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE, key, iv, mode, padding);
+            //加密
+            return cipher.doFinal(in, inOffset, inLength, out, outOffset);
+        } catch (Exception e) {
+            throw new CipherException("DES encrypt error", e);
+        }
+    }
+
     /**
      * DES解密（最常用方式之一，使用DES/ECB/PKCS5Padding方式，无偏移量）
      * @param data 密文（Base64编码）
@@ -213,8 +273,19 @@ public class DESUtils {
         if (StringUtils.isEmpty(data)) {
             return null;
         }
-        byte[] decrypt = decrypt(Base64.decodeBase64(data), key.getBytes(), iv, mode, padding);
-        return new String(decrypt);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (!TextCipherUtils.isFusible(data)) {
+            //超长文本走字节数组接口，数据量较大时可以分段并行处理
+            return new String(decrypt(Base64Utils.decode(data), keyBytes, iv, mode, padding), StandardCharsets.UTF_8);
+        }
+        try {
+            return TextCipherUtils.decrypt(data, dataLength -> {
+                check(dataLength, keyBytes, iv, mode, padding);
+                return getCipher(Cipher.DECRYPT_MODE, keyBytes, iv, mode, padding);
+            });
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("DES decrypt error", e);
+        }
     }
 
     /**
@@ -227,20 +298,20 @@ public class DESUtils {
      * @return 明文
      */
     public static byte[] decrypt(byte[] data, byte[] key, String iv, Mode mode, Padding padding) {
-        check(data, key, iv, mode, padding);
+        check(data.length, key, iv, mode, padding);
         try {
-            SecretKeySpec secretKeySpec = getSecretKeySpec(key);
-            String algorithm = Algorithm.getAlgorithm(Algorithm.DES, mode, padding);
-            // 创建密码器
-            Cipher cipher = Cipher.getInstance(algorithm);
-            // 初始化
-            if (StringUtils.isNotEmpty(iv)) {
-                AlgorithmParameters parameters = AlgorithmParameters.getInstance(Algorithm.DES.getAlgorithm());
-                parameters.init(new IvParameterSpec(iv.getBytes(StandardCharsets.UTF_8)));
-                cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, parameters);
-            } else {
-                cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
+            if (ParallelCipher.isParallelCtr(data.length, mode, padding, iv)) {
+                //数据量较大时分段并行处理
+                String algorithm = Algorithm.getAlgorithm(Algorithm.DES, mode, padding);
+                return ParallelCipher.ctr(Cipher.DECRYPT_MODE, algorithm, getSecretKeySpec(key), iv.getBytes(StandardCharsets.UTF_8), data);
+            }
+            if (ParallelCipher.isParallelCbcDecrypt(data.length, mode, iv)) {
+                return ParallelCipher.cbcDecrypt(Algorithm.DES, padding, getSecretKeySpec(key), iv.getBytes(StandardCharsets.UTF_8), data);
+            }
+            if (ParallelCipher.isParallelEcb(data.length, mode)) {
+                return ParallelCipher.ecb(Cipher.DECRYPT_MODE, Algorithm.DES, padding, getSecretKeySpec(key), 8, data);
             }
+            Cipher cipher = getCipher(Cipher.DECRYPT_MODE, key, iv, mode, padding);
             //解密
             return cipher.doFinal(data);
         } catch (Exception e) {
@@ -248,6 +319,172 @@ public class DESUtils {
         }
     }
 
+    /**
+     * DES解密（ByteBuffer，接受直接内存，调用方不需要先拷贝到byte[]，Provider内部可能分块经过临时的堆内数组）
+     * @param in 密文，读取position到limit之间的数据
+     * @param out 明文，从position开始写入，剩余空间不足时抛出异常
+     * @param key 密钥，长度必须是8位
+     * @param iv 偏移量，长度必须是8位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 写入out的字节数
+     */
+    public static int decrypt(ByteBuffer in, ByteBuffer out, byte[] key, String iv, Mode mode, Padding padding) {
+        check(in.remaining(), key, iv, mode, padding);
+        try {
+            Cipher cipher = getCipher(Cipher.DECRYPT_MODE, key, iv, mode, padding);
+            //解密
+            return cipher.doFinal(in, out);
+        } catch (Exception e) {
+            throw new CipherException("DES decrypt error", e);
+        }
+    }
+
+    /**
+     * DES解密（写入调用方提供的数组，可复用缓冲区，不分配新的结果数组，in和out可以是同一个数组）
+     * @param in 密文
+     * @param inOffset 密文的起始位置
+     * @param inLength 密文的长度
+     * @param out 明文，从outOffset开始写入，剩余空间不足时抛出异常，所需长度见{@link #getOutputSize(int, Mode, Padding)}
+     * @param outOffset 明文写入的起始位置
+     * @param key 密钥，长度必须是8位
+     * @param iv 偏移量，长度必须是8位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 写入out的字节数
+     */
+    public static int decrypt(byte[] in, int inOffset, int inLength, byte[] out, int outOffset, byte[] key, String iv, Mode mode, Padding padding) {
+        check(inLength, key, iv, mode, padding);
+        try {
+            Cipher cipher = getCipher(Cipher.DECRYPT_MODE, key, iv, mode, padding);
+            //解密
+            return cipher.doFinal(in, inOffset, inLength, out, outOffset);
+        } catch (Exception e) {
+            throw new CipherException("DES decrypt error", e);
+        }
+    }
+
+    /**
+     * DES加密输出流（按块流式处理，内存占用与数据大小无关），写入的明文加密后写入out，关闭时写出最后一块
+     * 使用独占的Cipher，流可以跨调用持有，但非线程安全；加密失败时抛出{@link CipherException}
+     * @param out 密文输出流，随返回的流一起关闭
+     * @param key 密钥，长度必须是8位
+     * @param iv 偏移量，长度必须是8位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 明文输出流
+     */
+    public static OutputStream encryptingStream(OutputStream out, byte[] key, String iv, Mode mode, Padding padding) {
+        return encryptingStream(out, key, iv, mode, padding, ChunkedCipherOutputStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * DES加密输出流（按块流式处理，内存占用与数据大小无关），写入的明文加密后写入out，关闭时写出最后一块
+     * @param out 密文输出流，随返回的流一起关闭
+     * @param key 密钥，长度必须是8位
+     * @param iv 偏移量，长度必须是8位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @param chunkSize 分块大小（字节），单次Cipher.update处理的最大数据量
+     * @return 明文输出流
+     */
+    public static OutputStream encryptingStream(OutputStream out, byte[] key, String iv, Mode mode, Padding padding, int chunkSize) {
+        check(0, key, iv, mode, padding);
+        try {
+            return new ChunkedCipherOutputStream(out, newCipher(Cipher.ENCRYPT_MODE, key, iv, mode, padding), chunkSize);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("DES encrypt error", e);
+        }
+    }
+
+    /**
+     * DES解密输入流（按块流式处理，内存占用与数据大小无关），从in读取密文，返回解密后的明文
+     * 使用独占的Cipher，流可以跨调用持有，但非线程安全；解密失败（如填充错误）时抛出{@link CipherException}
+     * @param in 密文输入流，随返回的流一起关闭
+     * @param key 密钥，长度必须是8位
+     * @param iv 偏移量，长度必须是8位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 明文输入流
+     */
+    public static InputStream decryptingStream(InputStream in, byte[] key, String iv, Mode mode, Padding padding) {
+        return decryptingStream(in, key, iv, mode, padding, ChunkedCipherOutputStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * DES解密输入流（按块流式处理，内存占用与数据大小无关），从in读取密文，返回解密后的明文
+     * @param in 密文输入流，随返回的流一起关闭
+     * @param key 密钥，长度必须是8位
+     * @param iv 偏移量，长度必须是8位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @param chunkSize 分块大小（字节），单次从in读取的最大数据量
+     * @return 明文输入流
+     */
+    public static InputStream decryptingStream(InputStream in, byte[] key, String iv, Mode mode, Padding padding, int chunkSize) {
+        check(0, key, iv, mode, padding);
+        try {
+            return new ChunkedCipherInputStream(in, newCipher(Cipher.DECRYPT_MODE, key, iv, mode, padding), chunkSize);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("DES decrypt error", e);
+        }
+    }
+
+    /**
+     * 计算DES加解密结果的最大长度，用于预先分配输出数组
+     * 有填充时加密结果为补齐到块长的整数倍（数据长度正好是块长整数倍时增加一个块），解密结果不超过密文长度，这里统一返回两者中较大的值
+     * @param inputLength 明文或者密文长度
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 输出数组所需的长度
+     */
+    public static int getOutputSize(int inputLength, Mode mode, Padding padding) {
+        checkModeAndPadding(mode, padding);
+        return CipherContext.getOutputSize(inputLength, padding, 8);
+    }
+
+    /**
+     * 批量加密，密钥校验和初始化只执行一次，每个元素只重新设置偏移量，单个元素失败不影响其他元素
+     * 使用CipherPool中当前线程缓存的Cipher，多次调用之间不重复创建Cipher；同一密钥反复调用时可以使用prepare返回的上下文
+     * @param data 明文列表
+     * @param key 密钥，长度必须是8位
+     * @param ivs 偏移量列表，与明文一一对应，不使用偏移量时传null
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 加密结果，包含每个元素的密文和失败原因
+     */
+    public static BatchResult encryptAll(List<byte[]> data, byte[] key, List<String> ivs, Mode mode, Padding padding) {
+        return prepare(key, mode, padding).encryptAllPooled(data, ivs);
+    }
+
+    /**
+     * 批量解密，密钥校验和初始化只执行一次，每个元素只重新设置偏移量，单个元素失败不影响其他元素
+     * 使用CipherPool中当前线程缓存的Cipher，多次调用之间不重复创建Cipher；同一密钥反复调用时可以使用prepare返回的上下文
+     * @param data 密文列表
+     * @param key 密钥，长度必须是8位
+     * @param ivs 偏移量列表，与密文一一对应，不使用偏移量时传null
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 解密结果，包含每个元素的明文和失败原因
+     */
+    public static BatchResult decryptAll(List<byte[]> data, byte[] key, List<String> ivs, Mode mode, Padding padding) {
+        return prepare(key, mode, padding).decryptAllPooled(data, ivs);
+    }
+
+    /**
+     * 预处理DES密钥，创建绑定密钥、密码块工作模式和填充方式的加解密上下文（线程安全，可复用）
+     * 密钥校验和密钥初始化只执行一次，适合同一密钥加解密大量数据的场景，偏移量在每次加解密时传入
+     * @param key 密钥，长度必须是8位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 加解密上下文
+     */
+    public static CipherContext prepare(byte[] key, Mode mode, Padding padding) {
+        checkKey(key);
+        checkModeAndPadding(mode, padding);
+        return new CipherContext(Algorithm.DES, getSecretKeySpec(key), mode, padding, 8, 8);
+    }
+
     /**
      * 生成DES的Key（64位）
      * @return 密钥
@@ -263,13 +500,48 @@ public class DESUtils {
         }
     }
 
+    /**
+     * 获取初始化之后的密码器
+     * @param opmode 加密或者解密
+     */
+    private static Cipher getCipher(int opmode, byte[] key, String iv, Mode mode, Padding padding) throws GeneralSecurityException {
+        String algorithm = Algorithm.getAlgorithm(Algorithm.DES, mode, padding);
+        // 获取线程缓存的密码器并初始化
+        return CipherPool.getCipher(algorithm, opmode, getSecretKeySpec(key), getIvParameterSpec(iv));
+    }
+
+    /**
+     * 创建并初始化独占的密码器（不使用线程缓存，可以跨调用持有）
+     * @param opmode 加密或者解密
+     */
+    private static Cipher newCipher(int opmode, byte[] key, String iv, Mode mode, Padding padding) throws GeneralSecurityException {
+        String algorithm = Algorithm.getAlgorithm(Algorithm.DES, mode, padding);
+        return initCipher(CipherPool.newCipher(algorithm, null), opmode, key, iv);
+    }
+
+    private static Cipher initCipher(Cipher cipher, int opmode, byte[] key, String iv) throws GeneralSecurityException {
+        SecretKeySpec secretKeySpec = getSecretKeySpec(key);
+        // 初始化
+        if (StringUtils.isNotEmpty(iv)) {
+            cipher.init(opmode, secretKeySpec, getIvParameterSpec(iv));
+        } else {
+            cipher.init(opmode, secretKeySpec);
+        }
+        return cipher;
+    }
+
+    private static IvParameterSpec getIvParameterSpec(String iv) {
+        return StringUtils.isEmpty(iv) ? null : new IvParameterSpec(iv.getBytes(StandardCharsets.UTF_8));
+    }
+
     private static SecretKeySpec getSecretKeySpec(byte[] key) {
         return new SecretKeySpec(key, Algorithm.DES.getAlgorithm());
     }
 
-    private static void check(byte[] data, byte[] key, String iv, Mode mode, Padding padding) {
+    private static void check(long dataLength, byte[] key, String iv, Mode mode, Padding padding) {
         checkKey(key);
-        checkModeAndPadding(data, mode, padding);
+        checkModeAndPadding(mode, padding);
+        checkData(dataLength, mode, padding);
         if (StringUtils.isNotEmpty(iv)) {
             checkIv(iv);
             if (mode == Mode.ECB) {
@@ -281,14 +553,20 @@ public class DESUtils {
     /**
      * 校验DES密码块工作模式和填充模式
      */
-    private static void checkModeAndPadding(byte[] data, Mode mode, Padding padding) {
-        if (mode == Mode.NONE) {
+    private static void checkModeAndPadding(Mode mode, Padding padding) {
+        if (mode == Mode.NONE || mode == Mode.GCM || mode == Mode.CCM) {
             throw new CipherException("invalid DES mode");
         }
         if (padding == Padding.SSL3Padding || padding == Padding.PKCS1Padding) {
             throw new CipherException("invalid DES padding");
         }
-        boolean is8NotSupport = padding == Padding.NoPadding && (mode == Mode.ECB || mode == Mode.CBC) && data.length % 8 != 0;
+    }
+
+    /**
+     * 校验DES数据长度，NoPadding填充时ECB和CBC模式下数据长度必须是8的整数倍
+     */
+    private static void checkData(long dataLength, Mode mode, Padding padding) {
+        boolean is8NotSupport = padding == Padding.NoPadding && (mode == Mode.ECB || mode == Mode.CBC) && dataLength % 8 != 0;
         if (is8NotSupport) {
             throw new CipherException("data length must be multiple of 8 bytes on ECB/NoPadding or CBC/NoPadding mode");
         }
@@ -0,0 +1,187 @@
+package com.dxy.library.util.cipher.symmetry;
+
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
+import com.dxy.library.util.cipher.constant.Algorithm;
+import com.dxy.library.util.cipher.constant.Mode;
+import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.pool.CipherPool;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.IntFunction;
+
+/**
+ * 大数据量并行加解密
+ * 按块边界把数据分段，在{@link CipherExecutors}线程池中并行处理（每个线程使用自己的Cipher），结果与串行处理完全一致
+ * 1、CTR模式下各块互相独立，每段根据自身偏移量计算起始计数器
+ * 2、ECB模式下各块互相独立，除最后一段外都按NoPadding处理，填充只发生在最后一段
+ * 3、CBC模式下加密只能串行，解密时每块明文只依赖当前和前一块密文，每段以前一块密文作为偏移量，只在最后一段去掉填充
+ * 数据长度达到阈值时AESUtils、SM4Utils等工具类自动使用，阈值可通过系统属性或者setter调整
+ * @author duanxinyuan
+ * 2026/10/18 15:52
+ */
+public class ParallelCipher {
+
+    //CTR模式并行处理的数据长度阈值（字节）
+    private static volatile int ctrThreshold = Integer.getInteger("cipher.parallel.ctr.threshold", 512 * 1024);
+
+    //ECB模式并行处理的数据长度阈值（字节）
+    private static volatile int ecbThreshold = Integer.getInteger("cipher.parallel.ecb.threshold", 128 * 1024);
+
+    //CBC模式并行解密的数据长度阈值（字节）
+    private static volatile int cbcDecryptThreshold = Integer.getInteger("cipher.parallel.cbc.threshold", 128 * 1024);
+
+    //单个分段的最小长度（字节）
+    private static final int MIN_SEGMENT_SIZE = 32 * 1024;
+
+    /**
+     * 是否使用并行CTR，只处理NoPadding且指定了偏移量的情况（未指定偏移量时由Cipher随机生成）
+     */
+    static boolean isParallelCtr(long dataLength, Mode mode, Padding padding, String iv) {
+        return mode == Mode.CTR && padding == Padding.NoPadding && StringUtils.isNotEmpty(iv)
+                && dataLength >= ctrThreshold && CipherExecutors.getParallelism() > 1;
+    }
+
+    /**
+     * 是否使用并行ECB
+     */
+    static boolean isParallelEcb(long dataLength, Mode mode) {
+        return mode == Mode.ECB && dataLength >= ecbThreshold && CipherExecutors.getParallelism() > 1;
+    }
+
+    /**
+     * 是否使用并行CBC解密，只处理指定了偏移量的情况
+     */
+    static boolean isParallelCbcDecrypt(long dataLength, Mode mode, String iv) {
+        return mode == Mode.CBC && StringUtils.isNotEmpty(iv) && dataLength >= cbcDecryptThreshold && CipherExecutors.getParallelism() > 1;
+    }
+
+    /**
+     * 并行CTR加解密
+     * @param opmode 加密或者解密
+     * @param transformation 加密算法全称
+     * @param secretKeySpec 密钥
+     * @param iv 初始计数器，长度等于块长
+     * @param data 明文或者密文
+     */
+    static byte[] ctr(int opmode, String transformation, SecretKeySpec secretKeySpec, byte[] iv, byte[] data) throws Exception {
+        int blockSize = iv.length;
+        return handle(opmode, transformation, transformation, secretKeySpec, data, blockSize, false, offset -> addCounter(iv, offset / blockSize));
+    }
+
+    /**
+     * 并行ECB加解密，除最后一段外都按NoPadding处理，最后一段使用原填充方式
+     * @param opmode 加密或者解密
+     * @param algorithm 加密算法
+     * @param padding 填充方式
+     * @param secretKeySpec 密钥
+     * @param blockSize 块长
+     * @param data 明文或者密文
+     */
+    static byte[] ecb(int opmode, Algorithm algorithm, Padding padding, SecretKeySpec secretKeySpec, int blockSize, byte[] data) throws Exception {
+        String segmentTransformation = Algorithm.getAlgorithm(algorithm, Mode.ECB, Padding.NoPadding);
+        String lastTransformation = Algorithm.getAlgorithm(algorithm, Mode.ECB, padding);
+        return handle(opmode, segmentTransformation, lastTransformation, secretKeySpec, data, blockSize, padding != Padding.NoPadding, null);
+    }
+
+    /**
+     * 并行CBC解密，每段以前一块密文作为偏移量，除最后一段外都按NoPadding处理，最后一段使用原填充方式
+     * @param algorithm 加密算法
+     * @param padding 填充方式
+     * @param secretKeySpec 密钥
+     * @param iv 偏移量，长度等于块长
+     * @param data 密文
+     */
+    static byte[] cbcDecrypt(Algorithm algorithm, Padding padding, SecretKeySpec secretKeySpec, byte[] iv, byte[] data) throws Exception {
+        int blockSize = iv.length;
+        String segmentTransformation = Algorithm.getAlgorithm(algorithm, Mode.CBC, Padding.NoPadding);
+        String lastTransformation = Algorithm.getAlgorithm(algorithm, Mode.CBC, padding);
+        return handle(Cipher.DECRYPT_MODE, segmentTransformation, lastTransformation, secretKeySpec, data, blockSize, padding != Padding.NoPadding,
+                offset -> offset == 0 ? iv : Arrays.copyOfRange(data, offset - blockSize, offset));
+    }
+
+    /**
+     * 按块边界分段并行处理
+     * @param segmentTransformation 除最后一段外使用的加密算法全称（NoPadding）
+     * @param lastTransformation 最后一段使用的加密算法全称
+     * @param padded 最后一段是否有填充
+     * @param ivFunction 根据分段的起始位置计算该分段的偏移量，为null时不使用偏移量
+     */
+    private static byte[] handle(int opmode, String segmentTransformation, String lastTransformation, SecretKeySpec secretKeySpec,
+                                 byte[] data, int blockSize, boolean padded, IntFunction<byte[]> ivFunction) throws Exception {
+        int segmentSize = getSegmentSize(data.length, blockSize);
+        int lastOffset = (data.length - 1) / segmentSize * segmentSize;
+        int lastLength = data.length - lastOffset;
+        //加密时填充后的长度是确定的，解密时去掉填充后的长度不超过密文长度，处理完之后再截断
+        boolean isPaddedEncrypt = padded && opmode == Cipher.ENCRYPT_MODE;
+        byte[] result = new byte[isPaddedEncrypt ? lastOffset + (lastLength / blockSize + 1) * blockSize : data.length];
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int offset = 0; offset < data.length; offset += segmentSize) {
+            int start = offset;
+            int length = Math.min(segmentSize, data.length - offset);
+            String transformation = offset == lastOffset ? lastTransformation : segmentTransformation;
+            byte[] iv = ivFunction == null ? null : ivFunction.apply(offset);
+            tasks.add(() -> {
+                Cipher cipher = CipherPool.getCipher(transformation, opmode, secretKeySpec, iv == null ? null : new IvParameterSpec(iv));
+                return cipher.doFinal(data, start, length, result, start);
+            });
+        }
+        List<Integer> lengths = CipherExecutors.invokeAll(tasks);
+        int resultLength = lastOffset + lengths.get(lengths.size() - 1);
+        return resultLength == result.length ? result : Arrays.copyOf(result, resultLength);
+    }
+
+    /**
+     * 计算分段长度，按线程池并行度均分，且为块长的整数倍
+     */
+    private static int getSegmentSize(int dataLength, int blockSize) {
+        int segments = Math.max(1, Math.min(CipherExecutors.getParallelism(), dataLength / MIN_SEGMENT_SIZE));
+        int segmentSize = (dataLength + segments - 1) / segments;
+        return (segmentSize + blockSize - 1) / blockSize * blockSize;
+    }
+
+    /**
+     * 计数器加上指定块数，计数器为整个块的大端整数，溢出时回绕（与JDK和BouncyCastle的CTR实现一致）
+     */
+    static byte[] addCounter(byte[] iv, long blocks) {
+        byte[] counter = iv.clone();
+        long carry = blocks;
+        for (int i = counter.length - 1; i >= 0 && carry != 0; i--) {
+            long sum = (counter[i] & 0xFF) + (carry & 0xFF);
+            counter[i] = (byte) sum;
+            carry = (carry >>> 8) + (sum >>> 8);
+        }
+        return counter;
+    }
+
+    public static int getEcbThreshold() {
+        return ecbThreshold;
+    }
+
+    public static void setEcbThreshold(int ecbThreshold) {
+        ParallelCipher.ecbThreshold = ecbThreshold;
+    }
+
+    public static int getCbcDecryptThreshold() {
+        return cbcDecryptThreshold;
+    }
+
+    public static void setCbcDecryptThreshold(int cbcDecryptThreshold) {
+        ParallelCipher.cbcDecryptThreshold = cbcDecryptThreshold;
+    }
+
+    public static int getCtrThreshold() {
+        return ctrThreshold;
+    }
+
+    public static void setCtrThreshold(int ctrThreshold) {
+        ParallelCipher.ctrThreshold = ctrThreshold;
+    }
+
+}
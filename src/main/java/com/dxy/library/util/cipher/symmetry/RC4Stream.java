@@ -0,0 +1,140 @@
+package com.dxy.library.util.cipher.symmetry;
+
+import com.dxy.library.util.cipher.exception.CipherException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * RC4流密码（有状态，非线程安全）
+ * 密钥流在多次调用之间连续，可以按任意大小分块处理数据，分块处理的结果与一次处理完全一致
+ * S盒使用int数组，处理过程中不分配对象
+ * @author duanxinyuan
+ * 2026/10/18 19:10
+ */
+public class RC4Stream {
+
+    //S盒长度
+    private static final int BOX_LENGTH = 256;
+
+    private final byte[] key;
+
+    //S盒
+    private final int[] s = new int[BOX_LENGTH];
+
+    private int i;
+
+    private int j;
+
+    /**
+     * @param key 密钥，一般为1-256字节，超过256字节的部分不参与密钥调度
+     */
+    public RC4Stream(byte[] key) {
+        if (key == null || key.length == 0) {
+            throw new CipherException("RC4 key cannot be empty");
+        }
+        this.key = key.clone();
+        reset();
+    }
+
+    /**
+     * 加密或者解密
+     * @param data 明文或者密文
+     * @return 密文或者明文
+     */
+    public byte[] process(byte[] data) {
+        byte[] result = new byte[data.length];
+        process(data, 0, data.length, result, 0);
+        return result;
+    }
+
+    /**
+     * 加密或者解密，写入调用方提供的数组，in和out可以是同一个数组
+     * @param in 明文或者密文
+     * @param inOffset 输入的起始位置
+     * @param inLength 输入的长度
+     * @param out 密文或者明文，从outOffset开始写入，长度与输入相同
+     * @param outOffset 输出的起始位置
+     * @return 写入out的字节数
+     */
+    public int process(byte[] in, int inOffset, int inLength, byte[] out, int outOffset) {
+        if (inOffset < 0 || inLength < 0 || inOffset + inLength > in.length) {
+            throw new CipherException("RC4 input buffer too short");
+        }
+        if (outOffset < 0 || outOffset + inLength > out.length) {
+            throw new CipherException("RC4 output buffer too short");
+        }
+        int[] s = this.s;
+        int x = this.i;
+        int y = this.j;
+        for (int k = 0; k < inLength; k++) {
+            x = (x + 1) & 0xFF;
+            int sx = s[x];
+            y = (y + sx) & 0xFF;
+            int sy = s[y];
+            s[x] = sy;
+            s[y] = sx;
+            out[outOffset + k] = (byte) (in[inOffset + k] ^ s[(sx + sy) & 0xFF]);
+        }
+        this.i = x;
+        this.j = y;
+        return inLength;
+    }
+
+    /**
+     * 加密或者解密（ByteBuffer，支持直接内存）
+     * @param in 明文或者密文，读取position到limit之间的数据
+     * @param out 密文或者明文，从position开始写入，剩余空间不足时抛出异常
+     * @return 写入out的字节数
+     */
+    public int process(ByteBuffer in, ByteBuffer out) {
+        int length = in.remaining();
+        if (out.remaining() < length) {
+            throw new CipherException("RC4 output buffer too short");
+        }
+        if (in.hasArray() && out.hasArray()) {
+            process(in.array(), in.arrayOffset() + in.position(), length, out.array(), out.arrayOffset() + out.position());
+            in.position(in.limit());
+            out.position(out.position() + length);
+            return length;
+        }
+        for (int k = 0; k < length; k++) {
+            out.put((byte) (in.get() ^ next()));
+        }
+        return length;
+    }
+
+    /**
+     * 生成下一个字节的密钥流
+     */
+    int next() {
+        int[] s = this.s;
+        i = (i + 1) & 0xFF;
+        int si = s[i];
+        j = (j + si) & 0xFF;
+        int sj = s[j];
+        s[i] = sj;
+        s[j] = si;
+        return s[(si + sj) & 0xFF];
+    }
+
+    /**
+     * 恢复到初始状态，从密钥流的起点重新开始
+     */
+    public void reset() {
+        //密钥调度算法--利用key来对S盒做一个置换，也就是对S盒重新排列
+        int[] s = this.s;
+        for (int k = 0; k < BOX_LENGTH; k++) {
+            s[k] = k;
+        }
+        int y = 0;
+        for (int k = 0; k < BOX_LENGTH; k++) {
+            int sk = s[k];
+            y = (y + sk + key[k % key.length]) & 0xFF;
+            s[k] = s[y];
+            s[y] = sk;
+        }
+        i = 0;
+        j = 0;
+    }
+
+}
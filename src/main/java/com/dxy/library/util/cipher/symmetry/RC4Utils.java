@@ -1,72 +1,76 @@
 package com.dxy.library.util.cipher.symmetry;
 
+import java.nio.ByteBuffer;
+
 /**
  * RC4工具类
  * RC4：在1987年被RSA三人组中的头号人物罗纳德所创建，密钥长40-1024，块长64，用于保护商业机密和互联网中
  * 优点：算法简单，运行速度快，安全性高，算法的速度可以达到DES加密的10倍左右，且具有很高级别的非线性，
  * 密钥长度是可变的，可变范围为1-256字节(8-2048比特)，但一般为256字节
+ * 加密和解密是同一个操作，需要分块处理数据时使用{@link RC4Stream}
  * @author duanxinyuan
  * 2019/2/15 19:19
  */
 public class RC4Utils {
 
-    //S盒长度
-    private static final int box_length = 256;
-
     /**
-     * 加密和解密
+     * 加密和解密（按字符处理，密钥和内容的每个字符只取低8位参与运算，结果与历史版本一致）
      * @param content 内容
      * @param key 密钥
      */
     public static String encryptOrDecrypt(String content, String key) {
-        Integer[] S = new Integer[box_length]; // S盒
-        Character[] characters = new Character[content.length()]; // 生成的密钥流
-        StringBuilder stringBuilder = new StringBuilder();
-
-        ksa(S, key);
-        rpga(S, characters, content.length());
-
-        for (int i = 0; i < content.length(); ++i) {
-            stringBuilder.append((char) (content.charAt(i) ^ characters[i]));
+        RC4Stream stream = new RC4Stream(getKey(key));
+        char[] chars = content.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] ^= stream.next();
         }
-        return stringBuilder.toString();
+        return new String(chars);
     }
 
     /**
-     * 密钥调度算法--利用key来对S盒做一个置换，也就是对S盒重新排列
+     * 加密和解密
+     * @param data 明文或者密文
+     * @param key 密钥
+     * @return 密文或者明文
      */
-    private static void ksa(Integer[] s, String key) {
-        for (int i = 0; i < box_length; ++i) {
-            s[i] = i;
-        }
+    public static byte[] encryptOrDecrypt(byte[] data, byte[] key) {
+        return new RC4Stream(key).process(data);
+    }
 
-        int j = 0;
-        for (int i = 0; i < box_length; ++i) {
-            j = (j + s[i] + key.charAt(i % key.length())) % box_length;
-            swap(s, i, j);
-        }
+    /**
+     * 加密和解密（写入调用方提供的数组，不分配新的结果数组，in和out可以是同一个数组）
+     * @param in 明文或者密文
+     * @param inOffset 输入的起始位置
+     * @param inLength 输入的长度
+     * @param out 密文或者明文，从outOffset开始写入，长度与输入相同
+     * @param outOffset 输出的起始位置
+     * @param key 密钥
+     * @return 写入out的字节数
+     */
+    public static int encryptOrDecrypt(byte[] in, int inOffset, int inLength, byte[] out, int outOffset, byte[] key) {
+        return new RC4Stream(key).process(in, inOffset, inLength, out, outOffset);
     }
 
     /**
-     * 伪随机生成算法--利用上面重新排列的S盒来产生任意长度的密钥流
+     * 加密和解密（ByteBuffer，支持直接内存）
+     * @param in 明文或者密文，读取position到limit之间的数据
+     * @param out 密文或者明文，从position开始写入，剩余空间不足时抛出异常
+     * @param key 密钥
+     * @return 写入out的字节数
      */
-    private static void rpga(Integer[] s, Character[] characters, int length) {
-        int i = 0, j = 0;
-        for (int k = 0; k < length; ++k) {
-            i = (i + 1) % box_length;
-            j = (j + s[i]) % box_length;
-            swap(s, i, j);
-            characters[k] = (char) (s[(s[i] + s[j]) % box_length]).intValue();
-        }
+    public static int encryptOrDecrypt(ByteBuffer in, ByteBuffer out, byte[] key) {
+        return new RC4Stream(key).process(in, out);
     }
 
     /**
-     * 置换
+     * 字符串密钥转换为字节，每个字符只取低8位（密钥调度时按256取模，与直接使用字符的结果一致）
      */
-    private static void swap(Integer[] s, int i, int j) {
-        Integer mTemp = s[i];
-        s[i] = s[j];
-        s[j] = mTemp;
+    private static byte[] getKey(String key) {
+        byte[] bytes = new byte[key.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) key.charAt(i);
+        }
+        return bytes;
     }
 
 }
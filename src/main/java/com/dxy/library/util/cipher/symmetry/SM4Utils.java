@@ -4,19 +4,30 @@ import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.constant.Mode;
 import com.dxy.library.util.cipher.constant.Padding;
 import com.dxy.library.util.cipher.exception.CipherException;
-import org.apache.commons.codec.binary.Base64;
+import com.dxy.library.util.cipher.pojo.BatchResult;
+import com.dxy.library.util.cipher.pool.CipherPool;
+import com.dxy.library.util.cipher.utils.Base64Utils;
+import com.dxy.library.util.cipher.utils.TextCipherUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.security.AlgorithmParameters;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.security.Security;
+import java.util.List;
 
 /**
  * SM4工具类
@@ -101,8 +112,19 @@ public class SM4Utils {
         if (StringUtils.isEmpty(data)) {
             return null;
         }
-        byte[] encrypt = encrypt(data.getBytes(), key.getBytes(), iv, mode, padding);
-        return Base64.encodeBase64String(encrypt);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (!TextCipherUtils.isFusible(data)) {
+            //超长文本走字节数组接口，数据量较大时可以分段并行处理
+            return Base64Utils.encode(encrypt(data.getBytes(StandardCharsets.UTF_8), keyBytes, iv, mode, padding));
+        }
+        try {
+            return TextCipherUtils.encrypt(data, dataLength -> {
+                check(dataLength, keyBytes, iv, mode, padding);
+                return getCipher(Cipher.ENCRYPT_MODE, keyBytes, iv, mode, padding);
+            });
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("SM4 encrypt error", e);
+        }
     }
 
     /**
@@ -115,20 +137,119 @@ public class SM4Utils {
      * @return 密文
      */
     public static byte[] encrypt(byte[] data, byte[] key, String iv, Mode mode, Padding padding) {
-        check(data, key, iv, mode, padding);
+        check(data.length, key, iv, mode, padding);
         try {
-            SecretKeySpec secretKeySpec = getSecretKeySpec(key);
-            String algorithm = Algorithm.getAlgorithm(Algorithm.SM4, mode, padding);
-            // 创建密码器
-            Cipher cipher = Cipher.getInstance(algorithm);
-            // 初始化
-            if (StringUtils.isNotEmpty(iv)) {
-                AlgorithmParameters parameters = AlgorithmParameters.getInstance(Algorithm.SM4.getAlgorithm());
-                parameters.init(new IvParameterSpec(iv.getBytes(StandardCharsets.UTF_8)));
-                cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec, parameters);
-            } else {
-                cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
+            if (ParallelCipher.isParallelCtr(data.length, mode, padding, iv)) {
+                //数据量较大时分段并行处理
+                String algorithm = Algorithm.getAlgorithm(Algorithm.SM4, mode, padding);
+                return ParallelCipher.ctr(Cipher.ENCRYPT_MODE, algorithm, getSecretKeySpec(key), iv.getBytes(StandardCharsets.UTF_8), data);
             }
+            if (ParallelCipher.isParallelEcb(data.length, mode)) {
+                return ParallelCipher.ecb(Cipher.ENCRYPT_MODE, Algorithm.SM4, padding, getSecretKeySpec(key), 16, data);
+            }
+            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE, key, iv, mode, padding);
+            //加密
+            return cipher.doFinal(data);
+        } catch (Exception e) {
+            throw new CipherException("SM4 encrypt error", e);
+        }
+    }
+
+    /**
+     * SM4加密（ByteBuffer，接受直接内存，调用方不需要先拷贝到byte[]，Provider内部可能分块经过临时的堆内数组）
+     * @param in 明文，读取position到limit之间的数据
+     * @param out 密文，从position开始写入，剩余空间不足时抛出异常
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 写入out的字节数
+     */
+    public static int encrypt(ByteBuffer in, ByteBuffer out, byte[] key, String iv, Mode mode, Padding padding) {
+        check(in.remaining(), key, iv, mode, padding);
+        try {
+            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE, key, iv, mode, padding);
+            //加密
+            return cipher.doFinal(in, out);
+        } catch (Exception e) {
+            throw new CipherException("SM4 encrypt error", e);
+        }
+    }
+
+    /**
+     * SM4加密（写入调用方提供的数组，可复用缓冲区，不分配新的结果数组，in和out可以是同一个数组）
+     * @param in 明文
+     * @param inOffset 明文的起始位置
+     * @param inLength 明文的长度
+     * @param out 密文，从outOffset开始写入，剩余空间不足时抛出异常，所需长度见{@link #getOutputSize(int, Mode, Padding)}
+     * @param outOffset 密文写入的起始位置
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 写入out的字节数
+     */
+    public static int encrypt(byte[] in, int inOffset, int inLength, byte[] out, int outOffset, byte[] key, String iv, Mode mode, Padding padding) {
+        check(inLength, key, iv, mode, padding);
+        try {
+            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE, key, iv, mode, padding);
+            //加密
+            return cipher.doFinal(in, inOffset, inLength, out, outOffset);
+        } catch (Exception e) {
+            throw new CipherException("SM4 encrypt error", e);
+        }
+    }
+
+    /**
+     * SM4文件加密（按块流式处理，内存占用与文件大小无关，大文件使用内存映射读取）
+     * @param in 明文文件
+     * @param out 密文文件，已存在时覆盖，加密失败时删除
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 密文文件长度
+     */
+    public static long encryptFile(Path in, Path out, byte[] key, String iv, Mode mode, Padding padding) {
+        try {
+            check(Files.size(in), key, iv, mode, padding);
+            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE, key, iv, mode, padding);
+            return CipherFileHandler.handle(cipher, in, out);
+        } catch (CipherException e) {
+            throw e;
+        } catch (Exception e) {
+            deleteQuietly(out);
+            throw new CipherException("SM4 file encrypt error", e);
+        }
+    }
+
+    /**
+     * SM4认证加密（使用SM4/GCM/NoPadding方式，认证标签长度128位）
+     * @param data 明文
+     * @param key 密钥，长度必须是16位
+     * @param nonce 随机数，推荐12字节，同一密钥下不能重复使用
+     * @param aad 附加认证数据，不加密但参与认证，可以为null
+     * @return 密文（末尾附带认证标签）
+     */
+    public static byte[] encryptGCM(byte[] data, byte[] key, byte[] nonce, byte[] aad) {
+        return encrypt(data, key, nonce, aad, 128, Mode.GCM);
+    }
+
+    /**
+     * SM4认证加密（AEAD，GCM或CCM模式，只支持NoPadding）
+     * @param data 明文
+     * @param key 密钥，长度必须是16位
+     * @param nonce 随机数，GCM推荐12字节，CCM为7~13字节，同一密钥下不能重复使用（JDK的GCM实现在同一线程内重复使用时会直接报错）
+     * @param aad 附加认证数据，不加密但参与认证，可以为null
+     * @param tagLength 认证标签长度（位），GCM可选96、104、112、120、128，CCM可选32~128之间16的倍数
+     * @param mode 密码块工作模式，GCM或CCM
+     * @return 密文（末尾附带认证标签）
+     */
+    public static byte[] encrypt(byte[] data, byte[] key, byte[] nonce, byte[] aad, int tagLength, Mode mode) {
+        checkKey(key);
+        checkAead(nonce, tagLength, mode);
+        try {
+            Cipher cipher = getAeadCipher(Cipher.ENCRYPT_MODE, key, nonce, aad, tagLength, mode);
             //加密
             return cipher.doFinal(data);
         } catch (Exception e) {
@@ -211,8 +332,19 @@ public class SM4Utils {
         if (StringUtils.isEmpty(data)) {
             return null;
         }
-        byte[] decrypt = decrypt(Base64.decodeBase64(data), key.getBytes(), iv, mode, padding);
-        return new String(decrypt);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (!TextCipherUtils.isFusible(data)) {
+            //超长文本走字节数组接口，数据量较大时可以分段并行处理
+            return new String(decrypt(Base64Utils.decode(data), keyBytes, iv, mode, padding), StandardCharsets.UTF_8);
+        }
+        try {
+            return TextCipherUtils.decrypt(data, dataLength -> {
+                check(dataLength, keyBytes, iv, mode, padding);
+                return getCipher(Cipher.DECRYPT_MODE, keyBytes, iv, mode, padding);
+            });
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("SM4 decrypt error", e);
+        }
     }
 
     /**
@@ -225,20 +357,20 @@ public class SM4Utils {
      * @return 明文
      */
     public static byte[] decrypt(byte[] data, byte[] key, String iv, Mode mode, Padding padding) {
-        check(data, key, iv, mode, padding);
+        check(data.length, key, iv, mode, padding);
         try {
-            SecretKeySpec secretKeySpec = getSecretKeySpec(key);
-            String algorithm = Algorithm.getAlgorithm(Algorithm.SM4, mode, padding);
-            // 创建密码器
-            Cipher cipher = Cipher.getInstance(algorithm);
-            // 初始化
-            if (StringUtils.isNotEmpty(iv)) {
-                AlgorithmParameters parameters = AlgorithmParameters.getInstance(Algorithm.SM4.getAlgorithm());
-                parameters.init(new IvParameterSpec(iv.getBytes(StandardCharsets.UTF_8)));
-                cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, parameters);
-            } else {
-                cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
+            if (ParallelCipher.isParallelCtr(data.length, mode, padding, iv)) {
+                //数据量较大时分段并行处理
+                String algorithm = Algorithm.getAlgorithm(Algorithm.SM4, mode, padding);
+                return ParallelCipher.ctr(Cipher.DECRYPT_MODE, algorithm, getSecretKeySpec(key), iv.getBytes(StandardCharsets.UTF_8), data);
             }
+            if (ParallelCipher.isParallelCbcDecrypt(data.length, mode, iv)) {
+                return ParallelCipher.cbcDecrypt(Algorithm.SM4, padding, getSecretKeySpec(key), iv.getBytes(StandardCharsets.UTF_8), data);
+            }
+            if (ParallelCipher.isParallelEcb(data.length, mode)) {
+                return ParallelCipher.ecb(Cipher.DECRYPT_MODE, Algorithm.SM4, padding, getSecretKeySpec(key), 16, data);
+            }
+            Cipher cipher = getCipher(Cipher.DECRYPT_MODE, key, iv, mode, padding);
             //解密
             return cipher.doFinal(data);
         } catch (Exception e) {
@@ -246,6 +378,229 @@ public class SM4Utils {
         }
     }
 
+    /**
+     * SM4解密（ByteBuffer，接受直接内存，调用方不需要先拷贝到byte[]，Provider内部可能分块经过临时的堆内数组）
+     * @param in 密文，读取position到limit之间的数据
+     * @param out 明文，从position开始写入，剩余空间不足时抛出异常
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 写入out的字节数
+     */
+    public static int decrypt(ByteBuffer in, ByteBuffer out, byte[] key, String iv, Mode mode, Padding padding) {
+        check(in.remaining(), key, iv, mode, padding);
+        try {
+            Cipher cipher = getCipher(Cipher.DECRYPT_MODE, key, iv, mode, padding);
+            //解密
+            return cipher.doFinal(in, out);
+        } catch (Exception e) {
+            throw new CipherException("SM4 decrypt error", e);
+        }
+    }
+
+    /**
+     * SM4解密（写入调用方提供的数组，可复用缓冲区，不分配新的结果数组，in和out可以是同一个数组）
+     * @param in 密文
+     * @param inOffset 密文的起始位置
+     * @param inLength 密文的长度
+     * @param out 明文，从outOffset开始写入，剩余空间不足时抛出异常，所需长度见{@link #getOutputSize(int, Mode, Padding)}
+     * @param outOffset 明文写入的起始位置
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 写入out的字节数
+     */
+    public static int decrypt(byte[] in, int inOffset, int inLength, byte[] out, int outOffset, byte[] key, String iv, Mode mode, Padding padding) {
+        check(inLength, key, iv, mode, padding);
+        try {
+            Cipher cipher = getCipher(Cipher.DECRYPT_MODE, key, iv, mode, padding);
+            //解密
+            return cipher.doFinal(in, inOffset, inLength, out, outOffset);
+        } catch (Exception e) {
+            throw new CipherException("SM4 decrypt error", e);
+        }
+    }
+
+    /**
+     * SM4文件解密（按块流式处理，内存占用与文件大小无关，大文件使用内存映射读取）
+     * @param in 密文文件
+     * @param out 明文文件，已存在时覆盖，解密失败时删除
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 明文文件长度
+     */
+    public static long decryptFile(Path in, Path out, byte[] key, String iv, Mode mode, Padding padding) {
+        try {
+            check(Files.size(in), key, iv, mode, padding);
+            Cipher cipher = getCipher(Cipher.DECRYPT_MODE, key, iv, mode, padding);
+            return CipherFileHandler.handle(cipher, in, out);
+        } catch (CipherException e) {
+            throw e;
+        } catch (Exception e) {
+            deleteQuietly(out);
+            throw new CipherException("SM4 file decrypt error", e);
+        }
+    }
+
+    /**
+     * SM4认证解密（使用SM4/GCM/NoPadding方式，认证标签长度128位）
+     * @param data 密文（末尾附带认证标签）
+     * @param key 密钥，长度必须是16位
+     * @param nonce 随机数，推荐12字节，同一密钥下不能重复使用
+     * @param aad 附加认证数据，不加密但参与认证，可以为null
+     * @return 明文
+     */
+    public static byte[] decryptGCM(byte[] data, byte[] key, byte[] nonce, byte[] aad) {
+        return decrypt(data, key, nonce, aad, 128, Mode.GCM);
+    }
+
+    /**
+     * SM4认证解密（AEAD，GCM或CCM模式，只支持NoPadding），认证失败时抛出异常
+     * @param data 密文（末尾附带认证标签）
+     * @param key 密钥，长度必须是16位
+     * @param nonce 随机数，GCM推荐12字节，CCM为7~13字节，同一密钥下不能重复使用（JDK的GCM实现在同一线程内重复使用时会直接报错）
+     * @param aad 附加认证数据，不加密但参与认证，可以为null
+     * @param tagLength 认证标签长度（位），GCM可选96、104、112、120、128，CCM可选32~128之间16的倍数
+     * @param mode 密码块工作模式，GCM或CCM
+     * @return 明文
+     */
+    public static byte[] decrypt(byte[] data, byte[] key, byte[] nonce, byte[] aad, int tagLength, Mode mode) {
+        checkKey(key);
+        checkAead(nonce, tagLength, mode);
+        try {
+            Cipher cipher = getAeadCipher(Cipher.DECRYPT_MODE, key, nonce, aad, tagLength, mode);
+            //解密
+            return cipher.doFinal(data);
+        } catch (Exception e) {
+            throw new CipherException("SM4 decrypt error", e);
+        }
+    }
+
+    /**
+     * SM4加密输出流（按块流式处理，内存占用与数据大小无关），写入的明文加密后写入out，关闭时写出最后一块
+     * 使用独占的Cipher，流可以跨调用持有，但非线程安全；加密失败时抛出{@link CipherException}
+     * @param out 密文输出流，随返回的流一起关闭
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 明文输出流
+     */
+    public static OutputStream encryptingStream(OutputStream out, byte[] key, String iv, Mode mode, Padding padding) {
+        return encryptingStream(out, key, iv, mode, padding, ChunkedCipherOutputStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * SM4加密输出流（按块流式处理，内存占用与数据大小无关），写入的明文加密后写入out，关闭时写出最后一块
+     * @param out 密文输出流，随返回的流一起关闭
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @param chunkSize 分块大小（字节），单次Cipher.update处理的最大数据量
+     * @return 明文输出流
+     */
+    public static OutputStream encryptingStream(OutputStream out, byte[] key, String iv, Mode mode, Padding padding, int chunkSize) {
+        check(0, key, iv, mode, padding);
+        try {
+            return new ChunkedCipherOutputStream(out, newCipher(Cipher.ENCRYPT_MODE, key, iv, mode, padding), chunkSize);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("SM4 encrypt error", e);
+        }
+    }
+
+    /**
+     * SM4解密输入流（按块流式处理，内存占用与数据大小无关），从in读取密文，返回解密后的明文
+     * 使用独占的Cipher，流可以跨调用持有，但非线程安全；解密失败（如填充错误）时抛出{@link CipherException}
+     * @param in 密文输入流，随返回的流一起关闭
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 明文输入流
+     */
+    public static InputStream decryptingStream(InputStream in, byte[] key, String iv, Mode mode, Padding padding) {
+        return decryptingStream(in, key, iv, mode, padding, ChunkedCipherOutputStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * SM4解密输入流（按块流式处理，内存占用与数据大小无关），从in读取密文，返回解密后的明文
+     * @param in 密文输入流，随返回的流一起关闭
+     * @param key 密钥，长度必须是16位
+     * @param iv 偏移量，长度必须为16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @param chunkSize 分块大小（字节），单次从in读取的最大数据量
+     * @return 明文输入流
+     */
+    public static InputStream decryptingStream(InputStream in, byte[] key, String iv, Mode mode, Padding padding, int chunkSize) {
+        check(0, key, iv, mode, padding);
+        try {
+            return new ChunkedCipherInputStream(in, newCipher(Cipher.DECRYPT_MODE, key, iv, mode, padding), chunkSize);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException("SM4 decrypt error", e);
+        }
+    }
+
+    /**
+     * 计算SM4加解密结果的最大长度，用于预先分配输出数组
+     * 有填充时加密结果为补齐到块长的整数倍（数据长度正好是块长整数倍时增加一个块），解密结果不超过密文长度，这里统一返回两者中较大的值
+     * @param inputLength 明文或者密文长度
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 输出数组所需的长度
+     */
+    public static int getOutputSize(int inputLength, Mode mode, Padding padding) {
+        checkModeAndPadding(mode, padding);
+        return CipherContext.getOutputSize(inputLength, padding, 16);
+    }
+
+    /**
+     * 批量加密，密钥校验和初始化只执行一次，每个元素只重新设置偏移量，单个元素失败不影响其他元素
+     * 使用CipherPool中当前线程缓存的Cipher，多次调用之间不重复创建Cipher；同一密钥反复调用时可以使用prepare返回的上下文
+     * @param data 明文列表
+     * @param key 密钥，长度必须是16位
+     * @param ivs 偏移量列表，与明文一一对应，不使用偏移量时传null
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 加密结果，包含每个元素的密文和失败原因
+     */
+    public static BatchResult encryptAll(List<byte[]> data, byte[] key, List<String> ivs, Mode mode, Padding padding) {
+        return prepare(key, mode, padding).encryptAllPooled(data, ivs);
+    }
+
+    /**
+     * 批量解密，密钥校验和初始化只执行一次，每个元素只重新设置偏移量，单个元素失败不影响其他元素
+     * 使用CipherPool中当前线程缓存的Cipher，多次调用之间不重复创建Cipher；同一密钥反复调用时可以使用prepare返回的上下文
+     * @param data 密文列表
+     * @param key 密钥，长度必须是16位
+     * @param ivs 偏移量列表，与密文一一对应，不使用偏移量时传null
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 解密结果，包含每个元素的明文和失败原因
+     */
+    public static BatchResult decryptAll(List<byte[]> data, byte[] key, List<String> ivs, Mode mode, Padding padding) {
+        return prepare(key, mode, padding).decryptAllPooled(data, ivs);
+    }
+
+    /**
+     * 预处理SM4密钥，创建绑定密钥、密码块工作模式和填充方式的加解密上下文（线程安全，可复用）
+     * 密钥校验和密钥初始化只执行一次，适合同一密钥加解密大量数据的场景，偏移量在每次加解密时传入
+     * @param key 密钥，长度必须是16位
+     * @param mode 密码块工作模式
+     * @param padding 填充方式
+     * @return 加解密上下文
+     */
+    public static CipherContext prepare(byte[] key, Mode mode, Padding padding) {
+        checkKey(key);
+        checkModeAndPadding(mode, padding);
+        return new CipherContext(Algorithm.SM4, getSecretKeySpec(key), mode, padding, 16, 16);
+    }
+
     /**
      * 生成SM4的Key，密钥长度为 128
      * @return 密钥
@@ -261,13 +616,68 @@ public class SM4Utils {
         }
     }
 
+    /**
+     * 获取初始化之后的密码器
+     * @param opmode 加密或者解密
+     */
+    private static Cipher getCipher(int opmode, byte[] key, String iv, Mode mode, Padding padding) throws GeneralSecurityException {
+        String algorithm = Algorithm.getAlgorithm(Algorithm.SM4, mode, padding);
+        // 获取线程缓存的密码器并初始化
+        return CipherPool.getCipher(algorithm, opmode, getSecretKeySpec(key), getIvParameterSpec(iv));
+    }
+
+    /**
+     * 创建并初始化独占的密码器（不使用线程缓存，可以跨调用持有）
+     * @param opmode 加密或者解密
+     */
+    private static Cipher newCipher(int opmode, byte[] key, String iv, Mode mode, Padding padding) throws GeneralSecurityException {
+        String algorithm = Algorithm.getAlgorithm(Algorithm.SM4, mode, padding);
+        return initCipher(CipherPool.newCipher(algorithm, null), opmode, key, iv);
+    }
+
+    private static Cipher initCipher(Cipher cipher, int opmode, byte[] key, String iv) throws GeneralSecurityException {
+        SecretKeySpec secretKeySpec = getSecretKeySpec(key);
+        // 初始化
+        if (StringUtils.isNotEmpty(iv)) {
+            cipher.init(opmode, secretKeySpec, getIvParameterSpec(iv));
+        } else {
+            cipher.init(opmode, secretKeySpec);
+        }
+        return cipher;
+    }
+
+    private static IvParameterSpec getIvParameterSpec(String iv) {
+        return StringUtils.isEmpty(iv) ? null : new IvParameterSpec(iv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 获取初始化之后的认证加密密码器
+     * @param opmode 加密或者解密
+     */
+    private static Cipher getAeadCipher(int opmode, byte[] key, byte[] nonce, byte[] aad, int tagLength, Mode mode) throws GeneralSecurityException {
+        String algorithm = Algorithm.getAlgorithm(Algorithm.SM4, mode, Padding.NoPadding);
+        Cipher cipher = CipherPool.getCipher(algorithm, opmode, getSecretKeySpec(key), new GCMParameterSpec(tagLength, nonce));
+        if (aad != null && aad.length > 0) {
+            cipher.updateAAD(aad);
+        }
+        return cipher;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
     private static SecretKeySpec getSecretKeySpec(byte[] key) {
         return new SecretKeySpec(key, Algorithm.SM4.getAlgorithm());
     }
 
-    private static void check(byte[] data, byte[] key, String iv, Mode mode, Padding padding) {
+    private static void check(long dataLength, byte[] key, String iv, Mode mode, Padding padding) {
         checkKey(key);
-        checkModeAndPadding(data, mode, padding);
+        checkModeAndPadding(mode, padding);
+        checkData(dataLength, mode, padding);
         if (StringUtils.isNotEmpty(iv)) {
             checkIv(iv);
             if (mode == Mode.ECB) {
@@ -279,19 +689,51 @@ public class SM4Utils {
     /**
      * 校验SM4密码块工作模式和填充模式
      */
-    private static void checkModeAndPadding(byte[] data, Mode mode, Padding padding) {
+    private static void checkModeAndPadding(Mode mode, Padding padding) {
         if (mode == Mode.NONE) {
             throw new CipherException("invalid SM4 mode");
         }
+        if (mode == Mode.GCM || mode == Mode.CCM) {
+            throw new CipherException("SM4 {} mode requires a nonce, use the AEAD api with nonce, aad and tag length", mode);
+        }
         if (padding == Padding.SSL3Padding || padding == Padding.PKCS1Padding) {
             throw new CipherException("invalid SM4 padding");
         }
-        boolean is16NotSupport = padding == Padding.NoPadding && (mode == Mode.ECB || mode == Mode.CBC) && data.length % 16 != 0;
+    }
+
+    /**
+     * 校验SM4数据长度，NoPadding填充时ECB和CBC模式下数据长度必须是16的整数倍
+     */
+    private static void checkData(long dataLength, Mode mode, Padding padding) {
+        boolean is16NotSupport = padding == Padding.NoPadding && (mode == Mode.ECB || mode == Mode.CBC) && dataLength % 16 != 0;
         if (is16NotSupport) {
             throw new CipherException("data length must be multiple of 16 bytes on ECB/NoPadding or CBC/NoPadding mode");
         }
     }
 
+    /**
+     * 校验SM4认证加密参数
+     */
+    private static void checkAead(byte[] nonce, int tagLength, Mode mode) {
+        if (mode != Mode.GCM && mode != Mode.CCM) {
+            throw new CipherException("invalid SM4 AEAD mode, must be GCM or CCM");
+        }
+        if (nonce == null || nonce.length == 0) {
+            throw new CipherException("SM4 nonce cannot be empty");
+        }
+        if (mode == Mode.GCM && (tagLength < 96 || tagLength > 128 || tagLength % 8 != 0)) {
+            throw new CipherException("SM4 GCM tag length must be one of 96, 104, 112, 120, 128");
+        }
+        if (mode == Mode.CCM) {
+            if (nonce.length < 7 || nonce.length > 13) {
+                throw new CipherException("SM4 CCM nonce not 7~13 bytes long");
+            }
+            if (tagLength < 32 || tagLength > 128 || tagLength % 16 != 0) {
+                throw new CipherException("SM4 CCM tag length must be a multiple of 16 between 32 and 128");
+            }
+        }
+    }
+
     /**
      * 校验SM4密钥，长度必须是16位
      */
@@ -0,0 +1,147 @@
+package com.dxy.library.util.cipher.utils;
+
+import java.util.Arrays;
+
+/**
+ * Base64编解码工具类
+ * 编码结果与commons-codec的Base64.encodeBase64String一致（标准字母表，有填充，不换行），直接从字节写入结果字符串，不产生中间数组
+ * 解码与commons-codec的Base64.decodeBase64一样宽松：同时支持标准和URL安全字母表，忽略空白等无效字符，遇到填充符结束，允许缺少填充
+ * @author duanxinyuan
+ * 2026/10/18 16:35
+ */
+public class Base64Utils {
+
+    private static final char[] ENCODE_TABLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    //解码表，无效字符为-1
+    private static final byte[] DECODE_TABLE = new byte[128];
+
+    //线程内复用的编码缓冲区的最大长度（字符，64KB），与TextCipherUtils.MAX_FUSED_LENGTH一致，超过时临时分配，避免每个线程长期占用大数组
+    private static final int MAX_SCRATCH_LENGTH = 32 * 1024;
+
+    //线程内复用的编码缓冲区
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[256]);
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        for (int i = 0; i < ENCODE_TABLE.length; i++) {
+            DECODE_TABLE[ENCODE_TABLE[i]] = (byte) i;
+        }
+        //URL安全字母表
+        DECODE_TABLE['-'] = 62;
+        DECODE_TABLE['_'] = 63;
+    }
+
+    /**
+     * Base64编码
+     * @param data 被编码的内容
+     */
+    public static String encode(byte[] data) {
+        return encode(data, 0, data.length);
+    }
+
+    /**
+     * Base64编码
+     * @param data 被编码的内容
+     * @param offset 起始位置
+     * @param length 长度
+     */
+    public static String encode(byte[] data, int offset, int length) {
+        int encodedLength = getEncodedLength(length);
+        char[] chars = encodedLength <= MAX_SCRATCH_LENGTH ? getScratch(encodedLength) : new char[encodedLength];
+        int end = offset + length;
+        int position = 0;
+        int i = offset;
+        for (; i + 3 <= end; i += 3) {
+            int bits = (data[i] & 0xFF) << 16 | (data[i + 1] & 0xFF) << 8 | (data[i + 2] & 0xFF);
+            chars[position++] = ENCODE_TABLE[bits >>> 18];
+            chars[position++] = ENCODE_TABLE[(bits >>> 12) & 0x3F];
+            chars[position++] = ENCODE_TABLE[(bits >>> 6) & 0x3F];
+            chars[position++] = ENCODE_TABLE[bits & 0x3F];
+        }
+        int remaining = end - i;
+        if (remaining > 0) {
+            int bits = (data[i] & 0xFF) << 16 | (remaining == 2 ? (data[i + 1] & 0xFF) << 8 : 0);
+            chars[position++] = ENCODE_TABLE[bits >>> 18];
+            chars[position++] = ENCODE_TABLE[(bits >>> 12) & 0x3F];
+            chars[position++] = remaining == 2 ? ENCODE_TABLE[(bits >>> 6) & 0x3F] : '=';
+            chars[position++] = '=';
+        }
+        return new String(chars, 0, position);
+    }
+
+    /**
+     * Base64解码
+     * @param data 被解码的内容
+     */
+    public static byte[] decode(String data) {
+        byte[] bytes = new byte[getMaxDecodedLength(data.length())];
+        int length = decode(data, bytes, 0);
+        return length == bytes.length ? bytes : Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Base64解码，写入调用方提供的数组
+     * @param data 被解码的内容
+     * @param out 解码结果，从offset开始写入，所需长度见{@link #getMaxDecodedLength(int)}
+     * @param offset 写入的起始位置
+     * @return 写入out的字节数
+     */
+    public static int decode(String data, byte[] out, int offset) {
+        int position = offset;
+        int bits = 0;
+        int count = 0;
+        for (int i = 0; i < data.length(); i++) {
+            char c = data.charAt(i);
+            if (c == '=') {
+                break;
+            }
+            int value = c < 128 ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                continue;
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                out[position++] = (byte) (bits >> 16);
+                out[position++] = (byte) (bits >> 8);
+                out[position++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        //剩余1个字符不足一个字节，忽略
+        if (count == 2) {
+            out[position++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            out[position++] = (byte) (bits >> 10);
+            out[position++] = (byte) (bits >> 2);
+        }
+        return position - offset;
+    }
+
+    /**
+     * 编码后的长度
+     * @param length 被编码内容的长度
+     */
+    public static int getEncodedLength(int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * 解码后的最大长度
+     * @param length 被解码内容的长度（字符）
+     */
+    public static int getMaxDecodedLength(int length) {
+        return length / 4 * 3 + 2;
+    }
+
+    private static char[] getScratch(int length) {
+        char[] chars = SCRATCH.get();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, Math.min(chars.length * 2, MAX_SCRATCH_LENGTH))];
+            SCRATCH.set(chars);
+        }
+        return chars;
+    }
+
+}
@@ -1,7 +1,5 @@
 package com.dxy.library.util.cipher.utils;
 
-import org.apache.commons.codec.binary.Base64;
-
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 
@@ -17,7 +15,7 @@ public class KeyEncodedUtils {
      * @param bytes 被编码的内容
      */
     public static String encodePkcs8Base64(byte[] bytes) {
-        return Base64.encodeBase64String(encodePkcs8(bytes));
+        return Base64Utils.encode(encodePkcs8(bytes));
     }
 
     /**
@@ -34,7 +32,7 @@ public class KeyEncodedUtils {
      * @param bytes 被编码的内容
      */
     public static String encodeX509Base64(byte[] bytes) {
-        return Base64.encodeBase64String(encodeX509(bytes));
+        return Base64Utils.encode(encodeX509(bytes));
     }
 
     /**
@@ -0,0 +1,142 @@
+package com.dxy.library.util.cipher.utils;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * 文本加解密工具类
+ * 字符串 → UTF-8 → 加密 → Base64 在同一个线程内复用的缓冲区中完成：UTF-8编码直接写入缓冲区，密文写入同一缓冲区的后半段，
+ * 再由{@link Base64Utils}直接编码成结果字符串，每次调用只分配结果字符串本身；解密反向处理
+ * 明文与密文位于缓冲区中互不重叠的区域，Provider不需要为原地处理再做防御性拷贝
+ * 字符集固定为UTF-8，与平台默认字符集无关
+ * @author duanxinyuan
+ * 2026/10/18 16:50
+ */
+public class TextCipherUtils {
+
+    //走复用缓冲区的最大文本长度（字符），更长的文本由调用方走字节数组接口（数据量较大时可以分段并行处理）
+    public static final int MAX_FUSED_LENGTH = 32 * 1024;
+
+    //线程内复用的缓冲区的最大长度（96KB，即MAX_FUSED_LENGTH个字符UTF-8编码后的最大长度），超过时临时分配，避免每个线程长期占用大数组
+    private static final int MAX_SCRATCH_LENGTH = MAX_FUSED_LENGTH * 3;
+
+    //线程内复用的缓冲区
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[512]);
+
+    /**
+     * 根据数据长度获取已初始化的Cipher，可在其中校验数据长度
+     */
+    @FunctionalInterface
+    public interface CipherSupplier {
+
+        /**
+         * @param dataLength 待处理数据的长度（字节）
+         */
+        Cipher get(int dataLength) throws GeneralSecurityException;
+
+    }
+
+    /**
+     * 是否可以走复用缓冲区
+     * @param data 明文或者密文（Base64编码）
+     */
+    public static boolean isFusible(String data) {
+        return data.length() <= MAX_FUSED_LENGTH;
+    }
+
+    /**
+     * 加密
+     * @param data 明文
+     * @param supplier 根据明文长度（UTF-8编码后）获取已初始化的Cipher
+     * @return 密文（Base64编码）
+     */
+    public static String encrypt(String data, CipherSupplier supplier) throws GeneralSecurityException {
+        byte[] buffer = getScratch(data.length() * 3);
+        int dataLength = encodeUtf8(data, buffer);
+        Cipher cipher = supplier.get(dataLength);
+        buffer = ensureCapacity(buffer, dataLength, dataLength + cipher.getOutputSize(dataLength));
+        int length = cipher.doFinal(buffer, 0, dataLength, buffer, dataLength);
+        return Base64Utils.encode(buffer, dataLength, length);
+    }
+
+    /**
+     * 解密
+     * @param data 密文（Base64编码）
+     * @param supplier 根据密文长度（Base64解码后）获取已初始化的Cipher
+     * @return 明文
+     */
+    public static String decrypt(String data, CipherSupplier supplier) throws GeneralSecurityException {
+        byte[] buffer = getScratch(Base64Utils.getMaxDecodedLength(data.length()));
+        int dataLength = Base64Utils.decode(data, buffer, 0);
+        Cipher cipher = supplier.get(dataLength);
+        buffer = ensureCapacity(buffer, dataLength, dataLength + cipher.getOutputSize(dataLength));
+        int length = cipher.doFinal(buffer, 0, dataLength, buffer, dataLength);
+        return new String(buffer, dataLength, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * UTF-8编码，结果与String.getBytes(StandardCharsets.UTF_8)一致（不成对的代理字符替换为'?'）
+     * @param data 文本
+     * @param out 编码结果，长度不小于文本长度的3倍
+     * @return 写入out的字节数
+     */
+    static int encodeUtf8(String data, byte[] out) {
+        int position = 0;
+        int length = data.length();
+        for (int i = 0; i < length; i++) {
+            char c = data.charAt(i);
+            if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | c >> 6);
+                out[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(data.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, data.charAt(++i));
+                    out[position++] = (byte) (0xF0 | codePoint >> 18);
+                    out[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    out[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    out[position++] = (byte) (0x80 | codePoint & 0x3F);
+                } else {
+                    out[position++] = '?';
+                }
+            } else {
+                out[position++] = (byte) (0xE0 | c >> 12);
+                out[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                out[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return position;
+    }
+
+    private static byte[] getScratch(int length) {
+        if (length > MAX_SCRATCH_LENGTH) {
+            return new byte[length];
+        }
+        byte[] buffer = SCRATCH.get();
+        if (buffer.length < length) {
+            buffer = newScratch(buffer.length, length);
+        }
+        return buffer;
+    }
+
+    /**
+     * 缓冲区长度不足时扩容，保留前dataLength字节，不超过最大长度时替换线程内复用的缓冲区，否则临时分配
+     */
+    private static byte[] ensureCapacity(byte[] buffer, int dataLength, int capacity) {
+        if (buffer.length >= capacity) {
+            return buffer;
+        }
+        byte[] newBuffer = capacity > MAX_SCRATCH_LENGTH ? new byte[capacity] : newScratch(buffer.length, capacity);
+        System.arraycopy(buffer, 0, newBuffer, 0, dataLength);
+        return newBuffer;
+    }
+
+    private static byte[] newScratch(int currentLength, int length) {
+        byte[] buffer = new byte[Math.max(length, Math.min(currentLength * 2, MAX_SCRATCH_LENGTH))];
+        SCRATCH.set(buffer);
+        return buffer;
+    }
+
+}
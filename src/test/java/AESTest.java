@@ -1,11 +1,35 @@
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
 import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.constant.Mode;
 import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.pojo.BatchResult;
+import com.dxy.library.util.cipher.pool.CipherPool;
 import com.dxy.library.util.cipher.symmetry.AESUtils;
+import com.dxy.library.util.cipher.symmetry.CipherContext;
+import com.dxy.library.util.cipher.symmetry.ParallelCipher;
+import com.dxy.library.util.cipher.utils.TextCipherUtils;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author duanxinyuan
@@ -73,4 +97,285 @@ public class AESTest {
 
     }
 
+    @Test
+    public void testPool() {
+        String pooled = AESUtils.encrypt(content, key, iv);
+        CipherPool.setEnabled(false);
+        try {
+            Assert.assertEquals(pooled, AESUtils.encrypt(content, key, iv));
+            Assert.assertEquals(content, AESUtils.decrypt(pooled, key, iv));
+        } finally {
+            CipherPool.setEnabled(true);
+        }
+        Assert.assertEquals(content, AESUtils.decrypt(pooled, key, iv));
+    }
+
+    @Test
+    public void testPrepare() {
+        CipherContext context = AESUtils.prepare(key.getBytes(), Mode.CBC, Padding.PKCS7Padding);
+        for (int i = 0; i < 3; i++) {
+            byte[] encrypt = context.encrypt(content.getBytes(), iv);
+            Assert.assertArrayEquals(AESUtils.encrypt(content.getBytes(), key.getBytes(), iv), encrypt);
+            Assert.assertEquals(content, new String(context.decrypt(encrypt, iv)));
+        }
+        CipherContext ecb = AESUtils.prepare(key.getBytes(), Mode.ECB, Padding.NoPadding);
+        Assert.assertArrayEquals(AESUtils.encrypt(content.getBytes(), key.getBytes(), Mode.ECB, Padding.NoPadding), ecb.encrypt(content.getBytes()));
+    }
+
+    @Test
+    public void testByteBuffer() {
+        byte[] expected = AESUtils.encrypt(content.getBytes(), key.getBytes(), iv);
+        ByteBuffer in = ByteBuffer.allocateDirect(64);
+        in.put(content.getBytes()).flip();
+        ByteBuffer out = ByteBuffer.allocateDirect(64);
+        int length = AESUtils.encrypt(in, out, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+        Assert.assertEquals(expected.length, length);
+        out.flip();
+        byte[] encrypt = new byte[length];
+        out.duplicate().get(encrypt);
+        Assert.assertArrayEquals(expected, encrypt);
+
+        ByteBuffer plain = ByteBuffer.allocateDirect(64);
+        AESUtils.decrypt(out, plain, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+        plain.flip();
+        byte[] decrypt = new byte[plain.remaining()];
+        plain.get(decrypt);
+        Assert.assertEquals(content, new String(decrypt));
+    }
+
+    @Test
+    public void testFile() throws IOException {
+        for (int size : new int[]{1000, 17 * 1024 * 1024 + 5}) {
+            byte[] data = new byte[size];
+            new Random(size).nextBytes(data);
+            Path plain = Files.createTempFile("aes", ".txt");
+            Path encrypt = Files.createTempFile("aes", ".enc");
+            Path decrypt = Files.createTempFile("aes", ".dec");
+            try {
+                Files.write(plain, data);
+                AESUtils.encryptFile(plain, encrypt, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+                Assert.assertArrayEquals(AESUtils.encrypt(data, key.getBytes(), iv), Files.readAllBytes(encrypt));
+                AESUtils.decryptFile(encrypt, decrypt, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+                Assert.assertArrayEquals(data, Files.readAllBytes(decrypt));
+            } finally {
+                Files.deleteIfExists(plain);
+                Files.deleteIfExists(encrypt);
+                Files.deleteIfExists(decrypt);
+            }
+        }
+    }
+
+    @Test
+    public void testAead() {
+        byte[] nonce = "0123456789AB".getBytes();
+        byte[] aad = "header".getBytes();
+        byte[] encrypt = AESUtils.encryptGCM(content.getBytes(), key.getBytes(), nonce, aad);
+        Assert.assertEquals(content.length() + 16, encrypt.length);
+        Assert.assertEquals(content, new String(AESUtils.decryptGCM(encrypt, key.getBytes(), nonce, aad)));
+        try {
+            AESUtils.decryptGCM(encrypt, key.getBytes(), nonce, "other".getBytes());
+            Assert.fail();
+        } catch (CipherException ignored) {
+        }
+
+        byte[] ccm = AESUtils.encrypt(content.getBytes(), key.getBytes(), nonce, aad, 64, Mode.CCM);
+        Assert.assertEquals(content.length() + 8, ccm.length);
+        Assert.assertEquals(content, new String(AESUtils.decrypt(ccm, key.getBytes(), nonce, aad, 64, Mode.CCM)));
+    }
+
+    @Test
+    public void testParallelCtr() {
+        byte[] data = new byte[3 * 1024 * 1024 + 7];
+        new Random(1).nextBytes(data);
+        int threshold = ParallelCipher.getCtrThreshold();
+        ParallelCipher.setCtrThreshold(Integer.MAX_VALUE);
+        byte[] serial = AESUtils.encrypt(data, key.getBytes(), iv, Mode.CTR, Padding.NoPadding);
+        ParallelCipher.setCtrThreshold(threshold);
+
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        try {
+            byte[] encrypt = AESUtils.encrypt(data, key.getBytes(), iv, Mode.CTR, Padding.NoPadding);
+            Assert.assertArrayEquals(serial, encrypt);
+            Assert.assertArrayEquals(data, AESUtils.decrypt(encrypt, key.getBytes(), iv, Mode.CTR, Padding.NoPadding));
+        } finally {
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Test
+    public void testParallelEcb() {
+        byte[] data = new byte[1024 * 1024 + 3];
+        new Random(2).nextBytes(data);
+        byte[] aligned = Arrays.copyOf(data, 1024 * 1024);
+        int threshold = ParallelCipher.getEcbThreshold();
+        ParallelCipher.setEcbThreshold(Integer.MAX_VALUE);
+        byte[] serial = AESUtils.encrypt(data, key.getBytes(), Mode.ECB, Padding.PKCS5Padding);
+        byte[] serialAligned = AESUtils.encrypt(aligned, key.getBytes(), Mode.ECB, Padding.NoPadding);
+        ParallelCipher.setEcbThreshold(threshold);
+
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        try {
+            byte[] encrypt = AESUtils.encrypt(data, key.getBytes(), Mode.ECB, Padding.PKCS5Padding);
+            Assert.assertArrayEquals(serial, encrypt);
+            Assert.assertArrayEquals(data, AESUtils.decrypt(encrypt, key.getBytes(), Mode.ECB, Padding.PKCS5Padding));
+            byte[] encryptAligned = AESUtils.encrypt(aligned, key.getBytes(), Mode.ECB, Padding.NoPadding);
+            Assert.assertArrayEquals(serialAligned, encryptAligned);
+            Assert.assertArrayEquals(aligned, AESUtils.decrypt(encryptAligned, key.getBytes(), Mode.ECB, Padding.NoPadding));
+        } finally {
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Test
+    public void testParallelCbcDecrypt() {
+        byte[] data = new byte[1024 * 1024 + 5];
+        new Random(3).nextBytes(data);
+        byte[] encrypt = AESUtils.encrypt(data, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+        byte[] aligned = Arrays.copyOf(data, 1024 * 1024);
+        byte[] encryptAligned = AESUtils.encrypt(aligned, key.getBytes(), iv, Mode.CBC, Padding.NoPadding);
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        try {
+            Assert.assertArrayEquals(data, AESUtils.decrypt(encrypt, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding));
+            Assert.assertArrayEquals(aligned, AESUtils.decrypt(encryptAligned, key.getBytes(), iv, Mode.CBC, Padding.NoPadding));
+        } finally {
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        List<byte[]> data = new ArrayList<>();
+        List<String> ivs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            data.add((content + i).getBytes());
+            ivs.add(String.format("%016d", i));
+        }
+        //偏移量长度错误
+        ivs.set(10, "0102");
+        BatchResult encrypted = AESUtils.encryptAll(data, key.getBytes(), ivs, Mode.CBC, Padding.PKCS7Padding);
+        Assert.assertFalse(encrypted.isSuccess());
+        Assert.assertEquals(Collections.singleton(10), encrypted.getErrors().keySet());
+        Assert.assertNull(encrypted.get(10));
+        for (int i = 0; i < data.size(); i++) {
+            if (i != 10) {
+                Assert.assertArrayEquals(AESUtils.encrypt(data.get(i), key.getBytes(), ivs.get(i), Mode.CBC, Padding.PKCS7Padding), encrypted.get(i));
+            }
+        }
+
+        List<byte[]> ciphertexts = new ArrayList<>(encrypted.getResults());
+        //密文被截断，去除填充失败
+        ciphertexts.set(10, Arrays.copyOf(ciphertexts.get(0), 8));
+        ivs.set(10, ivs.get(0));
+        BatchResult decrypted = AESUtils.decryptAll(ciphertexts, key.getBytes(), ivs, Mode.CBC, Padding.PKCS7Padding);
+        Assert.assertEquals(Collections.singleton(10), decrypted.getErrors().keySet());
+        for (int i = 0; i < data.size(); i++) {
+            if (i != 10) {
+                Assert.assertArrayEquals(data.get(i), decrypted.get(i));
+            }
+        }
+
+        BatchResult ecb = AESUtils.encryptAll(data.subList(0, 10), key.getBytes(), null, Mode.ECB, Padding.PKCS7Padding);
+        Assert.assertTrue(ecb.isSuccess());
+        Assert.assertArrayEquals(AESUtils.encrypt(data.get(3), key.getBytes(), Mode.ECB, Padding.PKCS7Padding), ecb.get(3));
+    }
+
+    @Test
+    public void testOutputArray() {
+        byte[] data = (content + content + "0123").getBytes();
+        Mode[] modes = {Mode.CBC, Mode.ECB, Mode.CTR};
+        Padding[] paddings = {Padding.PKCS7Padding, Padding.PKCS5Padding, Padding.NoPadding};
+        for (int i = 0; i < modes.length; i++) {
+            String modeIv = modes[i] == Mode.ECB ? null : iv;
+            byte[] expected = AESUtils.encrypt(data, key.getBytes(), modeIv, modes[i], paddings[i]);
+            byte[] out = new byte[AESUtils.getOutputSize(data.length, modes[i], paddings[i]) + 3];
+            int length = AESUtils.encrypt(data, 0, data.length, out, 3, key.getBytes(), modeIv, modes[i], paddings[i]);
+            Assert.assertArrayEquals(expected, Arrays.copyOfRange(out, 3, 3 + length));
+
+            byte[] decrypted = new byte[AESUtils.getOutputSize(length, modes[i], paddings[i])];
+            int decryptedLength = AESUtils.decrypt(out, 3, length, decrypted, 0, key.getBytes(), modeIv, modes[i], paddings[i]);
+            Assert.assertArrayEquals(data, Arrays.copyOf(decrypted, decryptedLength));
+        }
+
+        //原地加解密，复用同一个数组
+        CipherContext context = AESUtils.prepare(key.getBytes(), Mode.CBC, Padding.PKCS7Padding);
+        byte[] buffer = Arrays.copyOf(data, context.getOutputSize(data.length));
+        int length = context.encrypt(buffer, 0, data.length, buffer, 0, iv.getBytes());
+        Assert.assertArrayEquals(context.encrypt(data, iv), Arrays.copyOf(buffer, length));
+        Assert.assertEquals(data.length, context.decrypt(buffer, 0, length, buffer, 0, iv.getBytes()));
+        Assert.assertArrayEquals(data, Arrays.copyOf(buffer, data.length));
+    }
+
+    @Test
+    public void testText() {
+        String text = "中文😀混合text，" + content;
+        byte[] expected = AESUtils.encrypt(text.getBytes(StandardCharsets.UTF_8), key.getBytes(), iv, Mode.CBC, Padding.PKCS5Padding);
+        String encrypt = AESUtils.encrypt(text, key, iv, Mode.CBC, Padding.PKCS5Padding);
+        Assert.assertArrayEquals(expected, Base64.decodeBase64(encrypt));
+        Assert.assertEquals(text, AESUtils.decrypt(encrypt, key, iv, Mode.CBC, Padding.PKCS5Padding));
+        Assert.assertEquals(text, AESUtils.decrypt(AESUtils.encrypt(text, key), key));
+
+        //超长文本走字节数组接口
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() <= TextCipherUtils.MAX_FUSED_LENGTH) {
+            builder.append(text);
+        }
+        String longText = builder.toString();
+        Assert.assertEquals(longText, AESUtils.decrypt(AESUtils.encrypt(longText, key, iv), key, iv));
+
+        //复用缓冲区长度上限附近：ASCII文本使用复用缓冲区，中文文本超出上限临时分配
+        for (String fused : new String[]{longText.substring(longText.length() - TextCipherUtils.MAX_FUSED_LENGTH), StringUtils.repeat("中", TextCipherUtils.MAX_FUSED_LENGTH), StringUtils.repeat("a", TextCipherUtils.MAX_FUSED_LENGTH)}) {
+            String encrypted = AESUtils.encrypt(fused, key, iv);
+            Assert.assertArrayEquals(AESUtils.encrypt(fused.getBytes(StandardCharsets.UTF_8), key.getBytes(), iv), Base64.decodeBase64(encrypted));
+            Assert.assertEquals(fused, AESUtils.decrypt(encrypted, key, iv));
+        }
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        byte[] data = new byte[300 * 1024 + 7];
+        new Random(6).nextBytes(data);
+        byte[] expected = AESUtils.encrypt(data, key.getBytes(), iv, Mode.CBC, Padding.PKCS5Padding);
+        for (int chunkSize : new int[]{1, 16, 1000, 64 * 1024}) {
+            //混合单字节写入、小块写入和大块写入
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            try (OutputStream out = AESUtils.encryptingStream(encrypted, key.getBytes(), iv, Mode.CBC, Padding.PKCS5Padding, chunkSize)) {
+                out.write(data[0]);
+                out.write(data, 1, 99);
+                out.write(data, 100, data.length - 100);
+            }
+            Assert.assertArrayEquals(expected, encrypted.toByteArray());
+
+            ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+            try (InputStream in = AESUtils.decryptingStream(new ByteArrayInputStream(expected), key.getBytes(), iv, Mode.CBC, Padding.PKCS5Padding, chunkSize)) {
+                Assert.assertEquals(data[0] & 0xFF, in.read());
+                decrypted.write(data[0]);
+                byte[] buffer = new byte[4096];
+                int length;
+                while ((length = in.read(buffer)) != -1) {
+                    decrypted.write(buffer, 0, length);
+                }
+                Assert.assertEquals(-1, in.read());
+            }
+            Assert.assertArrayEquals(data, decrypted.toByteArray());
+        }
+
+        //doFinal的异常不会被吞掉
+        OutputStream out = AESUtils.encryptingStream(new ByteArrayOutputStream(), key.getBytes(), iv, Mode.CBC, Padding.NoPadding);
+        out.write(data, 0, 15);
+        try {
+            out.close();
+            Assert.fail();
+        } catch (CipherException ignored) {
+        }
+        byte[] tampered = Arrays.copyOf(expected, expected.length);
+        tampered[tampered.length - 1] ^= 1;
+        try (InputStream in = AESUtils.decryptingStream(new ByteArrayInputStream(tampered), key.getBytes(), iv, Mode.CBC, Padding.PKCS5Padding)) {
+            byte[] buffer = new byte[4096];
+            while (in.read(buffer) != -1) {
+            }
+            Assert.fail();
+        } catch (CipherException ignored) {
+        }
+    }
+
 }
@@ -0,0 +1,42 @@
+import com.dxy.library.util.cipher.utils.Base64Utils;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author duanxinyuan
+ * 2026/10/18 17:05
+ */
+public class Base64Test {
+
+    @Test
+    public void testEncode() {
+        Random random = new Random(1);
+        for (int length = 0; length < 100; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            String encode = Base64Utils.encode(data);
+            Assert.assertEquals(Base64.encodeBase64String(data), encode);
+            Assert.assertArrayEquals(data, Base64Utils.decode(encode));
+        }
+    }
+
+    @Test
+    public void testDecode() {
+        byte[] data = new byte[64];
+        new Random(2).nextBytes(data);
+        String[] inputs = {
+                Base64.encodeBase64String(data),
+                Base64.encodeBase64URLSafeString(data),
+                new String(Base64.encodeBase64Chunked(data)),
+                " " + Base64.encodeBase64String(data) + "\n",
+                "YQ", "YWI", "YWJj", "YQ==", "YQ==YWJj", "Y", "中文", ""
+        };
+        for (String input : inputs) {
+            Assert.assertArrayEquals(input, Base64.decodeBase64(input), Base64Utils.decode(input));
+        }
+    }
+
+}
@@ -1,11 +1,21 @@
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
 import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.constant.Mode;
 import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.engine.BlowfishCipher;
+import com.dxy.library.util.cipher.pojo.CacheStats;
 import com.dxy.library.util.cipher.symmetry.BlowfishUtils;
+import com.dxy.library.util.cipher.symmetry.ParallelCipher;
+import org.junit.Assert;
 import org.junit.Test;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.time.Clock;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author duanxinyuan
@@ -69,4 +79,100 @@ public class BlowfishTest {
 
     }
 
+    @Test
+    public void testParallelEcb() {
+        byte[] data = new byte[1024 * 1024 + 3];
+        new Random(2).nextBytes(data);
+        byte[] aligned = Arrays.copyOf(data, 1024 * 1024);
+        int threshold = ParallelCipher.getEcbThreshold();
+        ParallelCipher.setEcbThreshold(Integer.MAX_VALUE);
+        byte[] serial = BlowfishUtils.encrypt(data, key.getBytes(), Mode.ECB, Padding.PKCS5Padding);
+        byte[] serialAligned = BlowfishUtils.encrypt(aligned, key.getBytes(), Mode.ECB, Padding.NoPadding);
+        ParallelCipher.setEcbThreshold(threshold);
+
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        try {
+            byte[] encrypt = BlowfishUtils.encrypt(data, key.getBytes(), Mode.ECB, Padding.PKCS5Padding);
+            Assert.assertArrayEquals(serial, encrypt);
+            Assert.assertArrayEquals(data, BlowfishUtils.decrypt(encrypt, key.getBytes(), Mode.ECB, Padding.PKCS5Padding));
+            byte[] encryptAligned = BlowfishUtils.encrypt(aligned, key.getBytes(), Mode.ECB, Padding.NoPadding);
+            Assert.assertArrayEquals(serialAligned, encryptAligned);
+            Assert.assertArrayEquals(aligned, BlowfishUtils.decrypt(encryptAligned, key.getBytes(), Mode.ECB, Padding.NoPadding));
+        } finally {
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Test
+    public void testKeyCache() throws Exception {
+        Random random = new Random(5);
+        byte[] key = new byte[16];
+        byte[] iv = new byte[8];
+        random.nextBytes(key);
+        random.nextBytes(iv);
+        String[] transformations = {"Blowfish/ECB/NoPadding", "Blowfish/ECB/PKCS5Padding", "Blowfish/CBC/NoPadding", "Blowfish/CBC/PKCS5Padding", "Blowfish/CTR/NoPadding"};
+        for (String transformation : transformations) {
+            Cipher cached = BlowfishCipher.newCipher(transformation);
+            Cipher jce = Cipher.getInstance(transformation, "SunJCE");
+            boolean aligned = transformation.endsWith("NoPadding") && !transformation.contains("CTR");
+            for (int length : new int[]{0, 1, 7, 8, 9, 63, 64, 65, 1029}) {
+                if (aligned && length % 8 != 0) {
+                    continue;
+                }
+                byte[] data = new byte[length];
+                random.nextBytes(data);
+                IvParameterSpec spec = transformation.contains("ECB") ? null : new IvParameterSpec(iv);
+                cached.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "Blowfish"), spec);
+                jce.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "Blowfish"), spec);
+                byte[] expected = jce.doFinal(data);
+                Assert.assertArrayEquals(transformation, expected, cached.doFinal(data));
+
+                //原地解密
+                byte[] encrypted = expected.clone();
+                cached.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "Blowfish"), spec);
+                Assert.assertEquals(length, cached.doFinal(encrypted, 0, encrypted.length, encrypted, 0));
+                Assert.assertArrayEquals(transformation, data, Arrays.copyOf(encrypted, length));
+            }
+        }
+
+        //相同密钥命中缓存，超出容量时淘汰
+        BlowfishUtils.setKeyCacheCapacity(2);
+        try {
+            long hits = BlowfishUtils.getKeyCacheStats().getHits();
+            byte[] data = "Blowfish key cache".getBytes();
+            byte[] encrypt = BlowfishUtils.encrypt(data, key, this.iv, Mode.CBC, Padding.PKCS5Padding);
+            Assert.assertTrue(BlowfishUtils.getKeyCacheStats().getHits() > hits);
+            long evictions = BlowfishUtils.getKeyCacheStats().getEvictions();
+            for (int i = 0; i < 3; i++) {
+                byte[] otherKey = new byte[16];
+                random.nextBytes(otherKey);
+                BlowfishUtils.encrypt(data, otherKey, Mode.ECB, Padding.PKCS5Padding);
+            }
+            CacheStats stats = BlowfishUtils.getKeyCacheStats();
+            Assert.assertTrue(stats.getEvictions() > evictions);
+            Assert.assertEquals(2, stats.getCapacity());
+            Assert.assertTrue(stats.getSize() <= 2);
+            Assert.assertArrayEquals(data, BlowfishUtils.decrypt(encrypt, key, this.iv, Mode.CBC, Padding.PKCS5Padding));
+        } finally {
+            BlowfishUtils.setKeyCacheCapacity(256);
+        }
+
+        //不同密钥长度（密钥循环异或到P数组）
+        Cipher cached = BlowfishCipher.newCipher("Blowfish/CBC/PKCS5Padding");
+        Cipher jce = Cipher.getInstance("Blowfish/CBC/PKCS5Padding", "SunJCE");
+        byte[] data = new byte[100];
+        random.nextBytes(data);
+        for (int keyLength : new int[]{4, 7, 13, 32, 56}) {
+            byte[] otherKey = new byte[keyLength];
+            random.nextBytes(otherKey);
+            SecretKeySpec keySpec = new SecretKeySpec(otherKey, "Blowfish");
+            cached.init(Cipher.ENCRYPT_MODE, keySpec, new IvParameterSpec(iv));
+            jce.init(Cipher.ENCRYPT_MODE, keySpec, new IvParameterSpec(iv));
+            byte[] encrypted = cached.doFinal(data);
+            Assert.assertArrayEquals(jce.doFinal(data), encrypted);
+            cached.init(Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(iv));
+            Assert.assertArrayEquals(data, cached.doFinal(encrypted));
+        }
+    }
+
 }
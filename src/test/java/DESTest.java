@@ -1,11 +1,16 @@
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
 import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.constant.Mode;
 import com.dxy.library.util.cipher.constant.Padding;
 import com.dxy.library.util.cipher.symmetry.DESUtils;
+import com.dxy.library.util.cipher.symmetry.ParallelCipher;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.time.Clock;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author duanxinyuan
@@ -68,4 +73,35 @@ public class DESTest {
         System.out.println(DESUtils.decrypt(DESUtils.encrypt(content, key, iv, Mode.OFB, Padding.PKCS7Padding), key, iv, Mode.OFB, Padding.PKCS7Padding));
     }
 
+    @Test
+    public void testParallelCtr() {
+        byte[] data = new byte[3 * 1024 * 1024 + 7];
+        new Random(1).nextBytes(data);
+        int threshold = ParallelCipher.getCtrThreshold();
+        ParallelCipher.setCtrThreshold(Integer.MAX_VALUE);
+        byte[] serial = DESUtils.encrypt(data, key.getBytes(), iv, Mode.CTR, Padding.NoPadding);
+        ParallelCipher.setCtrThreshold(threshold);
+
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        try {
+            byte[] encrypt = DESUtils.encrypt(data, key.getBytes(), iv, Mode.CTR, Padding.NoPadding);
+            Assert.assertArrayEquals(serial, encrypt);
+            Assert.assertArrayEquals(data, DESUtils.decrypt(encrypt, key.getBytes(), iv, Mode.CTR, Padding.NoPadding));
+        } finally {
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Test
+    public void testOutputArray() {
+        byte[] data = content.getBytes();
+        byte[] expected = DESUtils.encrypt(data, key.getBytes(), iv, Mode.CBC, Padding.PKCS5Padding);
+        byte[] out = new byte[DESUtils.getOutputSize(data.length, Mode.CBC, Padding.PKCS5Padding)];
+        Assert.assertEquals(expected.length, out.length);
+        Assert.assertEquals(out.length, DESUtils.encrypt(data, 0, data.length, out, 0, key.getBytes(), iv, Mode.CBC, Padding.PKCS5Padding));
+        Assert.assertArrayEquals(expected, out);
+        int length = DESUtils.decrypt(out, 0, out.length, out, 0, key.getBytes(), iv, Mode.CBC, Padding.PKCS5Padding);
+        Assert.assertArrayEquals(data, Arrays.copyOf(out, length));
+    }
+
 }
@@ -1,11 +1,19 @@
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
 import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.constant.Mode;
 import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.pojo.BatchResult;
+import com.dxy.library.util.cipher.pool.CipherPool;
 import com.dxy.library.util.cipher.symmetry.DESedeUtils;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.time.Clock;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author duanxinyuan
@@ -68,5 +76,40 @@ public class DESedeTest {
         System.out.println(DESedeUtils.decrypt(DESedeUtils.encrypt(content, key, iv, Mode.OFB, Padding.PKCS7Padding), key, iv, Mode.OFB, Padding.PKCS7Padding));
     }
 
+    @Test
+    public void testKeyLength() {
+        //线程缓存的Cipher第一次初始化时绑定Provider，SunJCE只支持24位密钥，16位密钥需要重新选择Provider
+        String longKey = "hello world, hi! 1234567";
+        byte[] data = new byte[1024 * 1024 + 5];
+        new Random(5).nextBytes(data);
+        for (String[] keys : new String[][]{{longKey, key}, {key, longKey}}) {
+            CipherPool.clear();
+            for (String k : keys) {
+                Assert.assertEquals(content, DESedeUtils.decrypt(DESedeUtils.encrypt(content, k, iv), k, iv));
+                BatchResult batchResult = DESedeUtils.encryptAll(Collections.singletonList(content.getBytes()), k.getBytes(), Collections.singletonList(iv), Mode.CBC, Padding.PKCS7Padding);
+                Assert.assertTrue(batchResult.isSuccess());
+                Assert.assertEquals(content, DESedeUtils.decrypt(Base64.encodeBase64String(batchResult.get(0)), k, iv));
+                //超过并行阈值，分段任务也使用线程缓存的Cipher
+                byte[] encrypt = DESedeUtils.encrypt(data, k.getBytes(), iv, Mode.CTR, Padding.NoPadding);
+                Assert.assertArrayEquals(data, DESedeUtils.decrypt(encrypt, k.getBytes(), iv, Mode.CTR, Padding.NoPadding));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelCbcDecrypt() {
+        byte[] data = new byte[1024 * 1024 + 5];
+        new Random(3).nextBytes(data);
+        byte[] encrypt = DESedeUtils.encrypt(data, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+        byte[] aligned = Arrays.copyOf(data, 1024 * 1024);
+        byte[] encryptAligned = DESedeUtils.encrypt(aligned, key.getBytes(), iv, Mode.CBC, Padding.NoPadding);
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        try {
+            Assert.assertArrayEquals(data, DESedeUtils.decrypt(encrypt, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding));
+            Assert.assertArrayEquals(aligned, DESedeUtils.decrypt(encryptAligned, key.getBytes(), iv, Mode.CBC, Padding.NoPadding));
+        } finally {
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
 
 }
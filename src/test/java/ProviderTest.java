@@ -0,0 +1,73 @@
+import com.dxy.library.util.cipher.constant.Algorithm;
+import com.dxy.library.util.cipher.constant.HmacType;
+import com.dxy.library.util.cipher.constant.Mode;
+import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.constant.ServiceType;
+import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.hash.HmacUtils;
+import com.dxy.library.util.cipher.hash.SHAUtils;
+import com.dxy.library.util.cipher.pool.CipherPool;
+import com.dxy.library.util.cipher.provider.ProviderStrategy;
+import com.dxy.library.util.cipher.symmetry.AESUtils;
+import com.dxy.library.util.cipher.symmetry.DESedeUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+/**
+ * @author duanxinyuan
+ * 2026/10/18 16:30
+ */
+public class ProviderTest {
+
+    private String content = "0123456789ABCDEF";
+    private String key = "hello world, hi!";
+    private String iv = "0102030405060708";
+
+    @Test
+    public void testSetProvider() {
+        String transformation = Algorithm.getAlgorithm(Algorithm.AES, Mode.CBC, Padding.PKCS5Padding);
+        String encrypt = AESUtils.encrypt(content, key, iv, Mode.CBC, Padding.PKCS5Padding);
+        ProviderStrategy.setProvider(ServiceType.Cipher, transformation, "BC");
+        try {
+            Assert.assertEquals("BC", ProviderStrategy.getProviders().get("Cipher." + transformation));
+            Assert.assertEquals("BC", CipherPool.getCipher(transformation).getProvider().getName());
+            Assert.assertEquals(encrypt, AESUtils.encrypt(content, key, iv, Mode.CBC, Padding.PKCS5Padding));
+            Assert.assertEquals(content, AESUtils.decrypt(encrypt, key, iv, Mode.CBC, Padding.PKCS5Padding));
+        } catch (Exception e) {
+            throw new CipherException(e);
+        } finally {
+            ProviderStrategy.removeProvider(ServiceType.Cipher, transformation);
+        }
+        Assert.assertNull(ProviderStrategy.getProvider(ServiceType.Cipher, transformation));
+    }
+
+    @Test(expected = CipherException.class)
+    public void testSetInvalidProvider() {
+        ProviderStrategy.setProvider(ServiceType.Cipher, Algorithm.getAlgorithm(Algorithm.SM4, Mode.CBC, Padding.PKCS7Padding), "SunJCE");
+    }
+
+    @Test
+    public void testCalibrate() {
+        String aes = AESUtils.encrypt(content, key, iv, Mode.CTR, Padding.NoPadding);
+        String desede = DESedeUtils.encrypt(content, key, "01020304", Mode.CBC, Padding.PKCS5Padding);
+        String sha = SHAUtils.sha256(content);
+        String hmac = HmacUtils.hmac(content, key, HmacType.HmacSHA256);
+        try {
+            Map<String, String> providers = ProviderStrategy.calibrate();
+            providers.forEach((algorithm, provider) -> System.out.println(algorithm + " -> " + provider));
+            //SunJCE不支持16字节的DESede密钥，不能被选中
+            Assert.assertEquals("BC", providers.get("Cipher." + Algorithm.getAlgorithm(Algorithm.DESede, Mode.CBC, Padding.PKCS5Padding)));
+            Assert.assertEquals("BC", providers.get("Cipher." + Algorithm.getAlgorithm(Algorithm.SM4, Mode.CBC, Padding.PKCS7Padding)));
+            Assert.assertNotNull(providers.get("Signature.SHA256withRSA"));
+            Assert.assertEquals(aes, AESUtils.encrypt(content, key, iv, Mode.CTR, Padding.NoPadding));
+            Assert.assertEquals(desede, DESedeUtils.encrypt(content, key, "01020304", Mode.CBC, Padding.PKCS5Padding));
+            Assert.assertEquals(sha, SHAUtils.sha256(content));
+            Assert.assertEquals(hmac, HmacUtils.hmac(content, key, HmacType.HmacSHA256));
+        } finally {
+            ProviderStrategy.clear();
+        }
+    }
+
+}
@@ -1,11 +1,38 @@
+import com.dxy.library.util.cipher.asymmetry.IncrementalSigner;
+import com.dxy.library.util.cipher.asymmetry.IncrementalVerifier;
+import com.dxy.library.util.cipher.asymmetry.RSAKeyPairPool;
 import com.dxy.library.util.cipher.asymmetry.RSAUtils;
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
 import com.dxy.library.util.cipher.constant.Mode;
 import com.dxy.library.util.cipher.constant.Padding;
 import com.dxy.library.util.cipher.constant.RSASignType;
+import com.dxy.library.util.cipher.exception.CipherException;
 import com.dxy.library.util.cipher.pojo.RSAKeyPair;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAKeyGenParameterSpec;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author duanxinyuan
@@ -113,4 +140,235 @@ public class RSATest {
         System.out.println("解密" + count + "次，耗时" + (System.currentTimeMillis() - startTime) + "毫秒");
     }
 
+    @Test
+    public void testKeyCache() throws InterruptedException {
+        RSAUtils.clearKeyCache();
+        RSAPublicKey rsaPublicKey = RSAUtils.getPublicKey(publicKey);
+        RSAPrivateKey rsaPrivateKey = RSAUtils.getPrivateKey(privateKey);
+        long hits = RSAUtils.getKeyCacheStats().getHits();
+        //String和byte[]密钥都命中缓存，返回同一个对象
+        Assert.assertSame(rsaPublicKey, RSAUtils.getPublicKey(publicKey));
+        Assert.assertSame(rsaPublicKey, RSAUtils.getPublicKey(Base64.decodeBase64(publicKey)));
+        Assert.assertSame(rsaPrivateKey, RSAUtils.getPrivateKey(privateKey));
+        String sign = RSAUtils.sign(RSASignType.SHA256withRSA, content, privateKey);
+        Assert.assertTrue(RSAUtils.verifySign(RSASignType.SHA256withRSA, content, publicKey, sign));
+        Assert.assertEquals(hits + 5, RSAUtils.getKeyCacheStats().getHits());
+
+        //私钥不能当作公钥使用
+        try {
+            RSAUtils.getPublicKey(privateKey);
+            Assert.fail();
+        } catch (CipherException ignored) {
+        }
+
+        //过期后重新解析
+        RSAUtils.setKeyCacheTtl(50);
+        try {
+            RSAUtils.clearKeyCache();
+            RSAPublicKey parsed = RSAUtils.getPublicKey(publicKey);
+            Assert.assertSame(parsed, RSAUtils.getPublicKey(publicKey));
+            Thread.sleep(100);
+            long expirations = RSAUtils.getKeyCacheStats().getExpirations();
+            Assert.assertNotSame(parsed, RSAUtils.getPublicKey(publicKey));
+            Assert.assertEquals(expirations + 1, RSAUtils.getKeyCacheStats().getExpirations());
+        } finally {
+            RSAUtils.setKeyCacheTtl(60 * 60 * 1000L);
+        }
+    }
+
+    @Test
+    public void testParallelSegment() {
+        byte[] data = new byte[5000];
+        new Random(7).nextBytes(data);
+        int threshold = RSAUtils.getParallelThreshold();
+        RSAUtils.setParallelThreshold(Integer.MAX_VALUE);
+        byte[] serial = RSAUtils.encryptByPublicKey(data, Base64.decodeBase64(publicKey));
+        byte[] serialNoPadding = RSAUtils.encrypt(data, RSAUtils.getPublicKey(publicKey), Mode.ECB, Padding.NoPadding);
+
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        RSAUtils.setParallelThreshold(2);
+        try {
+            //PKCS1填充每次加密结果不同，交叉解密校验
+            byte[] encrypt = RSAUtils.encryptByPublicKey(data, Base64.decodeBase64(publicKey));
+            Assert.assertEquals(serial.length, encrypt.length);
+            Assert.assertArrayEquals(data, RSAUtils.decryptByPrivateKey(encrypt, privateKey));
+            Assert.assertArrayEquals(data, RSAUtils.decryptByPrivateKey(serial, privateKey));
+            Assert.assertArrayEquals(serialNoPadding, RSAUtils.encrypt(data, RSAUtils.getPublicKey(publicKey), Mode.ECB, Padding.NoPadding));
+        } finally {
+            RSAUtils.setParallelThreshold(threshold);
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Test
+    public void testVerifyAll() {
+        Random random = new Random(8);
+        List<byte[]> data = new ArrayList<>();
+        List<byte[]> signs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            byte[] bytes = new byte[random.nextInt(200)];
+            random.nextBytes(bytes);
+            data.add(bytes);
+            signs.add(Base64.decodeBase64(RSAUtils.sign(RSASignType.SHA256withRSA, bytes, privateKey)));
+        }
+        //篡改数据、篡改签名、签名格式错误、签名为null
+        data.get(3)[0] ^= 1;
+        signs.get(100)[5] ^= 1;
+        signs.set(150, new byte[3]);
+        signs.set(299, null);
+
+        BitSet expected = new BitSet();
+        for (int i = 0; i < data.size(); i++) {
+            if (i != 3 && i != 100 && i != 150 && i != 299) {
+                expected.set(i);
+            }
+        }
+        Assert.assertEquals(expected, RSAUtils.verifyAll(RSASignType.SHA256withRSA, data, signs, publicKey));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assert.assertEquals(expected, RSAUtils.verifyAll(RSASignType.SHA256withRSA, data, signs, publicKey, pool));
+            //签名类型不可用等配置错误直接抛出，不视为验签失败
+            RSAUtils.verifyAll(RSASignType.WhirlpoolWithRSA, data, signs, publicKey, pool);
+            Assert.fail();
+        } catch (CipherException ignored) {
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStreamSign() throws IOException {
+        byte[] data = new byte[200 * 1024 + 17];
+        new Random(22).nextBytes(data);
+        //PKCS1签名是确定的，流式签名与一次性签名结果一致
+        String sign = RSAUtils.sign(RSASignType.SHA256withRSA, data, privateKey);
+        Assert.assertEquals(sign, RSAUtils.sign(RSASignType.SHA256withRSA, new ByteArrayInputStream(data), privateKey));
+        Path path = Files.createTempFile("rsa", ".data");
+        try {
+            Files.write(path, data);
+            Assert.assertEquals(sign, RSAUtils.sign(RSASignType.SHA256withRSA, path, privateKey));
+            try (FileChannel channel = FileChannel.open(path)) {
+                Assert.assertTrue(RSAUtils.verifySign(RSASignType.SHA256withRSA, channel, publicKey, Base64.decodeBase64(sign)));
+            }
+        } finally {
+            Files.delete(path);
+        }
+        Assert.assertTrue(RSAUtils.verifySign(RSASignType.SHA256withRSA, new ByteArrayInputStream(data), publicKey, Base64.decodeBase64(sign)));
+
+        //分段到达的数据
+        IncrementalSigner signer = RSAUtils.newSigner(RSASignType.SHA256withRSA, privateKey);
+        IncrementalVerifier verifier = RSAUtils.newVerifier(RSASignType.SHA256withRSA, publicKey);
+        for (int offset = 0; offset < data.length; offset += 1000) {
+            int length = Math.min(1000, data.length - offset);
+            signer.update(data, offset, length);
+            verifier.update(ByteBuffer.wrap(data, offset, length));
+        }
+        Assert.assertEquals(sign, Base64.encodeBase64String(signer.sign()));
+        Assert.assertTrue(verifier.verify(Base64.decodeBase64(sign)));
+
+        data[0] ^= 1;
+        Assert.assertFalse(RSAUtils.verifySign(RSASignType.SHA256withRSA, new ByteArrayInputStream(data), publicKey, Base64.decodeBase64(sign)));
+    }
+
+    @Test
+    public void testSignDigest() throws NoSuchAlgorithmException {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+        //PKCS1签名是确定的，摘要签名与原始数据签名结果一致
+        String sign = RSAUtils.signDigest(RSASignType.SHA256withRSA, digest, privateKey);
+        Assert.assertEquals(RSAUtils.sign(RSASignType.SHA256withRSA, data, privateKey), sign);
+        Assert.assertTrue(RSAUtils.verifyDigest(RSASignType.SHA256withRSA, digest, publicKey, Base64.decodeBase64(sign)));
+        Assert.assertTrue(RSAUtils.verifySign(RSASignType.SHA256withRSA, data, publicKey, Base64.decodeBase64(sign)));
+        Assert.assertFalse(RSAUtils.verifyDigest(RSASignType.SHA256withRSA, MessageDigest.getInstance("SHA-256").digest(new byte[1]), publicKey, Base64.decodeBase64(sign)));
+
+        byte[] sha1 = MessageDigest.getInstance("SHA-1").digest(data);
+        Assert.assertEquals(RSAUtils.sign(RSASignType.SHA1withRSA, data, privateKey), RSAUtils.signDigest(RSASignType.SHA1withRSA, sha1, privateKey));
+        try {
+            RSAUtils.signDigest(RSASignType.SHA256withRSA, sha1, privateKey);
+            Assert.fail();
+        } catch (CipherException ignored) {
+        }
+    }
+
+    @Test
+    public void testKeyPairPool() throws IOException, InterruptedException {
+        Path spillFile = Files.createTempFile("rsa", ".pool");
+        Files.delete(spillFile);
+        Set<String> privateKeys = new HashSet<>();
+        RSAKeyPairPool pool = new RSAKeyPairPool(1024, 4, 1, 2, spillFile);
+        try {
+            RSAUtils.setKeyPairPool(pool);
+            for (int i = 0; i < 300 && pool.size() < 4; i++) {
+                Thread.sleep(100);
+            }
+            Assert.assertEquals(4, pool.size());
+            //每个密钥对只会被取出一次
+            for (int i = 0; i < 3; i++) {
+                RSAKeyPair keyPair = RSAUtils.generateKey(1024);
+                Assert.assertTrue(privateKeys.add(keyPair.getPrivateKey()));
+                Assert.assertEquals(1024, keyPair.getModules().bitLength());
+            }
+            Assert.assertEquals(3, pool.getStats().getHits());
+            //补充在池自己的低优先级守护线程中进行
+            Assert.assertTrue(Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith("rsa-key-pair-pool-"))
+                    .allMatch(thread -> thread.isDaemon() && thread.getPriority() == Thread.MIN_PRIORITY));
+            RSAKeyPair keyPair = RSAUtils.generateKey(1024);
+            String sign = RSAUtils.sign(RSASignType.SHA256withRSA, content, keyPair.getPrivateKey());
+            Assert.assertTrue(RSAUtils.verifySign(RSASignType.SHA256withRSA, content, keyPair.getPublicKey(), sign));
+            privateKeys.add(keyPair.getPrivateKey());
+            //密钥长度不一致时不经过预生成池
+            RSAUtils.generateKey(2048);
+            Assert.assertEquals(4, pool.getStats().getHits() + pool.getStats().getMisses());
+            //降到低水位之后后台补充
+            for (int i = 0; i < 300 && pool.size() < 4; i++) {
+                Thread.sleep(100);
+            }
+            Assert.assertEquals(4, pool.size());
+        } finally {
+            RSAUtils.setKeyPairPool(null);
+            pool.close();
+        }
+        Assert.assertTrue(Files.exists(spillFile));
+
+        //重新创建时加载持久化文件并删除，已经取出过的密钥对不会再次出现
+        RSAKeyPairPool reloaded = new RSAKeyPairPool(1024, 4, 0, 1, spillFile);
+        try {
+            Assert.assertFalse(Files.exists(spillFile));
+            for (int i = 0; i < 4; i++) {
+                Assert.assertTrue(privateKeys.add(reloaded.take().getPrivateKey()));
+            }
+        } finally {
+            reloaded.close();
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    @Test
+    public void testParallelGenerateKey() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            //密钥长度为奇数时p比q多一位
+            RSAKeyPair oddKeyPair = RSAUtils.generateKey(1025, pool);
+            Assert.assertEquals(1025, oddKeyPair.getModules().bitLength());
+            String oddSign = RSAUtils.sign(RSASignType.SHA256withRSA, content, oddKeyPair.getPrivateKey());
+            Assert.assertTrue(RSAUtils.verifySign(RSASignType.SHA256withRSA, content, oddKeyPair.getPublicKey(), oddSign));
+
+            for (int keysize : new int[]{1024, 2048}) {
+                RSAKeyPair keyPair = RSAUtils.generateKey(keysize, pool);
+                Assert.assertEquals(keysize, keyPair.getModules().bitLength());
+                RSAPrivateCrtKey privateCrtKey = (RSAPrivateCrtKey) RSAUtils.getPrivateKey(keyPair.getPrivateKey());
+                Assert.assertEquals(keyPair.getModules(), privateCrtKey.getPrimeP().multiply(privateCrtKey.getPrimeQ()));
+                Assert.assertEquals(RSAKeyGenParameterSpec.F4, RSAUtils.getPublicKey(keyPair.getPublicKey()).getPublicExponent());
+
+                String encrypt = RSAUtils.encryptByPublicKey(content, keyPair.getPublicKey());
+                Assert.assertEquals(content, RSAUtils.decryptByPrivateKey(encrypt, keyPair.getPrivateKey()));
+                String sign = RSAUtils.sign(RSASignType.SHA256withRSA, content, keyPair.getPrivateKey());
+                Assert.assertTrue(RSAUtils.verifySign(RSASignType.SHA256withRSA, content, keyPair.getPublicKey(), sign));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
 }
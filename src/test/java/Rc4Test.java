@@ -1,6 +1,13 @@
+import com.dxy.library.util.cipher.symmetry.RC4Stream;
 import com.dxy.library.util.cipher.symmetry.RC4Utils;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
 /**
  * @author duanxinyuan
  * 2019/2/20 21:27
@@ -15,6 +22,45 @@ public class Rc4Test {
         System.out.println(ciphertext);
         String decryptText = RC4Utils.encryptOrDecrypt(ciphertext, key);
         System.out.println(decryptText);
+        Assert.assertEquals(content, decryptText);
+    }
+
+    @Test
+    public void testBytes() {
+        //公开测试向量
+        byte[] encrypt = RC4Utils.encryptOrDecrypt("Plaintext".getBytes(StandardCharsets.UTF_8), "Key".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals("bbf316e8d940af0ad3", Hex.encodeHexString(encrypt));
+        //ASCII内容与字符串接口一致
+        Assert.assertEquals(RC4Utils.encryptOrDecrypt(content, key),
+                new String(RC4Utils.encryptOrDecrypt(content.getBytes(StandardCharsets.ISO_8859_1), key.getBytes()), StandardCharsets.ISO_8859_1));
+
+        byte[] data = new byte[10000];
+        new Random(1).nextBytes(data);
+        byte[] expected = RC4Utils.encryptOrDecrypt(data, key.getBytes());
+
+        //分块处理
+        RC4Stream stream = new RC4Stream(key.getBytes());
+        byte[] chunked = new byte[data.length];
+        Random random = new Random(2);
+        for (int offset = 0; offset < data.length; ) {
+            int length = Math.min(data.length - offset, random.nextInt(100));
+            offset += stream.process(data, offset, length, chunked, offset);
+        }
+        Assert.assertArrayEquals(expected, chunked);
+
+        //直接内存
+        ByteBuffer in = ByteBuffer.allocateDirect(data.length);
+        in.put(data).flip();
+        ByteBuffer out = ByteBuffer.allocateDirect(data.length);
+        Assert.assertEquals(data.length, RC4Utils.encryptOrDecrypt(in, out, key.getBytes()));
+        byte[] direct = new byte[data.length];
+        ((ByteBuffer) out.flip()).get(direct);
+        Assert.assertArrayEquals(expected, direct);
+
+        //原地解密
+        stream.reset();
+        stream.process(expected, 0, expected.length, expected, 0);
+        Assert.assertArrayEquals(data, expected);
     }
 
 }
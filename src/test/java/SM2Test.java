@@ -1,10 +1,17 @@
 import com.dxy.library.util.cipher.asymmetry.SM2Utils;
 import com.dxy.library.util.cipher.constant.SM2SignType;
 import com.dxy.library.util.cipher.pojo.SM2KeyPair;
+import com.dxy.library.util.cipher.pool.SignaturePool;
+import org.apache.commons.codec.binary.Base64;
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SM3Digest;
 import org.bouncycastle.pqc.math.linearalgebra.ByteUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * @author duanxinyuan
  * 2019/2/21 20:56
@@ -81,4 +88,43 @@ public class SM2Test {
         System.out.println(SM2Utils.verifySign(SM2SignType.SHA256withSM2, content, sm2KeyPair.getEcPublicKey(), sign));
     }
 
+    @Test
+    public void testSignaturePool() {
+        SM2KeyPair sm2KeyPair = SM2Utils.generateKey();
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        String sign = SM2Utils.sign(SM2SignType.sm3WithSM2, content, sm2KeyPair.getEcPrivateKey());
+        long hits = SignaturePool.getStats().getHits();
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(SM2Utils.verifySign(SM2SignType.sm3WithSM2, content, sm2KeyPair.getEcPublicKey(), sign));
+            //验签失败之后Signature仍可复用
+            Assert.assertFalse(SM2Utils.verifySign(SM2SignType.sm3WithSM2, "tampered", sm2KeyPair.getEcPublicKey(), sign));
+            byte[] newSign = Base64.decodeBase64(SM2Utils.sign(SM2SignType.sm3WithSM2, data, sm2KeyPair.getEcPrivateKey()));
+            Assert.assertTrue(SM2Utils.verifySign(SM2SignType.sm3WithSM2, data, sm2KeyPair.getEcPublicKey(), newSign));
+        }
+        Assert.assertTrue(SignaturePool.getStats().getHits() >= hits + 39);
+    }
+
+    @Test
+    public void testSignDigest() {
+        SM2KeyPair sm2KeyPair = SM2Utils.generateKey();
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        for (SM2SignType signType : SM2SignType.values()) {
+            //e = H(Z || M)
+            Digest digest = signType == SM2SignType.sm3WithSM2 ? new SM3Digest() : new SHA256Digest();
+            byte[] z = SM2Utils.getZ(signType, sm2KeyPair.getEcPublicKey());
+            digest.update(z, 0, z.length);
+            digest.update(data, 0, data.length);
+            byte[] e = new byte[digest.getDigestSize()];
+            digest.doFinal(e, 0);
+
+            String sign = SM2Utils.signDigest(signType, e, sm2KeyPair.getEcPrivateKey());
+            Assert.assertTrue(SM2Utils.verifySign(signType, data, sm2KeyPair.getEcPublicKey(), Base64.decodeBase64(sign)));
+            Assert.assertTrue(SM2Utils.verifyDigest(signType, e, sm2KeyPair.getPublicKey(), Base64.decodeBase64(sign)));
+            String dataSign = SM2Utils.sign(signType, data, sm2KeyPair.getEcPrivateKey());
+            Assert.assertTrue(SM2Utils.verifyDigest(signType, e, sm2KeyPair.getEcPublicKey(), Base64.decodeBase64(dataSign)));
+            e[0] ^= 1;
+            Assert.assertFalse(SM2Utils.verifyDigest(signType, e, sm2KeyPair.getEcPublicKey(), Base64.decodeBase64(dataSign)));
+        }
+    }
+
 }
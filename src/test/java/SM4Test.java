@@ -1,11 +1,31 @@
+import com.dxy.library.util.cipher.concurrent.CipherExecutors;
 import com.dxy.library.util.cipher.constant.Algorithm;
 import com.dxy.library.util.cipher.constant.Mode;
 import com.dxy.library.util.cipher.constant.Padding;
+import com.dxy.library.util.cipher.engine.SM4Cipher;
+import com.dxy.library.util.cipher.exception.CipherException;
+import com.dxy.library.util.cipher.pojo.BatchResult;
+import com.dxy.library.util.cipher.symmetry.CipherContext;
+import com.dxy.library.util.cipher.symmetry.ParallelCipher;
 import com.dxy.library.util.cipher.symmetry.SM4Utils;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Assert;
 import org.junit.Test;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author duanxinyuan
@@ -69,4 +89,252 @@ public class SM4Test {
 
     }
 
+    @Test
+    public void testPrepare() {
+        CipherContext context = SM4Utils.prepare(key.getBytes(), Mode.CBC, Padding.PKCS7Padding);
+        for (int i = 0; i < 3; i++) {
+            byte[] encrypt = context.encrypt(content.getBytes(), iv);
+            Assert.assertArrayEquals(SM4Utils.encrypt(content.getBytes(), key.getBytes(), iv), encrypt);
+            Assert.assertEquals(content, new String(context.decrypt(encrypt, iv)));
+        }
+        CipherContext ecb = SM4Utils.prepare(key.getBytes(), Mode.ECB, Padding.NoPadding);
+        Assert.assertArrayEquals(SM4Utils.encrypt(content.getBytes(), key.getBytes(), Mode.ECB, Padding.NoPadding), ecb.encrypt(content.getBytes()));
+
+        //每次更换偏移量，只重新设置偏移量，不重新扩展密钥
+        for (int i = 0; i < 8; i++) {
+            String ivString = String.format("%016d", i * 7919L);
+            byte[] encrypt = context.encrypt(content.getBytes(), ivString);
+            Assert.assertArrayEquals(SM4Utils.encrypt(content.getBytes(), key.getBytes(), ivString, Mode.CBC, Padding.PKCS7Padding), encrypt);
+            Assert.assertEquals(content, new String(context.decrypt(encrypt, ivString)));
+        }
+    }
+
+    @Test
+    public void testByteBuffer() {
+        byte[] expected = SM4Utils.encrypt(content.getBytes(), key.getBytes(), iv);
+        ByteBuffer in = ByteBuffer.allocateDirect(64);
+        in.put(content.getBytes()).flip();
+        ByteBuffer out = ByteBuffer.allocateDirect(64);
+        int length = SM4Utils.encrypt(in, out, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+        Assert.assertEquals(expected.length, length);
+        out.flip();
+        byte[] encrypt = new byte[length];
+        out.duplicate().get(encrypt);
+        Assert.assertArrayEquals(expected, encrypt);
+
+        ByteBuffer plain = ByteBuffer.allocateDirect(64);
+        SM4Utils.decrypt(out, plain, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+        plain.flip();
+        byte[] decrypt = new byte[plain.remaining()];
+        plain.get(decrypt);
+        Assert.assertEquals(content, new String(decrypt));
+    }
+
+    @Test
+    public void testFile() throws IOException {
+        for (int size : new int[]{1000, 17 * 1024 * 1024 + 5}) {
+            byte[] data = new byte[size];
+            new Random(size).nextBytes(data);
+            Path plain = Files.createTempFile("sm4", ".txt");
+            Path encrypt = Files.createTempFile("sm4", ".enc");
+            Path decrypt = Files.createTempFile("sm4", ".dec");
+            try {
+                Files.write(plain, data);
+                SM4Utils.encryptFile(plain, encrypt, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+                Assert.assertArrayEquals(SM4Utils.encrypt(data, key.getBytes(), iv), Files.readAllBytes(encrypt));
+                SM4Utils.decryptFile(encrypt, decrypt, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+                Assert.assertArrayEquals(data, Files.readAllBytes(decrypt));
+            } finally {
+                Files.deleteIfExists(plain);
+                Files.deleteIfExists(encrypt);
+                Files.deleteIfExists(decrypt);
+            }
+        }
+    }
+
+    @Test
+    public void testAead() {
+        byte[] nonce = "0123456789AB".getBytes();
+        byte[] aad = "header".getBytes();
+        byte[] encrypt = SM4Utils.encryptGCM(content.getBytes(), key.getBytes(), nonce, aad);
+        Assert.assertEquals(content.length() + 16, encrypt.length);
+        Assert.assertEquals(content, new String(SM4Utils.decryptGCM(encrypt, key.getBytes(), nonce, aad)));
+        try {
+            SM4Utils.decryptGCM(encrypt, key.getBytes(), nonce, "other".getBytes());
+            Assert.fail();
+        } catch (CipherException ignored) {
+        }
+
+        byte[] ccm = SM4Utils.encrypt(content.getBytes(), key.getBytes(), nonce, aad, 64, Mode.CCM);
+        Assert.assertEquals(content.length() + 8, ccm.length);
+        Assert.assertEquals(content, new String(SM4Utils.decrypt(ccm, key.getBytes(), nonce, aad, 64, Mode.CCM)));
+    }
+
+    @Test
+    public void testParallelCtr() {
+        byte[] data = new byte[3 * 1024 * 1024 + 7];
+        new Random(1).nextBytes(data);
+        int threshold = ParallelCipher.getCtrThreshold();
+        ParallelCipher.setCtrThreshold(Integer.MAX_VALUE);
+        byte[] serial = SM4Utils.encrypt(data, key.getBytes(), iv, Mode.CTR, Padding.NoPadding);
+        ParallelCipher.setCtrThreshold(threshold);
+
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        try {
+            byte[] encrypt = SM4Utils.encrypt(data, key.getBytes(), iv, Mode.CTR, Padding.NoPadding);
+            Assert.assertArrayEquals(serial, encrypt);
+            Assert.assertArrayEquals(data, SM4Utils.decrypt(encrypt, key.getBytes(), iv, Mode.CTR, Padding.NoPadding));
+        } finally {
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Test
+    public void testParallelEcb() {
+        byte[] data = new byte[1024 * 1024 + 3];
+        new Random(2).nextBytes(data);
+        byte[] aligned = Arrays.copyOf(data, 1024 * 1024);
+        int threshold = ParallelCipher.getEcbThreshold();
+        ParallelCipher.setEcbThreshold(Integer.MAX_VALUE);
+        byte[] serial = SM4Utils.encrypt(data, key.getBytes(), Mode.ECB, Padding.PKCS7Padding);
+        byte[] serialAligned = SM4Utils.encrypt(aligned, key.getBytes(), Mode.ECB, Padding.NoPadding);
+        ParallelCipher.setEcbThreshold(threshold);
+
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        try {
+            byte[] encrypt = SM4Utils.encrypt(data, key.getBytes(), Mode.ECB, Padding.PKCS7Padding);
+            Assert.assertArrayEquals(serial, encrypt);
+            Assert.assertArrayEquals(data, SM4Utils.decrypt(encrypt, key.getBytes(), Mode.ECB, Padding.PKCS7Padding));
+            byte[] encryptAligned = SM4Utils.encrypt(aligned, key.getBytes(), Mode.ECB, Padding.NoPadding);
+            Assert.assertArrayEquals(serialAligned, encryptAligned);
+            Assert.assertArrayEquals(aligned, SM4Utils.decrypt(encryptAligned, key.getBytes(), Mode.ECB, Padding.NoPadding));
+        } finally {
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Test
+    public void testParallelCbcDecrypt() {
+        byte[] data = new byte[1024 * 1024 + 5];
+        new Random(3).nextBytes(data);
+        byte[] encrypt = SM4Utils.encrypt(data, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding);
+        byte[] aligned = Arrays.copyOf(data, 1024 * 1024);
+        byte[] encryptAligned = SM4Utils.encrypt(aligned, key.getBytes(), iv, Mode.CBC, Padding.NoPadding);
+        CipherExecutors.setPool(new ForkJoinPool(4));
+        try {
+            Assert.assertArrayEquals(data, SM4Utils.decrypt(encrypt, key.getBytes(), iv, Mode.CBC, Padding.PKCS7Padding));
+            Assert.assertArrayEquals(aligned, SM4Utils.decrypt(encryptAligned, key.getBytes(), iv, Mode.CBC, Padding.NoPadding));
+        } finally {
+            CipherExecutors.setPool(ForkJoinPool.commonPool());
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        List<byte[]> data = new ArrayList<>();
+        List<String> ivs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            data.add((content + i).getBytes());
+            ivs.add(String.format("%016d", i));
+        }
+        //偏移量长度错误
+        ivs.set(10, "0102");
+        BatchResult encrypted = SM4Utils.encryptAll(data, key.getBytes(), ivs, Mode.CBC, Padding.PKCS7Padding);
+        Assert.assertFalse(encrypted.isSuccess());
+        Assert.assertEquals(Collections.singleton(10), encrypted.getErrors().keySet());
+        Assert.assertNull(encrypted.get(10));
+        for (int i = 0; i < data.size(); i++) {
+            if (i != 10) {
+                Assert.assertArrayEquals(SM4Utils.encrypt(data.get(i), key.getBytes(), ivs.get(i), Mode.CBC, Padding.PKCS7Padding), encrypted.get(i));
+            }
+        }
+
+        List<byte[]> ciphertexts = new ArrayList<>(encrypted.getResults());
+        //密文被截断，去除填充失败
+        ciphertexts.set(10, Arrays.copyOf(ciphertexts.get(0), 8));
+        ivs.set(10, ivs.get(0));
+        BatchResult decrypted = SM4Utils.decryptAll(ciphertexts, key.getBytes(), ivs, Mode.CBC, Padding.PKCS7Padding);
+        Assert.assertEquals(Collections.singleton(10), decrypted.getErrors().keySet());
+        for (int i = 0; i < data.size(); i++) {
+            if (i != 10) {
+                Assert.assertArrayEquals(data.get(i), decrypted.get(i));
+            }
+        }
+
+        BatchResult ecb = SM4Utils.encryptAll(data.subList(0, 10), key.getBytes(), null, Mode.ECB, Padding.PKCS7Padding);
+        Assert.assertTrue(ecb.isSuccess());
+        Assert.assertArrayEquals(SM4Utils.encrypt(data.get(3), key.getBytes(), Mode.ECB, Padding.PKCS7Padding), ecb.get(3));
+
+        //复用的Cipher已用其他密钥和相同偏移量初始化过
+        byte[] otherKey = "hello world, ho!".getBytes();
+        BatchResult other = SM4Utils.encryptAll(data.subList(0, 1), otherKey, ivs.subList(0, 1), Mode.CBC, Padding.PKCS7Padding);
+        Assert.assertArrayEquals(SM4Utils.encrypt(data.get(0), otherKey, ivs.get(0), Mode.CBC, Padding.PKCS7Padding), other.get(0));
+    }
+
+    @Test
+    public void testTableEngine() throws Exception {
+        //GB/T 32907-2016 附录A 示例1
+        byte[] standard = Hex.decodeHex("0123456789abcdeffedcba9876543210");
+        Cipher cipher = SM4Cipher.newCipher("SM4/ECB/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(standard, "SM4"));
+        Assert.assertEquals("681edf34d206965e86b3e94f536e4246", Hex.encodeHexString(cipher.doFinal(standard)));
+
+        Random random = new Random(4);
+        byte[] key = new byte[16];
+        byte[] iv = new byte[16];
+        random.nextBytes(key);
+        random.nextBytes(iv);
+        String[] transformations = {"SM4/ECB/NoPadding", "SM4/ECB/PKCS5Padding", "SM4/CBC/NoPadding", "SM4/CBC/PKCS7Padding", "SM4/CTR/NoPadding"};
+        for (String transformation : transformations) {
+            Cipher table = SM4Cipher.newCipher(transformation);
+            Cipher bc = Cipher.getInstance(transformation, "BC");
+            boolean aligned = transformation.endsWith("NoPadding") && !transformation.contains("CTR");
+            for (int length : new int[]{0, 1, 15, 16, 17, 63, 64, 65, 100, 1029, 5000}) {
+                if (aligned && length % 16 != 0) {
+                    continue;
+                }
+                byte[] data = new byte[length];
+                random.nextBytes(data);
+                IvParameterSpec spec = transformation.contains("ECB") ? null : new IvParameterSpec(iv);
+                table.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "SM4"), spec);
+                bc.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "SM4"), spec);
+                byte[] expected = bc.doFinal(data);
+                Assert.assertArrayEquals(transformation, expected, table.doFinal(data));
+
+                //分段update
+                byte[] encrypted = new byte[table.getOutputSize(length)];
+                int offset = 0;
+                int position = 0;
+                while (offset < length) {
+                    int chunk = Math.min(length - offset, random.nextInt(40));
+                    position += table.update(data, offset, chunk, encrypted, position);
+                    offset += chunk;
+                }
+                position += table.doFinal(encrypted, position);
+                Assert.assertArrayEquals(transformation, expected, Arrays.copyOf(encrypted, position));
+
+                //原地解密
+                table.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "SM4"), spec);
+                Assert.assertEquals(length, table.doFinal(encrypted, 0, position, encrypted, 0));
+                Assert.assertArrayEquals(transformation, data, Arrays.copyOf(encrypted, length));
+            }
+        }
+
+        //同一个SecretKeySpec对象交替加解密、更换偏移量
+        SecretKeySpec keySpec = new SecretKeySpec(key, "SM4");
+        Cipher table = SM4Cipher.newCipher("SM4/CBC/PKCS7Padding");
+        Cipher bc = Cipher.getInstance("SM4/CBC/PKCS7Padding", "BC");
+        byte[] data = new byte[100];
+        for (int i = 0; i < 4; i++) {
+            random.nextBytes(iv);
+            random.nextBytes(data);
+            table.init(Cipher.ENCRYPT_MODE, keySpec, new IvParameterSpec(iv));
+            bc.init(Cipher.ENCRYPT_MODE, keySpec, new IvParameterSpec(iv));
+            byte[] encrypted = table.doFinal(data);
+            Assert.assertArrayEquals(bc.doFinal(data), encrypted);
+            table.init(Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(iv));
+            Assert.assertArrayEquals(data, table.doFinal(encrypted));
+        }
+    }
+
 }